@@ -0,0 +1,190 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameCounters;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static org.lwjgl.system.MemoryUtil.memAddress;
+import static org.lwjgl.system.MemoryUtil.memAlloc;
+import static org.lwjgl.system.MemoryUtil.memCopy;
+import static org.lwjgl.system.MemoryUtil.memFree;
+
+/**
+ * Cost of handing one decoded frame to the render loop while a reader thread keeps taking frames, as the render loop
+ * does when it uploads them.
+ * <p>
+ * In each group the "write" method is the decoder thread and the "read" method stands in for the upload, copying the
+ * whole frame out as a driver copies it into its own staging memory. Where the original callback held a monitor the
+ * reader holds it too, so the two threads contend for it; the unsynchronised variants contend only for memory
+ * bandwidth and caches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Group)
+public class ContendedFrameCopyBenchmark extends FrameBuffers {
+
+    private FrameExchange<int[]> exchange;
+
+    private int[] uploadPixels;
+
+    private ByteBuffer uploadMemory;
+
+    @Override
+    void allocate() {
+        exchange = new FrameExchange<>(index -> new int[pixels], new FrameCounters());
+        uploadPixels = new int[pixels];
+        uploadMemory = memAlloc(pixels * 4);
+    }
+
+    @Override
+    void free() {
+        memFree(uploadMemory);
+    }
+
+    private void readHeap() {
+        System.arraycopy(destinationPixels, 0, uploadPixels, 0, pixels);
+    }
+
+    private void readOffHeap() {
+        memCopy(destinationAddress, memAddress(uploadMemory), pixels * 4L);
+    }
+
+    @Benchmark
+    @Group("exchangePublish")
+    @GroupThreads(1)
+    public int[] exchangePublishWrite() {
+        exchange.publish();
+        return exchange.writeBuffer();
+    }
+
+    @Benchmark
+    @Group("exchangePublish")
+    @GroupThreads(1)
+    public void exchangePublishRead() {
+        int[] frame = exchange.acquire();
+        if (frame != null) {
+            System.arraycopy(frame, 0, uploadPixels, 0, pixels);
+        }
+    }
+
+    @Benchmark
+    @Group("arraycopyUnderMonitor")
+    @GroupThreads(1)
+    public void arraycopyUnderMonitorWrite() {
+        PixelKernels.copyUnderMonitor(sourcePixels, destinationPixels);
+    }
+
+    @Benchmark
+    @Group("arraycopyUnderMonitor")
+    @GroupThreads(1)
+    public void arraycopyUnderMonitorRead() {
+        synchronized (destinationPixels) {
+            readHeap();
+        }
+    }
+
+    @Benchmark
+    @Group("byteBufferBulkPut")
+    @GroupThreads(1)
+    public void byteBufferBulkPutWrite() {
+        PixelKernels.bulkPut(sourcePixels, destinationView);
+    }
+
+    @Benchmark
+    @Group("byteBufferBulkPut")
+    @GroupThreads(1)
+    public void byteBufferBulkPutRead() {
+        readOffHeap();
+    }
+
+    @Benchmark
+    @Group("memCopyOffHeap")
+    @GroupThreads(1)
+    public void memCopyOffHeapWrite() {
+        PixelKernels.offHeapCopy(sourceAddress, destinationAddress, pixels * 4L);
+    }
+
+    @Benchmark
+    @Group("memCopyOffHeap")
+    @GroupThreads(1)
+    public void memCopyOffHeapRead() {
+        readOffHeap();
+    }
+
+    @Benchmark
+    @Group("swizzleMask")
+    @GroupThreads(1)
+    public void swizzleMaskWrite() {
+        PixelKernels.swizzleMask(sourcePixels, destinationPixels);
+    }
+
+    @Benchmark
+    @Group("swizzleMask")
+    @GroupThreads(1)
+    public void swizzleMaskRead() {
+        readHeap();
+    }
+
+    @Benchmark
+    @Group("swizzleReverseBytes")
+    @GroupThreads(1)
+    public void swizzleReverseBytesWrite() {
+        PixelKernels.swizzleReverse(sourcePixels, destinationPixels);
+    }
+
+    @Benchmark
+    @Group("swizzleReverseBytes")
+    @GroupThreads(1)
+    public void swizzleReverseBytesRead() {
+        readHeap();
+    }
+
+    @Benchmark
+    @Group("swizzleOffHeap")
+    @GroupThreads(1)
+    public void swizzleOffHeapWrite() {
+        PixelKernels.swizzleOffHeap(sourceAddress, destinationAddress, pixels);
+    }
+
+    @Benchmark
+    @Group("swizzleOffHeap")
+    @GroupThreads(1)
+    public void swizzleOffHeapRead() {
+        readOffHeap();
+    }
+}
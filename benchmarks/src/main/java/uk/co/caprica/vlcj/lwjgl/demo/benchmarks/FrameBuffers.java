@@ -0,0 +1,106 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.lwjgl.system.MemoryUtil.memAddress;
+import static org.lwjgl.system.MemoryUtil.memAlloc;
+import static org.lwjgl.system.MemoryUtil.memFree;
+
+/**
+ * Source and destination frames for the copy benchmarks, on the heap and off it, at each benchmarked resolution.
+ * <p>
+ * Off-heap frames are allocated with the LWJGL allocator, as the demo's mapped buffers are - this needs the LWJGL
+ * native library, but no GPU.
+ * <p>
+ * JMH needs the class declaring the parameters to be a public state, each benchmark declares its own scope. JMH does
+ * not order setup methods across a class hierarchy, so these are the only ones - a benchmark that needs more state
+ * overrides {@link #allocate()} and {@link #free()}, which run after the frames exist and before they are freed.
+ */
+@State(Scope.Thread)
+public abstract class FrameBuffers {
+
+    @Param({"1280x720", "1920x1080", "3840x2160", "7680x4320"})
+    public String resolution;
+
+    int pixels;
+
+    int[] sourcePixels;
+
+    int[] destinationPixels;
+
+    ByteBuffer sourceMemory;
+
+    ByteBuffer destinationMemory;
+
+    IntBuffer destinationView;
+
+    long sourceAddress;
+
+    long destinationAddress;
+
+    @Setup(Level.Trial)
+    public void allocateFrames() {
+        String[] size = resolution.toLowerCase(Locale.ROOT).split("x");
+        pixels = Integer.parseInt(size[0]) * Integer.parseInt(size[1]);
+
+        // Random pixels so nothing can take a shortcut on uniform data
+        sourcePixels = new int[pixels];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < pixels; i++) {
+            sourcePixels[i] = random.nextInt();
+        }
+        destinationPixels = new int[pixels];
+
+        sourceMemory = memAlloc(pixels * 4);
+        sourceMemory.asIntBuffer().put(sourcePixels);
+        destinationMemory = memAlloc(pixels * 4);
+        destinationView = destinationMemory.asIntBuffer();
+        sourceAddress = memAddress(sourceMemory);
+        destinationAddress = memAddress(destinationMemory);
+
+        allocate();
+    }
+
+    @TearDown(Level.Trial)
+    public void freeFrames() {
+        free();
+
+        memFree(sourceMemory);
+        memFree(destinationMemory);
+    }
+
+    void allocate() {
+    }
+
+    void free() {
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameCounters;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of handing one decoded frame to the render loop, with nothing else running.
+ * <p>
+ * Each benchmark is one frame's worth of work on the decoder thread, in the render callback.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class FrameCopyBenchmark extends FrameBuffers {
+
+    private FrameExchange<int[]> exchange;
+
+    @Override
+    void allocate() {
+        exchange = new FrameExchange<>(index -> new int[pixels], new FrameCounters());
+    }
+
+    /**
+     * Handing a frame to the render loop through the exchange - the render callback still makes its one copy from the
+     * native buffer into the exchange's write buffer (the same work as the copy kernels below), but publishing it
+     * afterwards takes no monitor and copies nothing.
+     */
+    @Benchmark
+    public int[] exchangePublish() {
+        exchange.publish();
+        return exchange.writeBuffer();
+    }
+
+    @Benchmark
+    public void arraycopyUnderMonitor() {
+        PixelKernels.copyUnderMonitor(sourcePixels, destinationPixels);
+    }
+
+    @Benchmark
+    public void byteBufferBulkPut() {
+        PixelKernels.bulkPut(sourcePixels, destinationView);
+    }
+
+    @Benchmark
+    public void memCopyOffHeap() {
+        PixelKernels.offHeapCopy(sourceAddress, destinationAddress, pixels * 4L);
+    }
+
+    @Benchmark
+    public void swizzleMask() {
+        PixelKernels.swizzleMask(sourcePixels, destinationPixels);
+    }
+
+    @Benchmark
+    public void swizzleReverseBytes() {
+        PixelKernels.swizzleReverse(sourcePixels, destinationPixels);
+    }
+
+    @Benchmark
+    public void swizzleOffHeap() {
+        PixelKernels.swizzleOffHeap(sourceAddress, destinationAddress, pixels);
+    }
+}
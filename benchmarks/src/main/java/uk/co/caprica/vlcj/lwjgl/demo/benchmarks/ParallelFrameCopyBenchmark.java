@@ -0,0 +1,91 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.ParallelFrameCopy;
+
+import java.nio.IntBuffer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of copying one decoded frame in parallel row bands, against the number of copy threads.
+ * <p>
+ * One thread is the plain single-threaded copy. The crossover resolution is the smallest one at which more threads
+ * beat one - below it, handing the bands to the pool costs more than the copy itself, and frames that size should be
+ * left under the demo's copy threshold.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class ParallelFrameCopyBenchmark extends FrameBuffers {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ParallelFrameCopy copy;
+
+    private IntBuffer sourceView;
+
+    private int rows;
+
+    @Override
+    void allocate() {
+        // No threshold, so every frame is split and the benchmark shows where splitting stops paying off
+        copy = new ParallelFrameCopy(threads, 0);
+        sourceView = sourceMemory.asIntBuffer();
+        rows = Integer.parseInt(resolution.toLowerCase(Locale.ROOT).split("x")[1]);
+    }
+
+    @Override
+    void free() {
+        copy.free();
+    }
+
+    /**
+     * Native to native, as in the "persistent" upload mode and for each plane of a YUV frame.
+     */
+    @Benchmark
+    public void offHeap() {
+        copy.copy(sourceAddress, destinationAddress, pixels * 4L, rows);
+    }
+
+    /**
+     * Native to the heap, as in the "direct" and "pbo" upload modes.
+     */
+    @Benchmark
+    public int[] toHeap() {
+        copy.copy(sourceView, destinationPixels, pixels, rows);
+        return destinationPixels;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.benchmarks;
+
+import java.nio.IntBuffer;
+
+import static org.lwjgl.system.MemoryUtil.memCopy;
+import static org.lwjgl.system.MemoryUtil.memGetInt;
+import static org.lwjgl.system.MemoryUtil.memPutInt;
+
+/**
+ * The ways a decoded frame can be moved from where the decoder wrote it to where the renderer reads it.
+ * <p>
+ * Pixels are 32-bit BGRA as LibVLC's RV32 chroma produces them, which as a little-endian int is 0xAARRGGBB. The swizzle
+ * variants convert to RGBA, 0xAABBGGRR, so the upload needs no format conversion of its own.
+ */
+final class PixelKernels {
+
+    private PixelKernels() {
+    }
+
+    /**
+     * Copy the frame while holding the destination's monitor, what the render callback originally did so the render
+     * loop could not upload a half-written frame.
+     *
+     * @param source decoded frame
+     * @param destination frame read by the render loop, also the lock
+     */
+    static void copyUnderMonitor(int[] source, int[] destination) {
+        synchronized (destination) {
+            System.arraycopy(source, 0, destination, 0, source.length);
+        }
+    }
+
+    /**
+     * Copy a heap frame into a direct buffer with a bulk put.
+     *
+     * @param source decoded frame
+     * @param destination direct buffer, in native order
+     */
+    static void bulkPut(int[] source, IntBuffer destination) {
+        destination.clear();
+        destination.put(source);
+    }
+
+    /**
+     * Copy an off-heap frame into other off-heap memory, as the persistently mapped upload mode does.
+     *
+     * @param source address of the decoded frame
+     * @param destination address to copy to
+     * @param bytes size of the frame, in bytes
+     */
+    static void offHeapCopy(long source, long destination, long bytes) {
+        memCopy(source, destination, bytes);
+    }
+
+    /**
+     * Swap the red and blue channels with masks and shifts.
+     *
+     * @param source BGRA frame
+     * @param destination RGBA frame
+     */
+    static void swizzleMask(int[] source, int[] destination) {
+        for (int i = 0; i < source.length; i++) {
+            int pixel = source[i];
+            destination[i] = (pixel & 0xFF00FF00) | ((pixel >>> 16) & 0xFF) | ((pixel & 0xFF) << 16);
+        }
+    }
+
+    /**
+     * Swap the red and blue channels by reversing the bytes and rotating alpha back into place - both are intrinsics
+     * on common hardware.
+     *
+     * @param source BGRA frame
+     * @param destination RGBA frame
+     */
+    static void swizzleReverse(int[] source, int[] destination) {
+        for (int i = 0; i < source.length; i++) {
+            destination[i] = Integer.rotateRight(Integer.reverseBytes(source[i]), 8);
+        }
+    }
+
+    /**
+     * Swap the red and blue channels while copying between off-heap frames.
+     *
+     * @param source address of the BGRA frame
+     * @param destination address of the RGBA frame
+     * @param pixels number of pixels
+     */
+    static void swizzleOffHeap(long source, long destination, int pixels) {
+        long end = source + ((long) pixels << 2);
+        for (long offset = 0; source + offset < end; offset += 4) {
+            int pixel = memGetInt(source + offset);
+            memPutInt(destination + offset, (pixel & 0xFF00FF00) | ((pixel >>> 16) & 0xFF) | ((pixel & 0xFF) << 16));
+        }
+    }
+}
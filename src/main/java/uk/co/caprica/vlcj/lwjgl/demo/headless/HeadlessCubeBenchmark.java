@@ -0,0 +1,432 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.headless;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.glfw.GLFW;
+import org.lwjgl.glfw.GLFWErrorCallback;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.Configuration;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.CoreCubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.CubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.FixedFunctionCubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.MultiTextureCube;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.TextureArrayCubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.Transform;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameCounters;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.VideoFrame;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.CompressedTextureCache;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.VideoTexture;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.timing.CpuTimer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.upload.DirectTextureUploader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.lwjgl.glfw.GLFW.GLFW_CONTEXT_CREATION_API;
+import static org.lwjgl.glfw.GLFW.GLFW_EGL_CONTEXT_API;
+import static org.lwjgl.glfw.GLFW.GLFW_FALSE;
+import static org.lwjgl.glfw.GLFW.GLFW_OSMESA_CONTEXT_API;
+import static org.lwjgl.glfw.GLFW.GLFW_PLATFORM;
+import static org.lwjgl.glfw.GLFW.GLFW_PLATFORM_NULL;
+import static org.lwjgl.glfw.GLFW.GLFW_VISIBLE;
+import static org.lwjgl.glfw.GLFW.glfwCreateWindow;
+import static org.lwjgl.glfw.GLFW.glfwDefaultWindowHints;
+import static org.lwjgl.glfw.GLFW.glfwDestroyWindow;
+import static org.lwjgl.glfw.GLFW.glfwInit;
+import static org.lwjgl.glfw.GLFW.glfwInitHint;
+import static org.lwjgl.glfw.GLFW.glfwMakeContextCurrent;
+import static org.lwjgl.glfw.GLFW.glfwTerminate;
+import static org.lwjgl.glfw.GLFW.glfwWindowHint;
+import static org.lwjgl.opengl.GL11.GL_BLEND;
+import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
+import static org.lwjgl.opengl.GL11.GL_LESS;
+import static org.lwjgl.opengl.GL11.GL_RENDERER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_HEIGHT;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WIDTH;
+import static org.lwjgl.opengl.GL11.GL_TRUE;
+import static org.lwjgl.opengl.GL11.GL_VERSION;
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL11.glClear;
+import static org.lwjgl.opengl.GL11.glClearColor;
+import static org.lwjgl.opengl.GL11.glDepthFunc;
+import static org.lwjgl.opengl.GL11.glEnable;
+import static org.lwjgl.opengl.GL11.glFinish;
+import static org.lwjgl.opengl.GL11.glGetString;
+import static org.lwjgl.opengl.GL11.glGetTexLevelParameteri;
+import static org.lwjgl.opengl.GL11.glViewport;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE_COMPRESSED;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE_COMPRESSED_IMAGE_SIZE;
+import static org.lwjgl.opengl.GL30.GL_COLOR_ATTACHMENT0;
+import static org.lwjgl.opengl.GL30.GL_DEPTH_ATTACHMENT;
+import static org.lwjgl.opengl.GL30.GL_DEPTH_COMPONENT24;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER_COMPLETE;
+import static org.lwjgl.opengl.GL30.GL_RENDERBUFFER;
+import static org.lwjgl.opengl.GL30.GL_RGBA8;
+import static org.lwjgl.opengl.GL30.glBindFramebuffer;
+import static org.lwjgl.opengl.GL30.glBindRenderbuffer;
+import static org.lwjgl.opengl.GL30.glCheckFramebufferStatus;
+import static org.lwjgl.opengl.GL30.glDeleteFramebuffers;
+import static org.lwjgl.opengl.GL30.glDeleteRenderbuffers;
+import static org.lwjgl.opengl.GL30.glFramebufferRenderbuffer;
+import static org.lwjgl.opengl.GL30.glGenFramebuffers;
+import static org.lwjgl.opengl.GL30.glGenRenderbuffers;
+import static org.lwjgl.opengl.GL30.glRenderbufferStorage;
+import static org.lwjgl.system.MemoryUtil.NULL;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.ImageFileTexture.imageFileTexture;
+
+/**
+ * Renders the video cube scene offscreen with no display, and writes the throughput of each cube renderer to a CSV file.
+ * <p>
+ * GLFW's null platform is used, so no window system is needed at all, with the OpenGL context coming from OSMesa or
+ * from EGL on a surfaceless display - with Mesa installed either gives a software llvmpipe context, so this runs on
+ * build machines with no GPU. The scene is drawn into a framebuffer object rather than a window.
+ * <p>
+ * There is no media player either, each frame a synthetic video frame is written into a frame exchange and then
+ * uploaded to the video texture exactly as in {@link uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeDemo}'s "direct"
+ * mode. Every frame is finished with glFinish, so each one is fully rendered before the next starts.
+ * <p>
+ * The time taken to create the image texture, and the texture memory it uses, are reported too - compare a run with
+ * vlcj.headless.compressed set (twice, the first run fills the cache) against one without.
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>vlcj.headless.context - "osmesa" (the default) or "egl"</li>
+ *     <li>vlcj.headless.renderers - comma-separated cube renderers to measure, default "array,core,fixed"</li>
+ *     <li>vlcj.headless.frames - frames measured per renderer, default 600</li>
+ *     <li>vlcj.headless.warmup - frames rendered before measuring, default 60</li>
+ *     <li>vlcj.headless.size - size of the offscreen framebuffer, default "1280x720"</li>
+ *     <li>vlcj.headless.video - size of the synthetic video frames, default "1920x1080"</li>
+ *     <li>vlcj.headless.image - image for the two picture faces of the cube, default "./side.jpg"</li>
+ *     <li>vlcj.headless.compressed - directory of cached block-compressed images, if set the image is uploaded
+ *     compressed with mipmaps rather than as plain RGBA</li>
+ *     <li>vlcj.headless.csv - file the results are written to, default "headless.csv"</li>
+ * </ul>
+ */
+public class HeadlessCubeBenchmark {
+
+    private static final String contextApi = System.getProperty("vlcj.headless.context", "osmesa");
+
+    private static final String rendererNames = System.getProperty("vlcj.headless.renderers", "array,core,fixed");
+
+    private static final int frameCount = Integer.getInteger("vlcj.headless.frames", 600);
+
+    private static final int warmupFrames = Integer.getInteger("vlcj.headless.warmup", 60);
+
+    private static final String targetSize = System.getProperty("vlcj.headless.size", "1280x720");
+
+    private static final String videoSize = System.getProperty("vlcj.headless.video", "1920x1080");
+
+    private static final String imagePath = System.getProperty("vlcj.headless.image", "./side.jpg");
+
+    private static final String compressedImages = System.getProperty("vlcj.headless.compressed");
+
+    private static final String csvPath = System.getProperty("vlcj.headless.csv", "headless.csv");
+
+    /**
+     * Column headings of the CSV file, the averages and maxima are in milliseconds.
+     */
+    private static final String CSV_HEADER = "renderer,frames,seconds,fps,produce_avg,produce_max,upload_avg,upload_max,render_avg,render_max,finish_avg,finish_max";
+
+    private final FrameCounters frameCounters = new FrameCounters();
+
+    private FrameExchange<VideoFrame> frames;
+
+    private DirectTextureUploader uploader;
+
+    private VideoTexture videoTexture;
+
+    private int width;
+
+    private int height;
+
+    private int framebufferId;
+
+    private int[] renderbufferIds;
+
+    public void run() {
+        // The OpenGL functions must come from whichever context API GLFW uses, not from the system libGL
+        Configuration.OPENGL_EXPLICIT_INIT.set(true);
+        GLFWErrorCallback.createPrint(System.err).set();
+
+        glfwInitHint(GLFW_PLATFORM, GLFW_PLATFORM_NULL);
+        if (!glfwInit()) {
+            throw new IllegalStateException("Unable to initialize GLFW");
+        }
+        try {
+            glfwDefaultWindowHints();
+            glfwWindowHint(GLFW_VISIBLE, GLFW_FALSE);
+            glfwWindowHint(GLFW_CONTEXT_CREATION_API, contextApi());
+            // The window is never shown, it only carries the context
+            long window = glfwCreateWindow(1, 1, "vlcj headless cube benchmark", NULL, NULL);
+            if (window == NULL) {
+                throw new RuntimeException("Failed to create the " + contextApi + " context");
+            }
+            glfwMakeContextCurrent(window);
+            GL.create(GLFW::glfwGetProcAddress);
+            GLCapabilities capabilities = GL.createCapabilities();
+            if (!capabilities.OpenGL30) {
+                throw new IllegalStateException("The headless benchmark requires OpenGL 3.0");
+            }
+            System.out.printf("OpenGL %s, %s%n", glGetString(GL_VERSION), glGetString(GL_RENDERER));
+
+            List<String> rows = measureAll(capabilities);
+
+            writeCsv(rows);
+
+            glfwDestroyWindow(window);
+        } finally {
+            glfwTerminate();
+            GL.destroy();
+        }
+    }
+
+    /**
+     * Create the image texture, reporting how long it took and how much texture memory it uses.
+     *
+     * @param capabilities context capabilities
+     * @return texture id
+     */
+    private static int imageTexture(GLCapabilities capabilities) {
+        long start = System.nanoTime();
+        int textureId;
+        if (compressedImages != null && capabilities.GL_EXT_texture_compression_s3tc) {
+            try {
+                textureId = imageFileTexture(imagePath, new CompressedTextureCache(Paths.get(compressedImages)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            if (compressedImages != null) {
+                System.out.println("Compressed images require EXT_texture_compression_s3tc, using plain RGBA");
+            }
+            textureId = imageFileTexture(imagePath);
+        }
+        glFinish();
+        long elapsed = System.nanoTime() - start;
+
+        glBindTexture(GL_TEXTURE_2D, textureId);
+        long textureBytes = 0;
+        int levels = 0;
+        // Levels that were never specified have no width
+        for (int level = 0; glGetTexLevelParameteri(GL_TEXTURE_2D, level, GL_TEXTURE_WIDTH) > 0; level++, levels++) {
+            if (glGetTexLevelParameteri(GL_TEXTURE_2D, level, GL_TEXTURE_COMPRESSED) == GL_TRUE) {
+                textureBytes += glGetTexLevelParameteri(GL_TEXTURE_2D, level, GL_TEXTURE_COMPRESSED_IMAGE_SIZE);
+            } else {
+                textureBytes += 4L * glGetTexLevelParameteri(GL_TEXTURE_2D, level, GL_TEXTURE_WIDTH) * glGetTexLevelParameteri(GL_TEXTURE_2D, level, GL_TEXTURE_HEIGHT);
+            }
+        }
+        glBindTexture(GL_TEXTURE_2D, 0);
+        System.out.printf("Image texture ready in %.2f ms, %d levels, %d bytes of texture memory%n", elapsed / 1_000_000.0, levels, textureBytes);
+        return textureId;
+    }
+
+    private int contextApi() {
+        switch (contextApi) {
+            case "osmesa":
+                return GLFW_OSMESA_CONTEXT_API;
+            case "egl":
+                return GLFW_EGL_CONTEXT_API;
+            default:
+                throw new IllegalArgumentException("Unknown context API: " + contextApi);
+        }
+    }
+
+    private List<String> measureAll(GLCapabilities capabilities) {
+        int[] size = parseSize(targetSize);
+        width = size[0];
+        height = size[1];
+        createFramebuffer();
+
+        int[] video = parseSize(videoSize);
+        FrameFormat format = new FrameFormat(video[0], video[1]);
+        frames = new FrameExchange<>(index -> new VideoFrame(format), frameCounters);
+        uploader = new DirectTextureUploader(frames);
+        videoTexture = new VideoTexture();
+
+        int textureIdImage = imageTexture(capabilities);
+        int textureIdVideo = videoTexture.id();
+        int[] faceTextureIds = new int[] {textureIdImage, textureIdImage, textureIdVideo, textureIdVideo, textureIdVideo, textureIdVideo};
+
+        glClearColor(0, 0, 0, 0);
+        glEnable(GL_BLEND);
+        glViewport(0, 0, width, height);
+
+        List<String> rows = new ArrayList<>();
+        for (String name : rendererNames.split(",")) {
+            name = name.trim();
+            CubeRenderer renderer = createRenderer(name, capabilities, faceTextureIds);
+            if (renderer == null) {
+                System.out.printf("Skipping %s renderer, not supported by this context%n", name);
+                continue;
+            }
+            rows.add(measure(name, renderer, textureIdVideo));
+            renderer.free();
+        }
+
+        uploader.free();
+        videoTexture.free();
+        freeFramebuffer();
+        return rows;
+    }
+
+    private CubeRenderer createRenderer(String name, GLCapabilities capabilities, int[] faceTextureIds) {
+        switch (name) {
+            case "array":
+                return capabilities.OpenGL33 && (capabilities.OpenGL43 || capabilities.GL_ARB_copy_image) ? new TextureArrayCubeRenderer(faceTextureIds) : null;
+            case "core":
+                return capabilities.OpenGL33 ? new CoreCubeRenderer(faceTextureIds) : null;
+            case "fixed":
+                return new FixedFunctionCubeRenderer(new MultiTextureCube(faceTextureIds));
+            default:
+                throw new IllegalArgumentException("Unknown renderer: " + name);
+        }
+    }
+
+    /**
+     * Render the warm-up frames and then the measured frames with one renderer.
+     *
+     * @return CSV row of results
+     */
+    private String measure(String name, CubeRenderer renderer, int textureIdVideo) {
+        FloatBuffer transform = BufferUtils.createFloatBuffer(16);
+        CpuTimer produce = new CpuTimer("produce");
+        CpuTimer upload = new CpuTimer("upload");
+        CpuTimer render = new CpuTimer("render");
+        CpuTimer finish = new CpuTimer("finish");
+        long start = 0;
+        for (int frame = 0; frame < warmupFrames + frameCount; frame++) {
+            if (frame == warmupFrames) {
+                produce = new CpuTimer("produce");
+                upload = new CpuTimer("upload");
+                render = new CpuTimer("render");
+                finish = new CpuTimer("finish");
+                start = System.nanoTime();
+            }
+
+            produce.start();
+            syntheticFrame(frames.writeBuffer(), frame);
+            frames.publish();
+            produce.stop();
+
+            upload.start();
+            if (uploader.upload(videoTexture)) {
+                renderer.textureUpdated(textureIdVideo);
+            }
+            upload.stop();
+
+            render.start();
+            glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+            glEnable(GL_DEPTH_TEST);
+            glDepthFunc(GL_LESS);
+            Transform.rotation(transform, frame * 0.3f, 0.5f, 0.5f, -0.5f);
+            renderer.render(transform);
+            render.stop();
+
+            finish.start();
+            glFinish();
+            finish.stop();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        String row = String.format(Locale.ROOT, "%s,%d,%.3f,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f", name, frameCount, seconds, frameCount / seconds,
+            produce.averageMillis(), produce.maxMillis(), upload.averageMillis(), upload.maxMillis(),
+            render.averageMillis(), render.maxMillis(), finish.averageMillis(), finish.maxMillis());
+        System.out.printf("%s: %.1f fps%n  %s%n  %s%n  %s%n  %s%n", name, frameCount / seconds, produce, upload, render, finish);
+        return row;
+    }
+
+    /**
+     * Fill a frame with horizontal bands of colour that move every frame, so every upload carries different pixels.
+     */
+    private static void syntheticFrame(VideoFrame videoFrame, int frame) {
+        int[] pixels = videoFrame.pixels();
+        int frameWidth = videoFrame.format().width();
+        int frameHeight = videoFrame.format().height();
+        for (int y = 0; y < frameHeight; y++) {
+            int colour = 0xFF000000 | ((y + frame) & 0xFF) << 16 | ((2 * y + frame) & 0xFF) << 8 | (frame & 0xFF);
+            Arrays.fill(pixels, y * frameWidth, (y + 1) * frameWidth, colour);
+        }
+    }
+
+    private void createFramebuffer() {
+        renderbufferIds = new int[2];
+        glGenRenderbuffers(renderbufferIds);
+        glBindRenderbuffer(GL_RENDERBUFFER, renderbufferIds[0]);
+        glRenderbufferStorage(GL_RENDERBUFFER, GL_RGBA8, width, height);
+        glBindRenderbuffer(GL_RENDERBUFFER, renderbufferIds[1]);
+        glRenderbufferStorage(GL_RENDERBUFFER, GL_DEPTH_COMPONENT24, width, height);
+        glBindRenderbuffer(GL_RENDERBUFFER, 0);
+
+        framebufferId = glGenFramebuffers();
+        glBindFramebuffer(GL_FRAMEBUFFER, framebufferId);
+        glFramebufferRenderbuffer(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_RENDERBUFFER, renderbufferIds[0]);
+        glFramebufferRenderbuffer(GL_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, GL_RENDERBUFFER, renderbufferIds[1]);
+        int status = glCheckFramebufferStatus(GL_FRAMEBUFFER);
+        if (status != GL_FRAMEBUFFER_COMPLETE) {
+            throw new IllegalStateException("Offscreen framebuffer is incomplete: 0x" + Integer.toHexString(status));
+        }
+    }
+
+    private void freeFramebuffer() {
+        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        glDeleteFramebuffers(framebufferId);
+        glDeleteRenderbuffers(renderbufferIds);
+    }
+
+    private void writeCsv(List<String> rows) {
+        List<String> lines = new ArrayList<>(rows.size() + 1);
+        lines.add(CSV_HEADER);
+        lines.addAll(rows);
+        Path path = Paths.get(csvPath);
+        try {
+            Files.write(path, lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + path, e);
+        }
+        System.out.println("Results written to " + path.toAbsolutePath());
+    }
+
+    private static int[] parseSize(String size) {
+        String[] parts = size.toLowerCase(Locale.ROOT).split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid size: " + size);
+        }
+        return new int[] {Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+
+    public static void main(String[] args) {
+        new HeadlessCubeBenchmark().run();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.headless;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the throughput in a {@link HeadlessCubeBenchmark} results file against a stored baseline, and exits with a
+ * non-zero status if any renderer has regressed by more than a given percentage - intended to fail a build.
+ * <p>
+ * A missing baseline fails too, so a machine with no baseline can never pass by default. The only way to store one is
+ * to set the vlcj.headless.updateBaseline system property to "true", which stores the results as the new baseline
+ * instead of comparing them.
+ * <p>
+ * Arguments are the results file, the baseline file and the maximum allowed regression, as a percentage.
+ */
+public final class ThroughputGate {
+
+    private static final boolean updateBaseline = Boolean.getBoolean("vlcj.headless.updateBaseline");
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.out.println("Specify the results file, the baseline file and the maximum regression percentage");
+            System.exit(2);
+        }
+        Path results = Paths.get(args[0]);
+        Path baseline = Paths.get(args[1]);
+        double maxRegression = Double.parseDouble(args[2]);
+
+        if (updateBaseline) {
+            try {
+                Path directory = baseline.toAbsolutePath().getParent();
+                if (directory != null) {
+                    Files.createDirectories(directory);
+                }
+                Files.copy(results, baseline, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to store baseline " + baseline, e);
+            }
+            System.out.println("Stored " + results + " as the new baseline " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline " + baseline + " - store one from a known good build with vlcj.headless.updateBaseline=true");
+            System.exit(1);
+        }
+
+        Map<String, Double> baselineFps = readFps(baseline);
+        Map<String, Double> resultFps = readFps(results);
+        int failures = 0;
+        System.out.printf("%-10s %12s %12s %10s%n", "renderer", "baseline fps", "fps", "change");
+        for (Map.Entry<String, Double> entry : baselineFps.entrySet()) {
+            Double fps = resultFps.get(entry.getKey());
+            if (fps == null) {
+                System.out.printf("%-10s %12.2f %12s %10s  MISSING%n", entry.getKey(), entry.getValue(), "-", "-");
+                failures++;
+                continue;
+            }
+            double change = (fps - entry.getValue()) / entry.getValue() * 100.0;
+            boolean failed = change < -maxRegression;
+            System.out.printf("%-10s %12.2f %12.2f %+9.1f%%%s%n", entry.getKey(), entry.getValue(), fps, change, failed ? "  REGRESSED" : "");
+            if (failed) {
+                failures++;
+            }
+        }
+        if (failures > 0) {
+            System.out.printf("%d renderer(s) regressed by more than %.1f%% or are missing%n", failures, maxRegression);
+            System.exit(1);
+        }
+        System.out.printf("No renderer regressed by more than %.1f%%%n", maxRegression);
+    }
+
+    /**
+     * Read the frames per second of each renderer from a results file.
+     *
+     * @param path results file
+     * @return frames per second, by renderer name
+     */
+    private static Map<String, Double> readFps(Path path) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + path, e);
+        }
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException("Empty results file " + path);
+        }
+        List<String> header = Arrays.asList(lines.get(0).split(","));
+        int rendererColumn = header.indexOf("renderer");
+        int fpsColumn = header.indexOf("fps");
+        if (rendererColumn < 0 || fpsColumn < 0) {
+            throw new IllegalArgumentException("No renderer and fps columns in " + path);
+        }
+        Map<String, Double> fps = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] columns = line.split(",");
+            fps.put(columns[rendererColumn], Double.parseDouble(columns[fpsColumn]));
+        }
+        return fps;
+    }
+
+    private ThroughputGate() {
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.glfw.GLFWErrorCallback;
+import org.lwjgl.glfw.GLFWKeyCallback;
+import org.lwjgl.glfw.GLFWVidMode;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.CubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.Transform;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.AsyncTextureLoader;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.CompressedTextureCache;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.ImageCache;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.timing.CpuTimer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.FloatBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.lwjgl.glfw.GLFW.GLFW_CONTEXT_VERSION_MAJOR;
+import static org.lwjgl.glfw.GLFW.GLFW_CONTEXT_VERSION_MINOR;
+import static org.lwjgl.glfw.GLFW.GLFW_KEY_ESCAPE;
+import static org.lwjgl.glfw.GLFW.GLFW_KEY_N;
+import static org.lwjgl.glfw.GLFW.GLFW_KEY_R;
+import static org.lwjgl.glfw.GLFW.GLFW_OPENGL_CORE_PROFILE;
+import static org.lwjgl.glfw.GLFW.GLFW_OPENGL_FORWARD_COMPAT;
+import static org.lwjgl.glfw.GLFW.GLFW_OPENGL_PROFILE;
+import static org.lwjgl.glfw.GLFW.GLFW_RELEASE;
+import static org.lwjgl.glfw.GLFW.GLFW_RESIZABLE;
+import static org.lwjgl.glfw.GLFW.GLFW_VISIBLE;
+import static org.lwjgl.glfw.GLFW.glfwCreateWindow;
+import static org.lwjgl.glfw.GLFW.glfwDefaultWindowHints;
+import static org.lwjgl.glfw.GLFW.glfwDestroyWindow;
+import static org.lwjgl.glfw.GLFW.glfwGetPrimaryMonitor;
+import static org.lwjgl.glfw.GLFW.glfwGetVideoMode;
+import static org.lwjgl.glfw.GLFW.glfwInit;
+import static org.lwjgl.glfw.GLFW.glfwMakeContextCurrent;
+import static org.lwjgl.glfw.GLFW.glfwPollEvents;
+import static org.lwjgl.glfw.GLFW.glfwSetKeyCallback;
+import static org.lwjgl.glfw.GLFW.glfwSetWindowPos;
+import static org.lwjgl.glfw.GLFW.glfwSetWindowShouldClose;
+import static org.lwjgl.glfw.GLFW.glfwShowWindow;
+import static org.lwjgl.glfw.GLFW.glfwSwapBuffers;
+import static org.lwjgl.glfw.GLFW.glfwSwapInterval;
+import static org.lwjgl.glfw.GLFW.glfwTerminate;
+import static org.lwjgl.glfw.GLFW.glfwWindowHint;
+import static org.lwjgl.glfw.GLFW.glfwWindowShouldClose;
+import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
+import static org.lwjgl.opengl.GL11.GL_FALSE;
+import static org.lwjgl.opengl.GL11.GL_LESS;
+import static org.lwjgl.opengl.GL11.GL_TRUE;
+import static org.lwjgl.opengl.GL11.glClear;
+import static org.lwjgl.opengl.GL11.glClearColor;
+import static org.lwjgl.opengl.GL11.glDeleteTextures;
+import static org.lwjgl.opengl.GL11.glDepthFunc;
+import static org.lwjgl.opengl.GL11.glEnable;
+import static org.lwjgl.system.MemoryUtil.NULL;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeFactory.createRenderers;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeFactory.initialRenderer;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.coreProfile;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.stats;
+
+/**
+ * A cube of still images, loaded in the background through the decoded image cache and, optionally, the cache of
+ * block-compressed images.
+ * <p>
+ * Specify one or more image files, these are shared out between the faces in turn - press N to move every face on to
+ * the next image. The faces show a placeholder until their image is ready, and images seen before come from the cache.
+ * <p>
+ * The renderer options of {@link VideoCubeDemo} apply, the image loading options are:
+ * <ul>
+ *     <li>vlcj.image.cache - maximum size of the decoded image cache in megabytes, default 64</li>
+ *     <li>vlcj.image.threads - number of threads decoding images, default 2</li>
+ *     <li>vlcj.image.compressed - directory to cache block-compressed copies of the images in, if set the images are
+ *     uploaded compressed with mipmaps rather than as plain RGBA - requires EXT_texture_compression_s3tc</li>
+ * </ul>
+ */
+public class ImageCubeDemo {
+
+    private final int WINDOW_WIDTH = 1200;
+    private final int WINDOW_HEIGHT = 1200;
+
+    private static final int FACE_COUNT = 6;
+
+    private static final int imageCacheSize = Integer.getInteger("vlcj.image.cache", 64);
+
+    private static final int imageThreads = Integer.getInteger("vlcj.image.threads", 2);
+
+    private static final String imageCompressedCache = System.getProperty("vlcj.image.compressed");
+
+    private GLFWKeyCallback keyCallback;
+
+    private long window;
+
+    private boolean nextImages;
+
+    private boolean switchRenderer;
+
+    /**
+     * Textures waiting for their image to be uploaded.
+     */
+    private final Set<Integer> loading = new HashSet<>();
+
+    /**
+     * Textures no longer shown, but still waiting for their image - deleting them straight away would have the loader
+     * upload into a deleted texture.
+     */
+    private final Set<Integer> retired = new HashSet<>();
+
+    public void run(String[] args) {
+        try {
+            if (args.length == 0) {
+                System.out.println("Specify one or more image files");
+                System.exit(1);
+            }
+
+            init();
+            loop(args);
+
+            glfwDestroyWindow(window);
+            keyCallback.free();
+        } finally {
+            glfwTerminate();
+        }
+    }
+
+    private void init() {
+        // Set up an error callback - the default implementation will print the error message to System.err
+        GLFWErrorCallback.createPrint(System.err).set();
+
+        if (!glfwInit()) {
+            throw new IllegalStateException("Unable to initialize GLFW");
+        }
+
+        glfwDefaultWindowHints();
+        glfwWindowHint(GLFW_VISIBLE, GL_FALSE);
+        glfwWindowHint(GLFW_RESIZABLE, GL_FALSE);
+        if (coreProfile) {
+            glfwWindowHint(GLFW_CONTEXT_VERSION_MAJOR, 3);
+            glfwWindowHint(GLFW_CONTEXT_VERSION_MINOR, 3);
+            glfwWindowHint(GLFW_OPENGL_PROFILE, GLFW_OPENGL_CORE_PROFILE);
+            glfwWindowHint(GLFW_OPENGL_FORWARD_COMPAT, GL_TRUE);
+        }
+
+        window = glfwCreateWindow(WINDOW_WIDTH, WINDOW_HEIGHT, "vlcj image cube demo", NULL, NULL);
+        if (window == NULL) {
+            throw new RuntimeException("Failed to create the GLFW window");
+        }
+
+        glfwSetKeyCallback(window, keyCallback = new GLFWKeyCallback() {
+            @Override
+            public void invoke(long window, int key, int scancode, int action, int mods) {
+                if (key == GLFW_KEY_ESCAPE && action == GLFW_RELEASE)
+                    glfwSetWindowShouldClose(window, true);
+                if (key == GLFW_KEY_N && action == GLFW_RELEASE)
+                    nextImages = true;
+                if (key == GLFW_KEY_R && action == GLFW_RELEASE)
+                    switchRenderer = true;
+            }
+        });
+
+        GLFWVidMode vidmode = glfwGetVideoMode(glfwGetPrimaryMonitor());
+        if (vidmode != null) {
+            glfwSetWindowPos(window, (vidmode.width() - WINDOW_WIDTH) / 2, (vidmode.height() - WINDOW_HEIGHT) / 2);
+        }
+
+        glfwMakeContextCurrent(window);
+        glfwSwapInterval(1);
+        glfwShowWindow(window);
+    }
+
+    private void loop(String[] images) {
+        GL.createCapabilities();
+        glClearColor(0, 0, 0, 0);
+
+        AsyncTextureLoader loader = new AsyncTextureLoader(new ImageCache(imageCacheSize * 1024L * 1024L), createCompressedTextureCache(), imageThreads);
+        int first = 0;
+        int[] faceTextureIds = loadImages(loader, images, first);
+
+        Map<String, CubeRenderer> renderers = createRenderers(faceTextureIds);
+        List<String> names = new ArrayList<>(renderers.keySet());
+        String rendererName = initialRenderer(renderers.keySet());
+        CpuTimer timer = new CpuTimer("cube");
+
+        float angle = 0.0f;
+        FloatBuffer transform = BufferUtils.createFloatBuffer(16);
+
+        while (!glfwWindowShouldClose(window)) {
+            if (switchRenderer) {
+                switchRenderer = false;
+                rendererName = names.get((names.indexOf(rendererName) + 1) % names.size());
+                System.out.println("Cube renderer: " + rendererName);
+            }
+            if (nextImages) {
+                nextImages = false;
+                first = (first + 1) % images.length;
+                int[] previousTextureIds = faceTextureIds;
+                faceTextureIds = loadImages(loader, images, first);
+                for (CubeRenderer each : renderers.values()) {
+                    for (int face = 0; face < FACE_COUNT; face++) {
+                        each.replaceTexture(previousTextureIds[face], faceTextureIds[face]);
+                    }
+                }
+                retire(previousTextureIds);
+            }
+
+            loader.poll(textureId -> {
+                loading.remove(textureId);
+                if (retired.remove(textureId)) {
+                    glDeleteTextures(textureId);
+                    return;
+                }
+                for (CubeRenderer each : renderers.values()) {
+                    each.textureUpdated(textureId);
+                }
+            });
+
+            glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+            glEnable(GL_DEPTH_TEST);
+            glDepthFunc(GL_LESS);
+
+            angle += 0.3f;
+            Transform.rotation(transform, angle, 0.5f, 0.5f, -0.5f);
+            timer.start();
+            renderers.get(rendererName).render(transform);
+            timer.stop();
+
+            glfwSwapBuffers(window);
+            glfwPollEvents();
+        }
+
+        loader.free();
+        renderers.values().forEach(CubeRenderer::free);
+        glDeleteTextures(faceTextureIds);
+        retired.forEach(GL11::glDeleteTextures);
+        if (stats) {
+            System.out.println(loader);
+            System.out.println(timer);
+        }
+    }
+
+    /**
+     * Start loading an image for each face, the faces taking the images in turn from the given one.
+     *
+     * @param loader texture loader
+     * @param images image files
+     * @param first index of the image for the first face
+     * @return texture id for each face
+     */
+    private int[] loadImages(AsyncTextureLoader loader, String[] images, int first) {
+        int[] textureIds = new int[FACE_COUNT];
+        for (int face = 0; face < FACE_COUNT; face++) {
+            textureIds[face] = loader.load(images[(first + face) % images.length]);
+            loading.add(textureIds[face]);
+        }
+        return textureIds;
+    }
+
+    /**
+     * Delete textures no longer shown, or once their image has been uploaded if it is still loading.
+     *
+     * @param textureIds textures to delete
+     */
+    private void retire(int[] textureIds) {
+        for (int textureId : textureIds) {
+            if (loading.contains(textureId)) {
+                retired.add(textureId);
+            } else {
+                glDeleteTextures(textureId);
+            }
+        }
+    }
+
+    private static CompressedTextureCache createCompressedTextureCache() {
+        if (imageCompressedCache == null) {
+            return null;
+        }
+        if (!GL.getCapabilities().GL_EXT_texture_compression_s3tc) {
+            System.out.println("Compressed images require EXT_texture_compression_s3tc, using plain RGBA");
+            return null;
+        }
+        try {
+            return new CompressedTextureCache(Paths.get(imageCompressedCache));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        new ImageCubeDemo().run(args);
+    }
+}
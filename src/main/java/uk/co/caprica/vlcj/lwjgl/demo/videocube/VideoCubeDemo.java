@@ -19,24 +19,67 @@
 
 package uk.co.caprica.vlcj.lwjgl.demo.videocube;
 
+import org.lwjgl.BufferUtils;
 import org.lwjgl.glfw.GLFWErrorCallback;
-import org.lwjgl.glfw.GLFWKeyCallback;
 import org.lwjgl.glfw.GLFWVidMode;
 import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
 import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GLUtil;
+import org.lwjgl.opengl.KHRDebug;
+import org.lwjgl.system.Callback;
 import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
-import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.MultiTextureCube;
-import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeFactory.Upload;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.FrameRecorder;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.FrameRecording;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.ReplayFrameSource;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.CubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.FaceFootprint;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.Transform;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.engine.CubeVideoEngineHandler;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.engine.EngineFrameRing;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.Chroma;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameCounters;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.hud.PerformanceHud;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.ParallelFrameCopy;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.AdaptiveDecodeSize;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.FrameSink;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.FrameSource;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.SyntheticFrameSource;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.VlcjFrameSource;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.AsyncTextureLoader;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.ImageCache;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.VideoTexture;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.timing.CpuTimer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.timing.GpuStageTimer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.upload.TextureUploader;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.window.RenderThread;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.window.SharedContextWindow;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.window.WindowEvent;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.window.WindowEventQueue;
 import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
-import uk.co.caprica.vlcj.player.embedded.videosurface.CallbackVideoSurface;
-import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
-import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormatCallbackAdapter;
-import uk.co.caprica.vlcj.player.embedded.videosurface.callback.RenderCallbackAdapter;
-import uk.co.caprica.vlcj.player.embedded.videosurface.callback.format.StandardBufferFormat;
-
-import java.util.Arrays;
-
+import uk.co.caprica.vlcj.player.embedded.videosurface.videoengine.VideoEngine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import static org.lwjgl.glfw.GLFW.GLFW_CONTEXT_VERSION_MAJOR;
+import static org.lwjgl.glfw.GLFW.GLFW_CONTEXT_VERSION_MINOR;
 import static org.lwjgl.glfw.GLFW.GLFW_KEY_ESCAPE;
+import static org.lwjgl.glfw.GLFW.GLFW_KEY_H;
+import static org.lwjgl.glfw.GLFW.GLFW_KEY_R;
+import static org.lwjgl.glfw.GLFW.GLFW_OPENGL_CORE_PROFILE;
+import static org.lwjgl.glfw.GLFW.GLFW_OPENGL_DEBUG_CONTEXT;
+import static org.lwjgl.glfw.GLFW.GLFW_OPENGL_FORWARD_COMPAT;
+import static org.lwjgl.glfw.GLFW.GLFW_OPENGL_PROFILE;
 import static org.lwjgl.glfw.GLFW.GLFW_RELEASE;
 import static org.lwjgl.glfw.GLFW.GLFW_RESIZABLE;
 import static org.lwjgl.glfw.GLFW.GLFW_VISIBLE;
@@ -47,8 +90,6 @@ import static org.lwjgl.glfw.GLFW.glfwGetPrimaryMonitor;
 import static org.lwjgl.glfw.GLFW.glfwGetVideoMode;
 import static org.lwjgl.glfw.GLFW.glfwInit;
 import static org.lwjgl.glfw.GLFW.glfwMakeContextCurrent;
-import static org.lwjgl.glfw.GLFW.glfwPollEvents;
-import static org.lwjgl.glfw.GLFW.glfwSetKeyCallback;
 import static org.lwjgl.glfw.GLFW.glfwSetWindowPos;
 import static org.lwjgl.glfw.GLFW.glfwSetWindowShouldClose;
 import static org.lwjgl.glfw.GLFW.glfwShowWindow;
@@ -61,23 +102,40 @@ import static org.lwjgl.opengl.GL11.GL_BLEND;
 import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
 import static org.lwjgl.opengl.GL11.GL_DEPTH_BUFFER_BIT;
 import static org.lwjgl.opengl.GL11.GL_FALSE;
-import static org.lwjgl.opengl.GL11.GL_MODELVIEW;
-import static org.lwjgl.opengl.GL11.GL_PROJECTION;
-import static org.lwjgl.opengl.GL11.GL_RGBA;
 import static org.lwjgl.opengl.GL11.GL_STENCIL_BUFFER_BIT;
-import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TRUE;
-import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
-import static org.lwjgl.opengl.GL11.glBindTexture;
 import static org.lwjgl.opengl.GL11.glClear;
 import static org.lwjgl.opengl.GL11.glClearColor;
 import static org.lwjgl.opengl.GL11.glEnable;
-import static org.lwjgl.opengl.GL11.glLoadIdentity;
-import static org.lwjgl.opengl.GL11.glMatrixMode;
-import static org.lwjgl.opengl.GL11.glTranslatef;
+import static org.lwjgl.opengl.GL11.glFinish;
+import static org.lwjgl.opengl.GL11.glFlush;
+import static org.lwjgl.opengl.GL11.glViewport;
+import static org.lwjgl.opengl.GL32.GL_SYNC_GPU_COMMANDS_COMPLETE;
+import static org.lwjgl.opengl.GL32.glDeleteSync;
+import static org.lwjgl.opengl.GL32.glFenceSync;
 import static org.lwjgl.system.MemoryUtil.NULL;
-import static uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.EmptyTexture.emptyTexture;
-import static uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.ImageFileTexture.imageFileTexture;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeFactory.createFrameCopy;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeFactory.createRenderers;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeFactory.createSharedRenderer;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeFactory.createUpload;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeFactory.initialRenderer;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.adaptiveDecode;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.adaptiveDecodeHysteresis;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.adaptiveDecodeInterval;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.chroma;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.coreProfile;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.engineSize;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.glDebug;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.hudVisible;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.mipmapMode;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.mipmapThreshold;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.sourceMode;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.stats;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.swapInterval;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.syntheticFps;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.syntheticSize;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.uploadMode;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.windowCount;
 
 /**
  * This is a somewhat naive proof-of-concept, it does not pretend to be an optimal OpenGL/LWJGL implementation.
@@ -87,50 +145,284 @@ public class VideoCubeDemo {
     private final int WINDOW_WIDTH = 1200;
     private final int WINDOW_HEIGHT = 1200;
 
-    private final MediaPlayerFactory mediaPlayerFactory;
-    private final EmbeddedMediaPlayer mediaPlayer;
+    private final int SHARED_WINDOW_WIDTH = 600;
+    private final int SHARED_WINDOW_HEIGHT = 600;
 
-    private final int videoWidth = 1920;
-    private final int videoHeight = 1090;
+    /**
+     * Decoded image cache for the side faces, which only ever show one image - see {@link ImageCubeDemo} for the image
+     * loading options.
+     */
+    private static final long IMAGE_CACHE_SIZE = 8L * 1024 * 1024;
 
-    private final int[] buffer = new int[videoWidth * videoHeight];
-    private final int[] glBuffer = new int[buffer.length];
+    /**
+     * Media player, only created when the frames come from vlcj.
+     */
+    private MediaPlayerFactory mediaPlayerFactory;
+    private EmbeddedMediaPlayer mediaPlayer;
 
-    {
-        Arrays.fill(buffer, 0xFF000000);
-        Arrays.fill(glBuffer, 0xFF000000);
-    }
+    private FrameSource frameSource;
+
+    /**
+     * Pixel format of the frames, from the "vlcj.chroma" option or from the recording being replayed.
+     */
+    private Chroma frameChroma = chroma;
+
+    /**
+     * Recording being replayed instead of a live source, only from {@link VideoCubeReplayDemo}.
+     */
+    private FrameRecording recording;
+
+    private boolean replayRecordedTiming;
+
+    private boolean replayLoop;
+
+    /**
+     * File to record the frames to, only from {@link VideoCubeRecordDemo}.
+     */
+    private Path recordFile;
 
-    private GLFWKeyCallback keyCallback;
+    /**
+     * Recorder wrapping the frame sink, only when recording.
+     */
+    private FrameRecorder recorder;
+
+    /**
+     * Where the frame source delivers frames to, matching the upload mode.
+     */
+    private FrameSink frameSink;
 
     private long window;
 
-    private int textureIdVideo;
+    /**
+     * Key and resize events, captured on the main thread and applied on the render thread.
+     */
+    private final WindowEventQueue windowEvents = new WindowEventQueue();
+
+    /**
+     * Size of the window framebuffer, as last applied by the render thread.
+     */
+    private int framebufferWidth;
+
+    private int framebufferHeight;
+
+    /**
+     * OpenGL capabilities of the main window's context, restored after drawing each of the shared windows.
+     */
+    private GLCapabilities mainCapabilities;
+
+    /**
+     * Additional windows in the main window's share group, empty unless there is more than one window.
+     */
+    private final List<SharedContextWindow> sharedWindows = new ArrayList<>();
+
+    private VideoTexture videoTexture;
     private int textureIdImage;
 
-    public VideoCubeDemo() {
-        mediaPlayerFactory = new MediaPlayerFactory("--no-audio");
-        mediaPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
-        mediaPlayer.videoSurface().set(new CallbackVideoSurface(new CubeBufferFormatCallback(), new CubeRenderFormatCallback(buffer, glBuffer), true));
+    /**
+     * Decodes image textures in the background, the side image shows a placeholder until it is ready.
+     */
+    private AsyncTextureLoader imageLoader;
+
+    private final FrameCounters frameCounters = new FrameCounters();
+
+    private TextureUploader uploader;
+
+    /**
+     * Copies decoded frames into the upload pipeline, in parallel for large frames when configured with more than one
+     * thread.
+     */
+    private ParallelFrameCopy frameCopy;
+
+    /**
+     * Hidden window providing the OpenGL context the native video engine renders with, in the "engine" upload mode.
+     */
+    private long engineWindow;
+
+    private EngineFrameRing engineFrames;
+
+    /**
+     * Cube renderers the current context supports, by name, in the order they are cycled through.
+     */
+    private final Map<String, CubeRenderer> renderers = new LinkedHashMap<>();
+
+    /**
+     * CPU time of each of the cube renderers, by name.
+     */
+    private final Map<String, CpuTimer> renderTimers = new LinkedHashMap<>();
+
+    /**
+     * CPU time of each video texture mipmap generation.
+     */
+    private final CpuTimer mipmapTimer = new CpuTimer("mipmap");
+
+    private boolean videoMipmaps;
+
+    /**
+     * Chooses the decoded video size, only with adaptive decoding.
+     */
+    private AdaptiveDecodeSize decodeSize;
+
+    /**
+     * Set from a key event, the renderers are switched before the frame is drawn.
+     */
+    private boolean switchRenderer;
+
+    /**
+     * Performance overlay, null if the context does not support it.
+     */
+    private PerformanceHud hud;
+
+    /**
+     * Toggled from a key event.
+     */
+    private boolean showHud = hudVisible;
+
+    /**
+     * GPU time of each stage of the frame, null if the context does not support timer queries.
+     */
+    private GpuStageTimer gpuTimer;
+
+    /**
+     * OpenGL debug message callback, only when debugging.
+     */
+    private Callback debugCallback;
+
+    /**
+     * Play back a frame recording instead of the source selected by the "vlcj.source" option.
+     *
+     * @param recording recording, positioned on its first frame
+     * @param recordedTiming <code>true</code> to deliver frames at the cadence they were recorded with,
+     *                       <code>false</code> as fast as the upload pipeline takes them
+     * @param loop <code>true</code> to start again at the end of the recording
+     */
+    void replay(FrameRecording recording, boolean recordedTiming, boolean loop) {
+        this.recording = recording;
+        this.replayRecordedTiming = recordedTiming;
+        this.replayLoop = loop;
+        this.frameChroma = recording.format().chroma();
+    }
+
+    /**
+     * Record the raw frames delivered by the source to a file, for replay later.
+     *
+     * @param file file to record to
+     */
+    void record(Path file) {
+        this.recordFile = file;
     }
 
     public void run(String[] args) {
         try {
-            if (args.length != 1) {
-                System.out.println("Specify a video file");
-                System.exit(1);
+            if (isVlcjSource()) {
+                if (args.length != 1) {
+                    System.out.println("Specify a video file");
+                    System.exit(1);
+                }
+                mediaPlayerFactory = new MediaPlayerFactory("--no-audio");
+                mediaPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
             }
 
             init();
-            loop(args);
+            RenderThread.run(window, () -> render(args));
 
+            if (engineWindow != NULL) {
+                // Destroying the context also releases the framebuffers the video engine used
+                glfwDestroyWindow(engineWindow);
+            }
+            sharedWindows.forEach(SharedContextWindow::destroy);
+            windowEvents.detach();
             glfwDestroyWindow(window);
-            keyCallback.free();
         } finally {
             glfwTerminate();
         }
     }
 
+    /**
+     * Render until the window is closed, on the render thread - this thread owns the OpenGL context throughout, the main
+     * thread only pumps window events.
+     */
+    private void render(String[] args) {
+        glfwMakeContextCurrent(window);
+
+        // Enable v-sync, unless configured otherwise for the main window
+        glfwSwapInterval(swapInterval(0));
+
+        loop(args);
+
+        // The source must stop delivering frames before the upload resources are freed
+        if (frameSource != null) {
+            frameSource.stop();
+        }
+        if (frameCopy != null) {
+            frameCopy.free();
+        }
+        if (recorder != null) {
+            closeRecorder();
+        }
+        if (mediaPlayer != null) {
+            mediaPlayer.release();
+            mediaPlayerFactory.release();
+        }
+        if (stats) {
+            printStats();
+        }
+        if (!sharedWindows.isEmpty()) {
+            sharedWindows.forEach(SharedContextWindow::free);
+            makeMainContextCurrent();
+        }
+        if (engineFrames != null) {
+            engineFrames.free();
+        } else {
+            uploader.free();
+        }
+        videoTexture.free();
+        imageLoader.free();
+        renderers.values().forEach(CubeRenderer::free);
+        if (hud != null) {
+            hud.free();
+        }
+        if (gpuTimer != null) {
+            gpuTimer.free();
+        }
+        if (debugCallback != null) {
+            debugCallback.free();
+        }
+
+        glfwMakeContextCurrent(NULL);
+    }
+
+    /**
+     * Print the counters and timings of every stage, with the "vlcj.stats" option.
+     */
+    private void printStats() {
+        if (frameSource != null) {
+            System.out.println(frameSource);
+        }
+        if (frameCopy != null) {
+            System.out.println(frameCopy);
+        }
+        if (recorder != null) {
+            System.out.println(recorder);
+        }
+        System.out.println(engineFrames != null ? engineFrames : uploader);
+        System.out.println(frameCounters);
+        System.out.println(videoTexture);
+        System.out.println(imageLoader);
+        renderTimers.values().forEach(System.out::println);
+        System.out.println(mipmapTimer);
+        System.out.println(windowEvents);
+        sharedWindows.forEach(System.out::println);
+        if (decodeSize != null) {
+            System.out.println(decodeSize);
+        }
+        if (hud != null) {
+            System.out.println(hud.renderTimer());
+        }
+        if (gpuTimer != null) {
+            System.out.println(gpuTimer);
+        }
+    }
+
     private void init() {
         // Set up an error callback - the default implementation will print the error message to System.err
         GLFWErrorCallback.createPrint(System.err).set();
@@ -143,19 +435,22 @@ public class VideoCubeDemo {
         glfwDefaultWindowHints();
         glfwWindowHint(GLFW_VISIBLE, GL_FALSE);
         glfwWindowHint(GLFW_RESIZABLE, GL_TRUE);
+        if (glDebug) {
+            glfwWindowHint(GLFW_OPENGL_DEBUG_CONTEXT, GL_TRUE);
+        }
+        if (coreProfile) {
+            glfwWindowHint(GLFW_CONTEXT_VERSION_MAJOR, 3);
+            glfwWindowHint(GLFW_CONTEXT_VERSION_MINOR, 3);
+            glfwWindowHint(GLFW_OPENGL_PROFILE, GLFW_OPENGL_CORE_PROFILE);
+            glfwWindowHint(GLFW_OPENGL_FORWARD_COMPAT, GL_TRUE);
+        }
 
         window = glfwCreateWindow(WINDOW_WIDTH, WINDOW_HEIGHT, "vlcj video cube demo", NULL, NULL);
         if (window == NULL) {
             throw new RuntimeException("Failed to create the GLFW window");
         }
 
-        glfwSetKeyCallback(window, keyCallback = new GLFWKeyCallback() {
-            @Override
-            public void invoke(long window, int key, int scancode, int action, int mods) {
-                if (key == GLFW_KEY_ESCAPE && action == GLFW_RELEASE)
-                    glfwSetWindowShouldClose(window, true);
-            }
-        });
+        windowEvents.attach(window);
 
         GLFWVidMode vidmode = glfwGetVideoMode(glfwGetPrimaryMonitor());
         if (vidmode == null) {
@@ -167,101 +462,438 @@ public class VideoCubeDemo {
             (vidmode.height() - WINDOW_HEIGHT) / 2
         );
 
-        glfwMakeContextCurrent(window);
+        // Windows can only be created on the main thread, so the video engine context is created up front
+        if ("engine".equals(uploadMode) && mediaPlayer != null) {
+            // Same hints as the main window, so the same kind of context, sharing its objects
+            engineWindow = glfwCreateWindow(1, 1, "vlcj video engine", NULL, window);
+            if (engineWindow == NULL) {
+                throw new RuntimeException("Failed to create the video engine context");
+            }
+        }
 
-        // Enable v-sync
-        glfwSwapInterval(1);
+        // Any additional windows share the main window's context, cascaded down from the top-left of the screen
+        for (int i = 1; i < windowCount; i++) {
+            long sharedWindow = glfwCreateWindow(SHARED_WINDOW_WIDTH, SHARED_WINDOW_HEIGHT, "vlcj video cube demo " + (i + 1), NULL, window);
+            if (sharedWindow == NULL) {
+                throw new RuntimeException("Failed to create shared window " + (i + 1));
+            }
+            glfwSetWindowPos(sharedWindow, 40 * i, 40 * i);
+            sharedWindows.add(new SharedContextWindow(sharedWindow, "window " + (i + 1), swapInterval(i)));
+        }
 
         glfwShowWindow(window);
+        for (SharedContextWindow each : sharedWindows) {
+            glfwShowWindow(each.window());
+        }
+    }
+
+    /**
+     * Apply a window event, on the render thread.
+     *
+     * @param event event
+     */
+    private void windowEvent(WindowEvent event) {
+        switch (event.type()) {
+            case KEY:
+                if (event.key() == GLFW_KEY_ESCAPE && event.action() == GLFW_RELEASE)
+                    glfwSetWindowShouldClose(window, true);
+                if (event.key() == GLFW_KEY_R && event.action() == GLFW_RELEASE)
+                    switchRenderer = true;
+                if (event.key() == GLFW_KEY_H && event.action() == GLFW_RELEASE)
+                    showHud = !showHud;
+                break;
+            case FRAMEBUFFER_SIZE:
+                framebufferWidth = event.width();
+                framebufferHeight = event.height();
+                glViewport(0, 0, framebufferWidth, framebufferHeight);
+                break;
+        }
     }
 
     private void loop(String[] args) {
         // This line is critical for LWJGL's interoperation with GLFW's OpenGL context, or any context that is managed
         // externally. LWJGL detects the context that is current in the current thread, creates the ContextCapabilities
         // instance and makes the OpenGL bindings available for use
-        GL.createCapabilities();
+        mainCapabilities = GL.createCapabilities();
+
+        if (glDebug) {
+            debugCallback = createDebugCallback();
+        }
 
         // Set the clear color
         glClearColor(0, 0, 0, 0);
         glEnable(GL_BLEND);
 
         float rotAngle = 0.3f;
+        float angle = 0.0f;
+        FloatBuffer transform = BufferUtils.createFloatBuffer(16);
+
+        // The video texture is sized when the first frame arrives, and resized whenever the video size changes
+        videoTexture = new VideoTexture();
+        imageLoader = new AsyncTextureLoader(new ImageCache(IMAGE_CACHE_SIZE), 1);
+        textureIdImage = imageLoader.load("./side.jpg");
+
+        if ("engine".equals(uploadMode)) {
+            if (mediaPlayer != null) {
+                engineFrames = createEngineFrames();
+            } else {
+                System.out.println("Video engine rendering requires the vlcj source, falling back to direct texture upload");
+            }
+        }
+        if (engineFrames == null) {
+            frameCopy = createFrameCopy();
+            Upload upload = createUpload(frameChroma, frameCounters, frameCopy);
+            uploader = upload.uploader;
+            frameSink = upload.sink;
+            frameSource = createFrameSource(args, upload.chroma);
+        }
+        int textureIdVideo = engineFrames != null ? engineFrames.textureId() : videoTexture.id();
 
-        textureIdVideo = emptyTexture(videoWidth, videoHeight);
-        textureIdImage = imageFileTexture("./side.jpg");
-
-        MultiTextureCube cube = new MultiTextureCube(new int[] {textureIdImage, textureIdImage, textureIdVideo, textureIdVideo, textureIdVideo, textureIdVideo});
-//        SingleTextureCube cube = new SingleTextureCube(textureId);
+        int[] faceTextureIds = new int[] {textureIdImage, textureIdImage, textureIdVideo, textureIdVideo, textureIdVideo, textureIdVideo};
+        renderers.putAll(createRenderers(faceTextureIds));
+        for (String name : renderers.keySet()) {
+            renderTimers.put(name, new CpuTimer(name));
+        }
+        videoMipmaps = useVideoMipmaps();
+        FaceFootprint videoFootprint = createVideoFootprint(faceTextureIds, textureIdVideo);
+        float[] videoScreenSize = new float[2];
+        if (!sharedWindows.isEmpty()) {
+            for (SharedContextWindow each : sharedWindows) {
+                each.init(() -> createSharedRenderer(faceTextureIds.clone()));
+            }
+            makeMainContextCurrent();
+        }
+        String rendererName = initialRenderer(renderers.keySet());
+        CubeRenderer renderer = renderers.get(rendererName);
+        CpuTimer timer = renderTimers.get(rendererName);
+
+        hud = createHud();
+        gpuTimer = createGpuTimer();
+        int[] initialSize = new int[2];
+        windowEvents.framebufferSize(initialSize);
+        framebufferWidth = initialSize[0];
+        framebufferHeight = initialSize[1];
+        IntConsumer imageUploaded = textureId -> {
+            for (CubeRenderer each : renderers.values()) {
+                each.textureUpdated(textureId);
+            }
+        };
 
-        mediaPlayer.media().play(args[0]);
+        if (frameSource != null) {
+            if (recordFile != null) {
+                frameSink = recorder = createRecorder();
+            }
+            frameSource.start(frameSink);
+        } else {
+            if (recordFile != null) {
+                System.out.println("Frame recording is not available with video engine rendering");
+            }
+            mediaPlayer.media().play(args[0]);
+        }
 
         // Run the rendering loop until the user has attempted to close the window or has pressed the ESCAPE key
         while (!glfwWindowShouldClose(window)) {
+            if (gpuTimer != null) {
+                gpuTimer.frameStart();
+            }
+
+            windowEvents.drain(this::windowEvent);
+
             glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT | GL_STENCIL_BUFFER_BIT);
 
-            glMatrixMode(GL_PROJECTION);
-            glLoadIdentity();
-            glTranslatef(0.0f, 0, 0.0f);
+            if (switchRenderer) {
+                switchRenderer = false;
+                rendererName = nextRenderer(rendererName);
+                renderer = renderers.get(rendererName);
+                timer = renderTimers.get(rendererName);
+            }
 
-            glMatrixMode(GL_MODELVIEW);
+            // Same accumulated rotation the fixed-function matrix stack used to build up, computed once per frame
+            angle += rotAngle;
+            Transform.rotation(transform, angle, 0.5f, 0.5f, -0.5f);
+
+            imageLoader.poll(imageUploaded);
+
+            boolean videoUploaded = false;
+
+            if (engineFrames != null) {
+                // Each new frame is in a different texture of the ring, so point the faces at it
+                int previousTextureId = textureIdVideo;
+                if (engineFrames.acquire()) {
+                    textureIdVideo = engineFrames.textureId();
+                    for (CubeRenderer each : renderers.values()) {
+                        each.replaceTexture(previousTextureId, textureIdVideo);
+                    }
+                    for (SharedContextWindow each : sharedWindows) {
+                        each.replaceTexture(previousTextureId, textureIdVideo);
+                    }
+                }
+            } else {
+                long uploadStart = System.nanoTime();
+                videoUploaded = uploader.upload(videoTexture);
+                if (videoUploaded) {
+                    if (hud != null) {
+                        hud.uploadCompleted(System.nanoTime() - uploadStart);
+                    }
+                    for (CubeRenderer each : renderers.values()) {
+                        each.textureUpdated(textureIdVideo);
+                    }
+                }
+            }
 
-            GL11.glRotatef(rotAngle, 0.5f, 0.5f, -0.5f);
+            if (gpuTimer != null) {
+                gpuTimer.stageEnd();
+            }
 
-            synchronized (glBuffer) {
-                glBindTexture(GL_TEXTURE_2D, textureIdVideo);
-                GL11.glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, videoWidth, videoHeight, GL_RGBA, GL_UNSIGNED_BYTE, glBuffer);
+            if (videoFootprint != null) {
+                if (decodeSize != null) {
+                    videoFootprint.screenSize(transform, framebufferWidth, framebufferHeight, videoScreenSize);
+                    decodeSize.update(videoScreenSize[0], videoScreenSize[1]);
+                }
+                if (videoMipmaps) {
+                    // Shared windows sample the video texture directly, whichever renderer this window uses
+                    boolean sampled = renderer.samplesMipmaps() || !sharedWindows.isEmpty();
+                    boolean minified = "always".equals(mipmapMode) || videoFootprint.minification(transform, framebufferWidth, framebufferHeight, videoTexture.width(), videoTexture.height()) > mipmapThreshold;
+                    if (videoTexture.mipmapsDue(videoUploaded, sampled && minified)) {
+                        mipmapTimer.start();
+                        videoTexture.generateMipmaps();
+                        mipmapTimer.stop();
+                    }
+                }
             }
 
-            int error = GL11.glGetError();
-            if (error != GL11.GL_NO_ERROR) {
-                System.out.println("OpenGL Error: " + error);
+            if (gpuTimer != null) {
+                gpuTimer.stageEnd();
             }
 
+            long sharedFence = sharedWindows.isEmpty() ? NULL : shareTextureUpdates();
+
             GL11.glEnable(GL11.GL_DEPTH_TEST);
             GL11.glDepthFunc(GL11.GL_LESS);
 
-            cube.render();
+            timer.start();
+            renderer.render(transform);
+            timer.stop();
+
+            if (gpuTimer != null) {
+                gpuTimer.stageEnd();
+            }
+
+            if (hud != null) {
+                hud.frameCompleted(System.nanoTime());
+                if (showHud) {
+                    long dropped = frameCounters.droppedCount();
+                    hud.setFrameCounts(frameCounters.uploadedCount() + dropped, dropped, frameCounters.duplicateCount());
+                    hud.render(framebufferWidth, framebufferHeight);
+                }
+            }
+
+            if (gpuTimer != null) {
+                gpuTimer.stageEnd();
+            }
 
             glfwSwapBuffers(window);
 
-            glfwPollEvents();
+            // Every event drained this frame has now reached the screen
+            long inputLatency = windowEvents.presented(System.nanoTime());
+            if (hud != null && inputLatency >= 0) {
+                hud.inputCompleted(inputLatency);
+            }
+
+            if (gpuTimer != null) {
+                gpuTimer.stageEnd();
+            }
+
+            if (!sharedWindows.isEmpty()) {
+                // The same frame again in each of the other windows, sampling the same textures
+                for (SharedContextWindow each : sharedWindows) {
+                    if (glfwWindowShouldClose(each.window())) {
+                        glfwSetWindowShouldClose(window, true);
+                    }
+                    each.render(transform, sharedFence, this::windowEvent);
+                }
+                makeMainContextCurrent();
+                if (sharedFence != NULL) {
+                    glDeleteSync(sharedFence);
+                }
+            }
+        }
+    }
+
+    /**
+     * Make this frame's texture updates in the main context visible to the shared windows' contexts.
+     * <p>
+     * Changes made in one context are only guaranteed to be seen by another once they have completed, so the shared
+     * windows wait on a fence for them on the GPU - or without sync objects, the main context finishes its commands.
+     *
+     * @return fence for the shared windows to wait for, or {@link org.lwjgl.system.MemoryUtil#NULL} if there is none
+     */
+    private long shareTextureUpdates() {
+        if (mainCapabilities.OpenGL32) {
+            long fence = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+            // The fence must have been flushed before another context waits for it
+            glFlush();
+            return fence;
         }
+        glFinish();
+        return NULL;
     }
 
-    private static class CubeBufferFormatCallback extends BufferFormatCallbackAdapter {
+    /**
+     * Switch the render thread back to the main window's context.
+     */
+    private void makeMainContextCurrent() {
+        glfwMakeContextCurrent(window);
+        GL.setCapabilities(mainCapabilities);
+    }
 
-        @Override
-        public BufferFormat getBufferFormat(int sourceWidth, int sourceHeight) {
-            return new StandardBufferFormat(sourceWidth, sourceHeight);
+    /**
+     * Report OpenGL errors and warnings through a debug message callback, rather than polling for errors every frame.
+     * <p>
+     * Messages are delivered asynchronously, so they do not force the driver to synchronise, and may arrive on a driver
+     * thread some time after the call that caused them.
+     *
+     * @return callback to free on exit, or null if no debug extension is available
+     */
+    private Callback createDebugCallback() {
+        Callback callback = GLUtil.setupDebugMessageCallback(System.err);
+        if (callback == null) {
+            System.out.println("OpenGL debug output is not supported by this context");
+        } else if (GL.getCapabilities().GL_KHR_debug || GL.getCapabilities().OpenGL43) {
+            // Notifications are mostly buffer placement hints, far too chatty to print every frame
+            KHRDebug.glDebugMessageControl(GL11.GL_DONT_CARE, GL11.GL_DONT_CARE, KHRDebug.GL_DEBUG_SEVERITY_NOTIFICATION, (IntBuffer) null, false);
         }
+        return callback;
     }
 
-    private static class CubeRenderFormatCallback extends RenderCallbackAdapter {
+    /**
+     * Create the GPU stage timer, if the current context supports timer queries.
+     *
+     * @return timer, or null if OpenGL 3.3 is not available
+     */
+    private GpuStageTimer createGpuTimer() {
+        if (!GL.getCapabilities().OpenGL33) {
+            System.out.println("GPU timing requires OpenGL 3.3");
+            return null;
+        }
+        return new GpuStageTimer("upload", "mipmap", "cube", "hud", "swap");
+    }
 
-        private final int[] textureBuffer;
+    /**
+     * Create the estimate of the on-screen size of the video faces, used to decide when to generate mipmaps and what
+     * size to decode at.
+     *
+     * @param faceTextureIds texture id for each face
+     * @param textureIdVideo video texture id
+     * @return footprint estimate, or null if neither video texture mipmaps nor adaptive decoding are used
+     */
+    private FaceFootprint createVideoFootprint(int[] faceTextureIds, int textureIdVideo) {
+        if (engineFrames != null || !videoMipmaps && decodeSize == null) {
+            return null;
+        }
+        return new FaceFootprint(faceTextureIds, textureIdVideo);
+    }
 
-        public CubeRenderFormatCallback(int[] videoBuffer, int[] textureBuffer) {
-            this.textureBuffer = textureBuffer;
-            setBuffer(videoBuffer);
+    /**
+     * Check whether to generate mipmaps for the video texture.
+     *
+     * @return <code>true</code> if mipmaps are used
+     */
+    private boolean useVideoMipmaps() {
+        if ("off".equals(mipmapMode) || engineFrames != null) {
+            return false;
+        }
+        if (!GL.getCapabilities().OpenGL30) {
+            System.out.println("Video texture mipmaps require OpenGL 3.0");
+            return false;
         }
+        return true;
+    }
 
-        @Override
-        protected void onLock(MediaPlayer mediaPlayer) {
+    /**
+     * Create the performance overlay, if the current context supports it.
+     *
+     * @return overlay, or null if OpenGL 3.3 is not available
+     */
+    private PerformanceHud createHud() {
+        if (!GL.getCapabilities().OpenGL33) {
+            System.out.println("The performance overlay requires OpenGL 3.3");
+            return null;
         }
+        return new PerformanceHud();
+    }
 
-        @Override
-        protected void onDisplay(MediaPlayer mediaPlayer, int[] buffer) {
-            // This is very naive, but does prevent OpenGL rendering the texture buffer while the video buffer is
-            // updating - a more sophisticated implementation would not have this extra buffer and could also make use
-            // of lock/unlock
-            synchronized (textureBuffer) {
-                System.arraycopy(buffer, 0, textureBuffer, 0, buffer.length);
-            }
+    /**
+     * Switch to the next available cube renderer.
+     *
+     * @param current name of the renderer currently in use
+     * @return name of the renderer to use from now on
+     */
+    private String nextRenderer(String current) {
+        List<String> names = new ArrayList<>(renderers.keySet());
+        String next = names.get((names.indexOf(current) + 1) % names.size());
+        System.out.println("Cube renderer: " + next);
+        return next;
+    }
+
+    /**
+     * Create the ring of textures the native video engine renders into, and the video surface for the media player
+     * using the hidden shared context created with the window.
+     *
+     * @return frame ring, or <code>null</code> if the context does not support it
+     */
+    private EngineFrameRing createEngineFrames() {
+        if (!GL.getCapabilities().OpenGL32) {
+            System.out.println("Video engine rendering requires OpenGL 3.2, falling back to direct texture upload");
+            return null;
         }
+        EngineFrameRing ring = new EngineFrameRing(engineSize[0], engineSize[1], frameCounters);
+        mediaPlayer.videoSurface().set(mediaPlayerFactory.videoSurfaces().newVideoSurface(VideoEngine.OPENGL, new CubeVideoEngineHandler(ring, engineWindow)));
+        return ring;
+    }
+
+    private boolean isVlcjSource() {
+        return recording == null && "vlcj".equals(sourceMode);
+    }
+
+    private FrameRecorder createRecorder() {
+        try {
+            return new FrameRecorder(recordFile, frameSink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        @Override
-        protected void onUnlock(MediaPlayer mediaPlayer) {
+    private void closeRecorder() {
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            System.out.printf("Failed to close frame recording: %s%n", e.getMessage());
+        }
+    }
+
+    /**
+     * Create the source of video frames - the recording being replayed, or the source selected by the "vlcj.source"
+     * option.
+     *
+     * @param args command-line arguments, the video file to play when the source is vlcj
+     * @param sourceChroma pixel format the upload pipeline takes, RV32 if it could not take the requested format
+     * @return frame source
+     */
+    private FrameSource createFrameSource(String[] args, Chroma sourceChroma) {
+        if (recording != null) {
+            if (sourceChroma != frameChroma) {
+                throw new IllegalStateException("Replaying " + frameChroma + " frames requires OpenGL 3.3");
+            }
+            return new ReplayFrameSource(recording, replayRecordedTiming, replayLoop);
+        }
+        if (!isVlcjSource()) {
+            return new SyntheticFrameSource(sourceChroma, syntheticSize[0], syntheticSize[1], syntheticFps);
+        }
+        if (adaptiveDecode) {
+            decodeSize = new AdaptiveDecodeSize(adaptiveDecodeHysteresis, adaptiveDecodeInterval);
         }
+        return new VlcjFrameSource(mediaPlayer, sourceChroma, args[0], decodeSize);
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,214 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.CoreCubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.CubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.FixedFunctionCubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.MultiTextureCube;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.TextureArrayCubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.Chroma;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameCounters;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.ParallelFrameCopy;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.PlanarFrame;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.VideoFrame;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.FrameSink;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.PackedFrameSink;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.PlanarFrameSink;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.upload.DirectTextureUploader;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.upload.PersistentBufferRing;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.upload.PixelBufferRing;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.upload.TextureUploader;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.upload.YuvColourSpace;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.upload.YuvTextureUploader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.copyThreads;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.copyThreshold;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.coreProfile;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.pixelBufferCount;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.rendererMode;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.uploadMode;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.yuvColourSpace;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.VideoCubeOptions.yuvRange;
+
+/**
+ * Picks the cube renderers and the texture upload pipeline for the current OpenGL context, from the
+ * {@link VideoCubeOptions}, falling back with a message to whatever the context does support.
+ * <p>
+ * Every method must be called with the context current.
+ */
+final class VideoCubeFactory {
+
+    /**
+     * Create the cube renderers that the current context supports, by name, in the order they are cycled through.
+     * <p>
+     * A core profile context has no fixed-function pipeline, and the shader-based renderers need OpenGL 3.3 - at least
+     * one renderer is always available.
+     *
+     * @param faceTextureIds texture identifier for each face of the cube
+     * @return renderers
+     */
+    static Map<String, CubeRenderer> createRenderers(int[] faceTextureIds) {
+        GLCapabilities capabilities = GL.getCapabilities();
+        Map<String, CubeRenderer> renderers = new LinkedHashMap<>();
+        if (capabilities.OpenGL33 && (capabilities.OpenGL43 || capabilities.GL_ARB_copy_image)) {
+            renderers.put("array", new TextureArrayCubeRenderer(faceTextureIds));
+        }
+        if (capabilities.OpenGL33) {
+            renderers.put("core", new CoreCubeRenderer(faceTextureIds));
+        }
+        if (!coreProfile) {
+            renderers.put("fixed", new FixedFunctionCubeRenderer(new MultiTextureCube(faceTextureIds)));
+        }
+        if (renderers.isEmpty()) {
+            throw new IllegalStateException("No cube renderer is available for this context");
+        }
+        return renderers;
+    }
+
+    /**
+     * Pick the renderer selected by the "vlcj.renderer" option, or the first available one if that is not supported.
+     *
+     * @param available names of the renderers the context supports
+     * @return name of the renderer to start with
+     */
+    static String initialRenderer(Set<String> available) {
+        String name = rendererMode;
+        if (!available.contains(name)) {
+            name = available.iterator().next();
+            System.out.println("Renderer " + rendererMode + " is not supported by this context, falling back to " + name);
+        }
+        System.out.println("Cube renderer: " + name);
+        return name;
+    }
+
+    /**
+     * Create the cube renderer for a shared window, one that samples the shared textures directly - the texture array
+     * renderer would copy each new video frame again for every window.
+     *
+     * @param faceTextureIds texture for each face
+     * @return renderer
+     */
+    static CubeRenderer createSharedRenderer(int[] faceTextureIds) {
+        if (GL.getCapabilities().OpenGL33) {
+            return new CoreCubeRenderer(faceTextureIds);
+        }
+        if (!coreProfile) {
+            return new FixedFunctionCubeRenderer(new MultiTextureCube(faceTextureIds));
+        }
+        throw new IllegalStateException("No cube renderer is available for the shared windows");
+    }
+
+    /**
+     * Create the stage that copies decoded frames into the upload pipeline.
+     *
+     * @return copy stage, or <code>null</code> to copy on the decode thread alone
+     */
+    static ParallelFrameCopy createFrameCopy() {
+        return copyThreads > 1 ? new ParallelFrameCopy(copyThreads, copyThreshold * 1024L) : null;
+    }
+
+    /**
+     * Create the texture uploader for the selected upload mode, and the matching sink for the frame source.
+     *
+     * @param chroma pixel format of the frames
+     * @param counters counters to update as frames are uploaded, skipped or dropped
+     * @param copy copy stage, or <code>null</code> to copy on the decode thread alone
+     * @return upload pipeline
+     */
+    static Upload createUpload(Chroma chroma, FrameCounters counters, ParallelFrameCopy copy) {
+        GLCapabilities capabilities = GL.getCapabilities();
+        if (chroma != Chroma.RV32) {
+            if (capabilities.OpenGL33) {
+                return yuvUpload(chroma, counters, copy);
+            }
+            System.out.println("YUV conversion requires OpenGL 3.3, falling back to RV32");
+        }
+        switch (uploadMode) {
+            case "persistent":
+                if (capabilities.OpenGL32 && (capabilities.OpenGL44 || capabilities.GL_ARB_buffer_storage)) {
+                    PersistentBufferRing ring = new PersistentBufferRing(Math.max(pixelBufferCount, 3), counters, copy);
+                    return new Upload(ring, ring, Chroma.RV32);
+                }
+                System.out.println("Persistent mapping requires OpenGL 4.4 or ARB_buffer_storage, falling back to direct texture upload");
+                break;
+            case "pbo":
+                if (capabilities.OpenGL32) {
+                    FrameExchange<VideoFrame> frames = newFrameExchange(counters);
+                    return new Upload(new PixelBufferRing(pixelBufferCount, frames), new PackedFrameSink(frames, copy), Chroma.RV32);
+                }
+                System.out.println("Fence sync objects require OpenGL 3.2, falling back to direct texture upload");
+                break;
+            default:
+                break;
+        }
+        FrameExchange<VideoFrame> frames = newFrameExchange(counters);
+        return new Upload(new DirectTextureUploader(frames), new PackedFrameSink(frames, copy), Chroma.RV32);
+    }
+
+    /**
+     * Create the exchange of heap frame buffers used by the "direct" and "pbo" upload modes.
+     */
+    private static FrameExchange<VideoFrame> newFrameExchange(FrameCounters counters) {
+        // Placeholder format, the real one is not known until the frame source sets it
+        FrameFormat initialFormat = new FrameFormat(1, 1);
+        return new FrameExchange<>(index -> new VideoFrame(initialFormat), counters);
+    }
+
+    /**
+     * Create the uploader for YUV frames, with its exchange of planar frame buffers.
+     */
+    private static Upload yuvUpload(Chroma chroma, FrameCounters counters, ParallelFrameCopy copy) {
+        FrameFormat initialFormat = new FrameFormat(chroma, 1, 1);
+        FrameExchange<PlanarFrame> frames = new FrameExchange<>(index -> new PlanarFrame(initialFormat), counters);
+        YuvColourSpace colourSpace = "auto".equals(yuvColourSpace) ? null : YuvColourSpace.valueOf(yuvColourSpace);
+        return new Upload(new YuvTextureUploader(frames, colourSpace, "full".equals(yuvRange)), new PlanarFrameSink(frames, copy), chroma);
+    }
+
+    /**
+     * A texture uploader, with the sink the frame source delivers to and the pixel format that sink expects - RV32 if
+     * the requested format is not supported.
+     */
+    static final class Upload {
+
+        final TextureUploader uploader;
+
+        final FrameSink sink;
+
+        final Chroma chroma;
+
+        private Upload(TextureUploader uploader, FrameSink sink, Chroma chroma) {
+            this.uploader = uploader;
+            this.sink = sink;
+            this.chroma = chroma;
+        }
+    }
+
+    private VideoCubeFactory() {
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.Chroma;
+
+import java.util.Locale;
+
+/**
+ * Options shared by the video cube demos, all taken from system properties - see the README for the full list.
+ */
+final class VideoCubeOptions {
+
+    /**
+     * Where video frames come from, either "vlcj" (the default) to play the video file given on the command line, or
+     * "synthetic" for a generated test pattern that needs no media or LibVLC.
+     */
+    static final String sourceMode = oneOf("vlcj.source", "vlcj", "synthetic");
+
+    /**
+     * Size of the synthetic test pattern.
+     */
+    static final int[] syntheticSize = size("vlcj.synthetic.size", "1920x1080");
+
+    /**
+     * Frame rate of the synthetic test pattern.
+     */
+    static final double syntheticFps = Double.parseDouble(System.getProperty("vlcj.synthetic.fps", "60"));
+
+    /**
+     * Texture upload mode, one of "direct", "pbo", "persistent" or "engine" - select with e.g. -Dvlcj.upload=pbo.
+     * <p>
+     * The "engine" mode does not upload at all, LibVLC renders each frame on a shared OpenGL context and the cube
+     * samples the result directly.
+     */
+    static final String uploadMode = oneOf("vlcj.upload", "direct", "pbo", "persistent", "engine");
+
+    /**
+     * Number of pixel buffers in the ring when using the "pbo" or "persistent" upload modes.
+     */
+    static final int pixelBufferCount = Integer.getInteger("vlcj.pbo.count", 3);
+
+    /**
+     * Number of threads copying each decoded frame, including the decode thread itself - the default of one copies on
+     * the decode thread alone, the only setting ParallelFrameCopyBenchmark has found a win for so far (see the README).
+     */
+    static final int copyThreads = Integer.getInteger("vlcj.copy.threads", 1);
+
+    /**
+     * Smallest frame, or plane of a YUV frame, copied in parallel, in kilobytes - a 1080p RV32 frame is 8100 KB.
+     * <p>
+     * The default is not a measured crossover, it only keeps 1080p and smaller frames on the decode thread. Set it from
+     * ParallelFrameCopyBenchmark run on the target machine.
+     */
+    static final int copyThreshold = Integer.getInteger("vlcj.copy.threshold", 8192);
+
+    /**
+     * Size the native video engine renders at in the "engine" upload mode.
+     */
+    static final int[] engineSize = size("vlcj.engine.size", "1920x1080");
+
+    /**
+     * Pixel format to request from the media player, one of "RV32", "I420" or "NV12" - the YUV formats are converted to
+     * RGB on the GPU, and always use direct upload.
+     */
+    static final Chroma chroma = Chroma.valueOf(oneOf("vlcj.chroma", "RV32", "I420", "NV12"));
+
+    /**
+     * YUV colour space, one of "auto", "BT601" or "BT709" - "auto" picks one based on the video height.
+     */
+    static final String yuvColourSpace = oneOf("vlcj.yuv.colourspace", "auto", "BT601", "BT709");
+
+    /**
+     * YUV sample range, either "limited" (the usual range for video) or "full".
+     */
+    static final String yuvRange = oneOf("vlcj.yuv.range", "limited", "full");
+
+    /**
+     * Cube renderer, one of "core" (vertex buffers and shaders, requires OpenGL 3.3), "array" (a single draw call
+     * sampling a texture array, requires OpenGL 4.3 or ARB_copy_image) or "fixed" (the fixed-function pipeline) - press
+     * R to cycle through them while running.
+     * <p>
+     * The "array" renderer saves draw calls and texture binds, but copies every new video frame into its texture array
+     * on the GPU before drawing, so it is not the default.
+     */
+    static final String rendererMode = oneOf("vlcj.renderer", "core", "array", "fixed");
+
+    /**
+     * Request an OpenGL 3.3 core profile context - the fixed-function renderer is not available in this case.
+     */
+    static final boolean coreProfile = Boolean.getBoolean("vlcj.coreprofile");
+
+    /**
+     * Video texture mipmaps, one of "auto" (regenerate them for each new frame only while the video faces are drawn
+     * minified), "always" or "off" - requires OpenGL 3.0, and not used by the "engine" upload mode.
+     */
+    static final String mipmapMode = oneOf("vlcj.mipmap", "auto", "always", "off");
+
+    /**
+     * Texels per screen pixel above which the video faces count as minified, in the "auto" mipmap mode.
+     */
+    static final float mipmapThreshold = Float.parseFloat(System.getProperty("vlcj.mipmap.threshold", "1.0"));
+
+    /**
+     * Decode the video at a size chosen from how large it is drawn on screen, rather than at the source size - only
+     * with the vlcj source, and not in the "engine" upload mode.
+     * <p>
+     * Off by default. LibVLC only negotiates the buffer size when its video output starts, so each change of decoded
+     * size deselects and reselects the video track, restarting the output - the video blanks or stalls briefly every
+     * time the on-screen size crosses the hysteresis band, for example while the cube rotates.
+     */
+    static final boolean adaptiveDecode = Boolean.getBoolean("vlcj.decode.adaptive");
+
+    /**
+     * Factor the on-screen size must change by, relative to the decoded size, before the decoded size is renegotiated.
+     */
+    static final float adaptiveDecodeHysteresis = Float.parseFloat(System.getProperty("vlcj.decode.hysteresis", "1.5"));
+
+    /**
+     * Minimum time between renegotiations of the decoded size, in milliseconds.
+     */
+    static final long adaptiveDecodeInterval = Long.getLong("vlcj.decode.interval", 1000);
+
+    /**
+     * Number of windows showing the cube - the first is the main window, the others share its context so they all
+     * sample the same video texture, decoded and uploaded only once.
+     */
+    static final int windowCount = Integer.getInteger("vlcj.windows", 1);
+
+    /**
+     * Swap interval of each window in turn, comma-separated - windows beyond the end of the list do not wait for v-sync.
+     */
+    private static final String windowSwapIntervals = System.getProperty("vlcj.windows.swap", "1");
+
+    /**
+     * Show the performance overlay from the start - press H to show or hide it while running.
+     */
+    static final boolean hudVisible = Boolean.getBoolean("vlcj.hud");
+
+    /**
+     * Print the counters and timings of every stage of the pipeline on exit.
+     */
+    static final boolean stats = Boolean.getBoolean("vlcj.stats");
+
+    /**
+     * Create a debug context and report OpenGL errors and warnings as they happen, via KHR_debug - for debugging only,
+     * a debug context may be slower.
+     */
+    static final boolean glDebug = Boolean.getBoolean("vlcj.gl.debug");
+
+    /**
+     * Get the swap interval for a window, from the "vlcj.windows.swap" option.
+     *
+     * @param index index of the window, the main window is zero
+     * @return swap interval
+     */
+    static int swapInterval(int index) {
+        String[] intervals = windowSwapIntervals.split(",");
+        return index < intervals.length ? Integer.parseInt(intervals[index].trim()) : 0;
+    }
+
+    /**
+     * Get an option that must be one of a fixed set of values.
+     *
+     * @param name name of the system property
+     * @param values allowed values, the first is the default
+     * @return value
+     */
+    private static String oneOf(String name, String... values) {
+        String value = System.getProperty(name, values[0]);
+        for (String each : values) {
+            if (each.equals(value)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + name + ": " + value);
+    }
+
+    private static int[] size(String name, String defaultValue) {
+        String value = System.getProperty(name, defaultValue);
+        String[] parts = value.toLowerCase(Locale.ROOT).split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected a size like 1920x1080 for " + name + ": " + value);
+        }
+        return new int[] {Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+
+    private VideoCubeOptions() {
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Plays video on the cube exactly as {@link VideoCubeDemo} does, recording the raw frames delivered by the source to a
+ * file for {@link VideoCubeReplayDemo} to play back later.
+ * <p>
+ * Specify the file to record to, followed by the video file - or just the file to record to with the synthetic source.
+ * The file is written through a memory mapping, so needs as much disk space as the uncompressed video.
+ */
+public class VideoCubeRecordDemo {
+
+    public void run(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Specify a file to record to, and a video file");
+            System.exit(1);
+        }
+        VideoCubeDemo demo = new VideoCubeDemo();
+        demo.record(Paths.get(args[0]));
+        demo.run(Arrays.copyOfRange(args, 1, args.length));
+    }
+
+    public static void main(String[] args) {
+        new VideoCubeRecordDemo().run(args);
+    }
+}
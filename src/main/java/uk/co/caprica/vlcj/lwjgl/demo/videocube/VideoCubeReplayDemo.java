@@ -0,0 +1,80 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.FrameRecording;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+/**
+ * Plays back a frame recording made with {@link VideoCubeRecordDemo} on the video cube, with no media or LibVLC.
+ * <p>
+ * The recording delivers exactly the frames that were recorded, so runs can be compared frame for frame. Specify the
+ * recording file, the chroma is taken from the recording and every other {@link VideoCubeDemo} option applies.
+ */
+public class VideoCubeReplayDemo {
+
+    /**
+     * Replay timing, either "recorded" to deliver frames at the cadence they were recorded with, or "fast" to deliver
+     * them as fast as the upload pipeline takes them.
+     */
+    private static final String replayTiming = System.getProperty("vlcj.replay.timing", "recorded");
+
+    /**
+     * Start the replay again at the end of the recording.
+     */
+    private static final boolean replayLoop = Boolean.parseBoolean(System.getProperty("vlcj.replay.loop", "true"));
+
+    public void run(String[] args) {
+        if (args.length != 1) {
+            System.out.println("Specify a frame recording");
+            System.exit(1);
+        }
+        VideoCubeDemo demo = new VideoCubeDemo();
+        demo.replay(openRecording(args[0]), !"fast".equals(replayTiming), replayLoop);
+        demo.run(new String[0]);
+    }
+
+    /**
+     * Open the recording, positioned on its first frame so the frame format is known before the uploader is created.
+     *
+     * @param file recording file
+     * @return recording
+     */
+    private static FrameRecording openRecording(String file) {
+        try {
+            FrameRecording recording = new FrameRecording(Paths.get(file));
+            if (!recording.next()) {
+                recording.close();
+                throw new IllegalStateException("Frame recording is empty: " + file);
+            }
+            recording.rewind();
+            return recording;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        new VideoCubeReplayDemo().run(args);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.capture;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.FrameSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.lwjgl.system.MemoryUtil.memAddress;
+import static org.lwjgl.system.MemoryUtil.memCopy;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.DEFAULT_WINDOW_SIZE;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.FILE_HEADER_SIZE;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.FILE_MAGIC;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.FILE_VERSION;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.FILE_WINDOW_SIZE;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.MAGIC;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.RECORD_CHROMA;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.RECORD_HEADER_SIZE;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.RECORD_HEIGHT;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.RECORD_SIZE;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.RECORD_TIMESTAMP;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.RECORD_TYPE;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.RECORD_WIDTH;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.TYPE_END;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.TYPE_FRAME;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.TYPE_PADDING;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.VERSION;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.align;
+
+/**
+ * Sink that appends every frame, with the time it arrived, to a raw recording file before passing it on to another
+ * sink - so the exact frame sequence a source produced can be replayed later with a {@link ReplayFrameSource}.
+ * <p>
+ * Frames are copied straight from the source's buffers into a memory mapping of the file, one window of the file at a
+ * time, so recording costs one memory copy per frame and the heap is never involved. Nothing is flushed explicitly,
+ * the operating system writes the pages back in its own time.
+ * <p>
+ * If writing fails, for example because the disk is full, recording stops with a message and frames carry on through
+ * to the next sink.
+ */
+public final class FrameRecorder implements FrameSink, Closeable {
+
+    private final FrameSink sink;
+
+    private final FileChannel channel;
+
+    private final long windowSize;
+
+    private volatile FrameFormat format;
+
+    /**
+     * Index of the window currently mapped.
+     */
+    private long windowIndex;
+
+    private MappedByteBuffer window;
+
+    private long windowAddress;
+
+    /**
+     * Position of the next record in the current window.
+     */
+    private long windowOffset;
+
+    private long firstTimestamp = -1;
+
+    private long frameCount;
+
+    private boolean failed;
+
+    /**
+     * Create a recorder, replacing any existing file.
+     *
+     * @param file file to record to
+     * @param sink sink to pass frames on to
+     * @throws IOException if the file can not be created
+     */
+    public FrameRecorder(Path file, FrameSink sink) throws IOException {
+        this(file, sink, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Create a recorder with a specific window size, so small windows can be used to exercise the window boundaries.
+     *
+     * @param file file to record to
+     * @param sink sink to pass frames on to
+     * @param windowSize size of each window of the file
+     * @throws IOException if the file can not be created
+     */
+    FrameRecorder(Path file, FrameSink sink, long windowSize) throws IOException {
+        this.sink = sink;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.windowSize = windowSize;
+        mapWindow(0);
+        window.putLong(FILE_MAGIC, MAGIC);
+        window.putInt(FILE_VERSION, VERSION);
+        window.putLong(FILE_WINDOW_SIZE, windowSize);
+        windowOffset = FILE_HEADER_SIZE;
+    }
+
+    private void mapWindow(long index) throws IOException {
+        // Mapping beyond the end of the file extends it, the file is trimmed to the recorded length on close
+        window = channel.map(FileChannel.MapMode.READ_WRITE, index * windowSize, windowSize);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowAddress = memAddress(window);
+        windowIndex = index;
+        windowOffset = 0;
+    }
+
+    @Override
+    public void setFormat(FrameFormat format) {
+        this.format = format;
+        sink.setFormat(format);
+    }
+
+    @Override
+    public void lock() {
+        sink.lock();
+    }
+
+    @Override
+    public void display(ByteBuffer[] planes) {
+        long now = System.nanoTime();
+        if (!failed) {
+            try {
+                append(planes, now);
+            } catch (IOException | RuntimeException e) {
+                failed = true;
+                System.out.println("Frame recording stopped after " + frameCount + " frames: " + e);
+            }
+        }
+        sink.display(planes);
+    }
+
+    @Override
+    public void unlock() {
+        sink.unlock();
+    }
+
+    private void append(ByteBuffer[] planes, long now) throws IOException {
+        FrameFormat format = this.format;
+        long recordSize = RECORD_HEADER_SIZE + align(format.frameSize());
+        // Always leave room for a padding record after this one
+        if (recordSize + RECORD_HEADER_SIZE > windowSize - FILE_HEADER_SIZE) {
+            throw new IllegalStateException("Frame of " + format.frameSize() + " bytes is too large to record");
+        }
+        if (windowOffset + recordSize + RECORD_HEADER_SIZE > windowSize) {
+            window.putInt((int) windowOffset + RECORD_TYPE, TYPE_PADDING);
+            window.putLong((int) windowOffset + RECORD_SIZE, windowSize - windowOffset);
+            mapWindow(windowIndex + 1);
+        }
+        if (firstTimestamp < 0) {
+            firstTimestamp = now;
+        }
+        int offset = (int) windowOffset;
+        window.putInt(offset + RECORD_CHROMA, format.chroma().ordinal());
+        window.putInt(offset + RECORD_WIDTH, format.width());
+        window.putInt(offset + RECORD_HEIGHT, format.height());
+        window.putLong(offset + RECORD_TIMESTAMP, now - firstTimestamp);
+        window.putLong(offset + RECORD_SIZE, recordSize);
+        long target = windowAddress + offset + RECORD_HEADER_SIZE;
+        for (int plane = 0; plane < format.planeCount(); plane++) {
+            long planeSize = format.planeSize(plane);
+            memCopy(memAddress(planes[plane]), target, Math.min(planes[plane].remaining(), planeSize));
+            target += planeSize;
+        }
+        // The type goes in last, a frame is not part of the recording until it is complete
+        window.putInt(offset + RECORD_TYPE, TYPE_FRAME);
+        windowOffset += recordSize;
+        frameCount++;
+    }
+
+    public long frameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Finish the recording, trimming the file to the recorded length.
+     * <p>
+     * The frame source must have stopped first.
+     *
+     * @throws IOException if the file can not be trimmed or closed
+     */
+    @Override
+    public void close() throws IOException {
+        long length = windowIndex * windowSize + windowOffset;
+        if (windowOffset + RECORD_HEADER_SIZE <= windowSize) {
+            window.putInt((int) windowOffset + RECORD_TYPE, TYPE_END);
+        }
+        window = null;
+        try {
+            channel.truncate(length);
+        } catch (IOException e) {
+            // Some platforms refuse while the file is still mapped, the end marker is enough for replay
+            System.out.println("Could not trim frame recording: " + e);
+        }
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FrameRecorder[frames=%d,bytes=%d,failed=%s]", frameCount, windowIndex * windowSize + windowOffset, failed);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.capture;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.Chroma;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the frames of a recording made by {@link FrameRecorder}, in order.
+ * <p>
+ * The file is mapped read-only one window at a time, and each frame's planes are returned as views of the mapping, so
+ * the pixels are never copied and the heap use does not depend on the size of the file.
+ * <p>
+ * A recording must only be read from a single thread.
+ */
+public final class FrameRecording implements Closeable {
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final long fileSize;
+
+    private final long windowSize;
+
+    private final ByteBuffer[][] planesByCount = new ByteBuffer[4][];
+
+    private long windowIndex = -1;
+
+    private MappedByteBuffer window;
+
+    /**
+     * Position of the next record in the current window.
+     */
+    private long windowOffset;
+
+    private FrameFormat format;
+
+    private ByteBuffer[] planes;
+
+    private long timestamp;
+
+    /**
+     * Open a recording.
+     *
+     * @param file recording file
+     * @throws IOException if the file can not be read, or is not a frame recording
+     */
+    public FrameRecording(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        if (fileSize < RawFrameFile.FILE_HEADER_SIZE) {
+            channel.close();
+            throw new IOException("Not a frame recording: " + file);
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, RawFrameFile.FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getLong(RawFrameFile.FILE_MAGIC) != RawFrameFile.MAGIC || header.getInt(RawFrameFile.FILE_VERSION) != RawFrameFile.VERSION) {
+            channel.close();
+            throw new IOException("Not a frame recording, or an unsupported version: " + file);
+        }
+        this.windowSize = header.getLong(RawFrameFile.FILE_WINDOW_SIZE);
+        rewind();
+    }
+
+    /**
+     * Go back to the start of the recording.
+     *
+     * @throws IOException if the file can not be mapped
+     */
+    public void rewind() throws IOException {
+        mapWindow(0);
+        windowOffset = RawFrameFile.FILE_HEADER_SIZE;
+    }
+
+    private void mapWindow(long index) throws IOException {
+        if (index != windowIndex) {
+            long position = index * windowSize;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, fileSize - position));
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windowIndex = index;
+        }
+        windowOffset = 0;
+    }
+
+    /**
+     * Move on to the next frame.
+     *
+     * @return <code>true</code> if there is another frame, <code>false</code> at the end of the recording
+     * @throws IOException if the file can not be mapped
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (windowOffset + RawFrameFile.RECORD_HEADER_SIZE > window.limit()) {
+                return false;
+            }
+            int offset = (int) windowOffset;
+            int type = window.getInt(offset + RawFrameFile.RECORD_TYPE);
+            switch (type) {
+                case RawFrameFile.TYPE_FRAME:
+                    readFrame(offset);
+                    return true;
+                case RawFrameFile.TYPE_PADDING:
+                    long nextWindow = windowIndex + 1;
+                    if (nextWindow * windowSize >= fileSize) {
+                        return false;
+                    }
+                    mapWindow(nextWindow);
+                    break;
+                case RawFrameFile.TYPE_END:
+                    return false;
+                default:
+                    throw new IOException("Corrupt frame recording " + file + " at " + (windowIndex * windowSize + offset));
+            }
+        }
+    }
+
+    private void readFrame(int offset) throws IOException {
+        Chroma chroma = Chroma.values()[window.getInt(offset + RawFrameFile.RECORD_CHROMA)];
+        int width = window.getInt(offset + RawFrameFile.RECORD_WIDTH);
+        int height = window.getInt(offset + RawFrameFile.RECORD_HEIGHT);
+        long recordSize = window.getLong(offset + RawFrameFile.RECORD_SIZE);
+        if (format == null || format.chroma() != chroma || format.width() != width || format.height() != height) {
+            format = new FrameFormat(chroma, width, height);
+        }
+        if (offset + recordSize > window.limit()) {
+            throw new IOException("Truncated frame recording " + file);
+        }
+        timestamp = window.getLong(offset + RawFrameFile.RECORD_TIMESTAMP);
+        planes = planesByCount[format.planeCount()];
+        if (planes == null) {
+            planes = planesByCount[format.planeCount()] = new ByteBuffer[format.planeCount()];
+        }
+        int position = offset + RawFrameFile.RECORD_HEADER_SIZE;
+        for (int plane = 0; plane < planes.length; plane++) {
+            int planeSize = format.planeSize(plane);
+            planes[plane] = window.duplicate().position(position).limit(position + planeSize).slice().order(ByteOrder.nativeOrder());
+            position += planeSize;
+        }
+        windowOffset += recordSize;
+    }
+
+    /**
+     * Get the format of the current frame.
+     * <p>
+     * The same instance is returned for consecutive frames of the same format.
+     *
+     * @return frame format
+     */
+    public FrameFormat format() {
+        return format;
+    }
+
+    /**
+     * Get the arrival time of the current frame.
+     *
+     * @return nanoseconds since the first frame of the recording
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Get the planes of the current frame.
+     * <p>
+     * The buffers are read-only views of the file mapping, valid until the recording is closed, the array is reused
+     * for the next frame.
+     *
+     * @return one buffer per plane
+     */
+    public ByteBuffer[] planes() {
+        return planes;
+    }
+
+    /**
+     * Get the format of the first frame of a recording.
+     *
+     * @param file recording file
+     * @return format of the first frame, or <code>null</code> if the recording is empty
+     * @throws IOException if the file can not be read
+     */
+    public static FrameFormat firstFormat(Path file) throws IOException {
+        try (FrameRecording recording = new FrameRecording(file)) {
+            return recording.next() ? recording.format() : null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
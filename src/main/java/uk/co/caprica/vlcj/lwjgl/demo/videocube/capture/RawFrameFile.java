@@ -0,0 +1,91 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.capture;
+
+/**
+ * Layout of a raw frame recording.
+ * <p>
+ * The file is divided into fixed size windows, each mapped into memory on its own, so files can be far larger than a
+ * single mapping and are never read into the heap. A frame record never crosses a window boundary, so every frame can
+ * be handed out as views of a single mapping.
+ * <p>
+ * The first window starts with the file header. After that, and throughout every other window, come records - each a
+ * fixed size header followed by the frame's planes, one after another. The rest of a window too small for the next
+ * record is skipped with a padding record, and a record type of zero, or the end of the file, marks the end.
+ * <p>
+ * Everything is little-endian, and records are aligned to {@link #ALIGNMENT} bytes.
+ */
+final class RawFrameFile {
+
+    /**
+     * "VLCJRAW1".
+     */
+    static final long MAGIC = 0x315741524A434C56L;
+
+    static final int VERSION = 1;
+
+    static final int FILE_HEADER_SIZE = 64;
+
+    static final int FILE_MAGIC = 0;
+
+    static final int FILE_VERSION = 8;
+
+    static final int FILE_WINDOW_SIZE = 16;
+
+    static final int RECORD_HEADER_SIZE = 64;
+
+    static final int RECORD_TYPE = 0;
+
+    static final int RECORD_CHROMA = 4;
+
+    static final int RECORD_WIDTH = 8;
+
+    static final int RECORD_HEIGHT = 12;
+
+    /**
+     * Arrival time of the frame, in nanoseconds since the first frame.
+     */
+    static final int RECORD_TIMESTAMP = 16;
+
+    /**
+     * Size of the record, header included, up to the next record.
+     */
+    static final int RECORD_SIZE = 24;
+
+    static final int TYPE_END = 0;
+
+    static final int TYPE_FRAME = 1;
+
+    static final int TYPE_PADDING = 2;
+
+    static final int ALIGNMENT = 64;
+
+    /**
+     * Default window size, big enough for several frames even at 8K.
+     */
+    static final long DEFAULT_WINDOW_SIZE = 1L << 30;
+
+    static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private RawFrameFile() {
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.capture;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.FrameSink;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.FrameSource;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A frame source that replays a recording made by {@link FrameRecorder}.
+ * <p>
+ * Frames are delivered straight from the file mapping, either at the cadence they were recorded with or as fast as
+ * the sink will take them, so the same input can be fed through the upload pipeline run after run.
+ * <p>
+ * Stopping the source also closes the recording.
+ */
+public final class ReplayFrameSource implements FrameSource {
+
+    private final FrameRecording recording;
+
+    private final boolean recordedTiming;
+
+    private final boolean loop;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    private long framesReplayed;
+
+    /**
+     * Create a replay source.
+     *
+     * @param recording recording to replay
+     * @param recordedTiming <code>true</code> to deliver frames at the recorded cadence, <code>false</code> to deliver them as fast as possible
+     * @param loop <code>true</code> to start again at the end of the recording, <code>false</code> to stop
+     */
+    public ReplayFrameSource(FrameRecording recording, boolean recordedTiming, boolean loop) {
+        this.recording = recording;
+        this.recordedTiming = recordedTiming;
+        this.loop = loop;
+    }
+
+    @Override
+    public void start(FrameSink sink) {
+        running = true;
+        thread = new Thread(() -> run(sink), "replay-frame-source");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        try {
+            recording.close();
+        } catch (IOException e) {
+            System.out.printf("Failed to close frame recording: %s%n", e.getMessage());
+        }
+    }
+
+    private void run(FrameSink sink) {
+        FrameFormat format = null;
+        try {
+            long start = System.nanoTime();
+            while (running) {
+                if (!recording.next()) {
+                    if (!loop || framesReplayed == 0) {
+                        System.out.printf("End of frame recording after %d frames%n", framesReplayed);
+                        return;
+                    }
+                    recording.rewind();
+                    start = System.nanoTime();
+                    continue;
+                }
+                if (recording.format() != format) {
+                    format = recording.format();
+                    sink.setFormat(format);
+                }
+                if (recordedTiming) {
+                    long wait;
+                    while (running && (wait = start + recording.timestamp() - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                sink.lock();
+                sink.unlock();
+                sink.display(recording.planes());
+                framesReplayed++;
+            }
+        } catch (IOException e) {
+            System.out.printf("Failed to replay frame recording: %s%n", e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReplayFrameSource[recordedTiming=%s,loop=%s,framesReplayed=%d]", recordedTiming, loop, framesReplayed);
+    }
+}
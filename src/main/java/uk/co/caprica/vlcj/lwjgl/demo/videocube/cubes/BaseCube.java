@@ -47,134 +47,14 @@ public abstract class BaseCube {
     protected final FloatBuffer normalBuffer;
 
     public BaseCube() {
-        float[] vertices = generateVertices();
-        float[] texCoords = generateTexCoords();
-        float[] normals = generateNormals();
+        float[] vertices = CubeGeometry.vertices();
+        float[] texCoords = CubeGeometry.texCoords();
+        float[] normals = CubeGeometry.normals();
         this.vertexBuffer = BufferUtils.createFloatBuffer(vertices.length).put(vertices).flip();
         this.texCoordBuffer = BufferUtils.createFloatBuffer(texCoords.length).put(texCoords).flip();
         this.normalBuffer = BufferUtils.createFloatBuffer(normals.length).put(normals).flip();
     }
 
-    private float[] generateVertices() {
-        return new float[] {
-            // Top face (y = 1.0f)
-            0.5f, 0.5f, -0.5f,
-            -0.5f, 0.5f, -0.5f,
-            -0.5f, 0.5f, 0.5f,
-            0.5f, 0.5f, 0.5f,
-
-            // Bottom face (y = -1.0f)
-            0.5f, -0.5f, 0.5f,
-            -0.5f, -0.5f, 0.5f,
-            -0.5f, -0.5f, -0.5f,
-            0.5f, -0.5f, -0.5f,
-
-            // Front face  (z = 1.0f)
-            0.5f, 0.5f, 0.5f,
-            -0.5f, 0.5f, 0.5f,
-            -0.5f, -0.5f, 0.5f,
-            0.5f, -0.5f, 0.5f,
-
-            // Back face (z = -1.0f)
-            0.5f, -0.5f, -0.5f,
-            -0.5f, -0.5f, -0.5f,
-            -0.5f, 0.5f, -0.5f,
-            0.5f, 0.5f, -0.5f,
-
-            // Left face (x = -1.0f)
-            -0.5f, 0.5f, 0.5f,
-            -0.5f, 0.5f, -0.5f,
-            -0.5f, -0.5f, -0.5f,
-            -0.5f, -0.5f, 0.5f,
-
-            // Right face (x = 1.0f)
-            0.5f, 0.5f, -0.5f,
-            0.5f, 0.5f, 0.5f,
-            0.5f, -0.5f, 0.5f,
-            0.5f, -0.5f, -0.5f,
-        };
-    }
-
-    private float[] generateTexCoords() {
-        return new float[]{
-            // Front face
-            1.0f, 0.0f,  // Bottom-right corner
-            0.0f, 0.0f,  // Bottom-left corner
-            0.0f, 1.0f,  // Top-left corner
-            1.0f, 1.0f,  // Top-right corner
-
-            // Back face
-            1.0f, 0.0f,  // Bottom-right corner
-            0.0f, 0.0f,  // Bottom-left corner
-            0.0f, 1.0f,  // Top-left corner
-            1.0f, 1.0f,  // Top-right corner
-
-            // Top face
-            0.0f, 1.0f,  // Bottom-left corner
-            1.0f, 1.0f,  // Bottom-right corner
-            1.0f, 0.0f,  // Top-right corner
-            0.0f, 0.0f,  // Top-left corner
-
-            // Bottom face
-            0.0f, 0.0f,  // Bottom-left corner
-            1.0f, 0.0f,  // Bottom-right corner
-            1.0f, 1.0f,  // Top-right corner
-            0.0f, 1.0f,  // Top-left corner
-
-            // Left face
-            0.0f, 0.0f,  // Bottom-left corner
-            1.0f, 0.0f,  // Bottom-right corner
-            1.0f, 1.0f,  // Top-right corner
-            0.0f, 1.0f,  // Top-left corner
-
-            // Right face
-            0.0f, 0.0f,  // Bottom-left corner
-            1.0f, 0.0f,  // Bottom-right corner
-            1.0f, 1.0f,  // Top-right corner
-            0.0f, 1.0f   // Top-left corner
-        };
-    }
-
-    private float[] generateNormals() {
-        return new float[]{
-            // Front face normals (0, 0, 1)
-            0.0f, 0.0f, 1.0f,
-            0.0f, 0.0f, 1.0f,
-            0.0f, 0.0f, 1.0f,
-            0.0f, 0.0f, 1.0f,
-
-            // Back face normals (0, 0, -1)
-            0.0f, 0.0f, -1.0f,
-            0.0f, 0.0f, -1.0f,
-            0.0f, 0.0f, -1.0f,
-            0.0f, 0.0f, -1.0f,
-
-            // Right face normals (1, 0, 0)
-            1.0f, 0.0f, 0.0f,
-            1.0f, 0.0f, 0.0f,
-            1.0f, 0.0f, 0.0f,
-            1.0f, 0.0f, 0.0f,
-
-            // Left face normals (-1, 0, 0)
-            -1.0f, 0.0f, 0.0f,
-            -1.0f, 0.0f, 0.0f,
-            -1.0f, 0.0f, 0.0f,
-            -1.0f, 0.0f, 0.0f,
-
-            // Top face normals (0, 1, 0)
-            0.0f, 1.0f, 0.0f,
-            0.0f, 1.0f, 0.0f,
-            0.0f, 1.0f, 0.0f,
-            0.0f, 1.0f, 0.0f,
-
-            // Bottom face normals (0, -1, 0)
-            0.0f, -1.0f, 0.0f,
-            0.0f, -1.0f, 0.0f,
-            0.0f, -1.0f, 0.0f,
-            0.0f, -1.0f, 0.0f
-        };
-    }
-
     public void render() {
         GL11.glEnable(GL_TEXTURE_2D);
 
@@ -198,5 +78,13 @@ public abstract class BaseCube {
         GL11.glDisable(GL_TEXTURE_2D);
     }
 
+    /**
+     * Show a different texture on every face that currently shows the given texture.
+     *
+     * @param previousTextureId texture to replace
+     * @param textureId replacement texture
+     */
+    public abstract void replaceTexture(int previousTextureId, int textureId);
+
     protected abstract void onRender();
 }
@@ -0,0 +1,190 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL11.glDrawElements;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL15.glBindBuffer;
+import static org.lwjgl.opengl.GL15.glBufferData;
+import static org.lwjgl.opengl.GL15.glDeleteBuffers;
+import static org.lwjgl.opengl.GL15.glGenBuffers;
+import static org.lwjgl.opengl.GL20.glDeleteProgram;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glGetUniformLocation;
+import static org.lwjgl.opengl.GL20.glUniform1i;
+import static org.lwjgl.opengl.GL20.glUniformMatrix4fv;
+import static org.lwjgl.opengl.GL20.glUseProgram;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.shaders.ShaderProgram.shaderProgram;
+
+/**
+ * Renders a cube using only core-profile features.
+ * <p>
+ * The static geometry is uploaded once to a vertex buffer and an index buffer, both captured by a vertex array object,
+ * and is drawn with a shader program - nothing is read from CPU memory when drawing.
+ * <p>
+ * Each face can have its own texture, as with {@link MultiTextureCube}. Consecutive faces that share a texture are
+ * drawn together, so for example a cube with the same texture on every face is a single draw call.
+ * <p>
+ * Requires OpenGL 3.3.
+ */
+public final class CoreCubeRenderer implements CubeRenderer {
+
+    private static final int POSITION_ATTRIBUTE = 0;
+
+    private static final int TEX_COORD_ATTRIBUTE = 1;
+
+    private final int programId;
+
+    private final int transformLocation;
+
+    private final int vertexArrayId;
+
+    private final int vertexBufferId;
+
+    private final int indexBufferId;
+
+    /**
+     * Texture, first index and index count for each draw call.
+     */
+    private final int[] draws;
+
+    /**
+     * Create a cube renderer.
+     *
+     * @param textureIds texture id for each face, in {@link CubeGeometry} face order
+     */
+    public CoreCubeRenderer(int[] textureIds) {
+        if (textureIds.length != CubeGeometry.FACES) {
+            throw new IllegalArgumentException("Expected a texture id for each of the " + CubeGeometry.FACES + " faces");
+        }
+        this.draws = batchFaces(textureIds);
+
+        programId = shaderProgram("/shaders/cube.vert", "/shaders/cube.frag");
+        transformLocation = glGetUniformLocation(programId, "transform");
+        glUseProgram(programId);
+        glUniform1i(glGetUniformLocation(programId, "faceTexture"), 0);
+        glUseProgram(0);
+
+        vertexArrayId = glGenVertexArrays();
+        glBindVertexArray(vertexArrayId);
+
+        vertexBufferId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vertexBufferId);
+        glBufferData(GL_ARRAY_BUFFER, interleavedVertices(), GL_STATIC_DRAW);
+        int stride = 5 * Float.BYTES;
+        glEnableVertexAttribArray(POSITION_ATTRIBUTE);
+        glVertexAttribPointer(POSITION_ATTRIBUTE, 3, GL_FLOAT, false, stride, 0);
+        glEnableVertexAttribArray(TEX_COORD_ATTRIBUTE);
+        glVertexAttribPointer(TEX_COORD_ATTRIBUTE, 2, GL_FLOAT, false, stride, 3 * Float.BYTES);
+
+        indexBufferId = glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBufferId);
+        int[] indices = CubeGeometry.indices();
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, BufferUtils.createIntBuffer(indices.length).put(indices).flip(), GL_STATIC_DRAW);
+
+        // The element array binding is part of the vertex array state, so unbind the vertex array first
+        glBindVertexArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    private static FloatBuffer interleavedVertices() {
+        float[] vertices = CubeGeometry.vertices();
+        float[] texCoords = CubeGeometry.texCoords();
+        int vertexCount = vertices.length / 3;
+        FloatBuffer buffer = BufferUtils.createFloatBuffer(vertexCount * 5);
+        for (int i = 0; i < vertexCount; i++) {
+            buffer.put(vertices, i * 3, 3).put(texCoords, i * 2, 2);
+        }
+        return buffer.flip();
+    }
+
+    private static int[] batchFaces(int[] textureIds) {
+        List<int[]> batches = new ArrayList<>();
+        for (int face = 0; face < textureIds.length; face++) {
+            int[] last = batches.isEmpty() ? null : batches.get(batches.size() - 1);
+            if (last != null && last[0] == textureIds[face]) {
+                last[2] += CubeGeometry.FACE_INDICES;
+            } else {
+                batches.add(new int[] {textureIds[face], face * CubeGeometry.FACE_INDICES, CubeGeometry.FACE_INDICES});
+            }
+        }
+        IntBuffer draws = IntBuffer.allocate(batches.size() * 3);
+        batches.forEach(draws::put);
+        return draws.array();
+    }
+
+    @Override
+    public void render(FloatBuffer transform) {
+        glUseProgram(programId);
+        glUniformMatrix4fv(transformLocation, false, transform);
+        glBindVertexArray(vertexArrayId);
+        for (int i = 0; i < draws.length; i += 3) {
+            glBindTexture(GL_TEXTURE_2D, draws[i]);
+            glDrawElements(GL_TRIANGLES, draws[i + 2], GL_UNSIGNED_INT, (long) draws[i + 1] * Integer.BYTES);
+        }
+        glBindVertexArray(0);
+        glUseProgram(0);
+    }
+
+    @Override
+    public void replaceTexture(int previousTextureId, int textureId) {
+        for (int i = 0; i < draws.length; i += 3) {
+            if (draws[i] == previousTextureId) {
+                draws[i] = textureId;
+            }
+        }
+    }
+
+    /**
+     * Get the number of draw calls issued per render.
+     *
+     * @return draw call count
+     */
+    public int drawCount() {
+        return draws.length / 3;
+    }
+
+    @Override
+    public void free() {
+        glDeleteVertexArrays(vertexArrayId);
+        glDeleteBuffers(vertexBufferId);
+        glDeleteBuffers(indexBufferId);
+        glDeleteProgram(programId);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes;
+
+/**
+ * Geometry shared by all cube implementations.
+ * <p>
+ * There are four vertices per face, in the face order top, bottom, front, back, left, right - a per-face texture id
+ * array indexes faces in this same order.
+ */
+public final class CubeGeometry {
+
+    /**
+     * Number of faces.
+     */
+    public static final int FACES = 6;
+
+    /**
+     * Number of vertices per face.
+     */
+    public static final int FACE_VERTICES = 4;
+
+    /**
+     * Number of indices per face.
+     */
+    public static final int FACE_INDICES = 6;
+
+    /**
+     * Get the vertex positions, four per face.
+     *
+     * @return new array of x, y, z positions
+     */
+    public static float[] vertices() {
+        return new float[] {
+            // Top face (y = 1.0f)
+            0.5f, 0.5f, -0.5f,
+            -0.5f, 0.5f, -0.5f,
+            -0.5f, 0.5f, 0.5f,
+            0.5f, 0.5f, 0.5f,
+
+            // Bottom face (y = -1.0f)
+            0.5f, -0.5f, 0.5f,
+            -0.5f, -0.5f, 0.5f,
+            -0.5f, -0.5f, -0.5f,
+            0.5f, -0.5f, -0.5f,
+
+            // Front face  (z = 1.0f)
+            0.5f, 0.5f, 0.5f,
+            -0.5f, 0.5f, 0.5f,
+            -0.5f, -0.5f, 0.5f,
+            0.5f, -0.5f, 0.5f,
+
+            // Back face (z = -1.0f)
+            0.5f, -0.5f, -0.5f,
+            -0.5f, -0.5f, -0.5f,
+            -0.5f, 0.5f, -0.5f,
+            0.5f, 0.5f, -0.5f,
+
+            // Left face (x = -1.0f)
+            -0.5f, 0.5f, 0.5f,
+            -0.5f, 0.5f, -0.5f,
+            -0.5f, -0.5f, -0.5f,
+            -0.5f, -0.5f, 0.5f,
+
+            // Right face (x = 1.0f)
+            0.5f, 0.5f, -0.5f,
+            0.5f, 0.5f, 0.5f,
+            0.5f, -0.5f, 0.5f,
+            0.5f, -0.5f, -0.5f,
+        };
+    }
+
+    /**
+     * Get the texture coordinates, one per vertex.
+     *
+     * @return new array of s, t texture coordinates
+     */
+    public static float[] texCoords() {
+        return new float[]{
+            // Front face
+            1.0f, 0.0f,  // Bottom-right corner
+            0.0f, 0.0f,  // Bottom-left corner
+            0.0f, 1.0f,  // Top-left corner
+            1.0f, 1.0f,  // Top-right corner
+
+            // Back face
+            1.0f, 0.0f,  // Bottom-right corner
+            0.0f, 0.0f,  // Bottom-left corner
+            0.0f, 1.0f,  // Top-left corner
+            1.0f, 1.0f,  // Top-right corner
+
+            // Top face
+            0.0f, 1.0f,  // Bottom-left corner
+            1.0f, 1.0f,  // Bottom-right corner
+            1.0f, 0.0f,  // Top-right corner
+            0.0f, 0.0f,  // Top-left corner
+
+            // Bottom face
+            0.0f, 0.0f,  // Bottom-left corner
+            1.0f, 0.0f,  // Bottom-right corner
+            1.0f, 1.0f,  // Top-right corner
+            0.0f, 1.0f,  // Top-left corner
+
+            // Left face
+            0.0f, 0.0f,  // Bottom-left corner
+            1.0f, 0.0f,  // Bottom-right corner
+            1.0f, 1.0f,  // Top-right corner
+            0.0f, 1.0f,  // Top-left corner
+
+            // Right face
+            0.0f, 0.0f,  // Bottom-left corner
+            1.0f, 0.0f,  // Bottom-right corner
+            1.0f, 1.0f,  // Top-right corner
+            0.0f, 1.0f   // Top-left corner
+        };
+    }
+
+    /**
+     * Get the normals, one per vertex.
+     *
+     * @return new array of x, y, z normals
+     */
+    public static float[] normals() {
+        return new float[]{
+            // Front face normals (0, 0, 1)
+            0.0f, 0.0f, 1.0f,
+            0.0f, 0.0f, 1.0f,
+            0.0f, 0.0f, 1.0f,
+            0.0f, 0.0f, 1.0f,
+
+            // Back face normals (0, 0, -1)
+            0.0f, 0.0f, -1.0f,
+            0.0f, 0.0f, -1.0f,
+            0.0f, 0.0f, -1.0f,
+            0.0f, 0.0f, -1.0f,
+
+            // Right face normals (1, 0, 0)
+            1.0f, 0.0f, 0.0f,
+            1.0f, 0.0f, 0.0f,
+            1.0f, 0.0f, 0.0f,
+            1.0f, 0.0f, 0.0f,
+
+            // Left face normals (-1, 0, 0)
+            -1.0f, 0.0f, 0.0f,
+            -1.0f, 0.0f, 0.0f,
+            -1.0f, 0.0f, 0.0f,
+            -1.0f, 0.0f, 0.0f,
+
+            // Top face normals (0, 1, 0)
+            0.0f, 1.0f, 0.0f,
+            0.0f, 1.0f, 0.0f,
+            0.0f, 1.0f, 0.0f,
+            0.0f, 1.0f, 0.0f,
+
+            // Bottom face normals (0, -1, 0)
+            0.0f, -1.0f, 0.0f,
+            0.0f, -1.0f, 0.0f,
+            0.0f, -1.0f, 0.0f,
+            0.0f, -1.0f, 0.0f
+        };
+    }
+
+    /**
+     * Get the indices that draw each face as two triangles.
+     *
+     * @return new array of vertex indices
+     */
+    public static int[] indices() {
+        return new int[]{
+            // Front face
+            0, 1, 2, 0, 2, 3,
+            // Back face
+            4, 5, 6, 4, 6, 7,
+            // Top face
+            8, 9, 10, 8, 10, 11,
+            // Bottom face
+            12, 13, 14, 12, 14, 15,
+            // Left face
+            16, 17, 18, 16, 18, 19,
+            // Right face
+            20, 21, 22, 20, 22, 23};
+    }
+
+    private CubeGeometry() {}
+}
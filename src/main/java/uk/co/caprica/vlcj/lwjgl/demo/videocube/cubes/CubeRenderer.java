@@ -0,0 +1,70 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes;
+
+import java.nio.FloatBuffer;
+
+/**
+ * A rendering backend for a cube.
+ */
+public interface CubeRenderer {
+
+    /**
+     * Render the cube.
+     *
+     * @param transform model-view-projection matrix, sixteen floats in column-major order
+     */
+    void render(FloatBuffer transform);
+
+    /**
+     * Notify the renderer that the contents of a texture it uses have changed.
+     * <p>
+     * Renderers that sample the textures directly have nothing to do.
+     *
+     * @param textureId texture that changed
+     */
+    default void textureUpdated(int textureId) {
+    }
+
+    /**
+     * Check whether this renderer samples the mipmaps of the textures it is given.
+     * <p>
+     * Renderers that sample the textures directly do, renderers that draw from their own copy of the textures may not -
+     * generating mipmaps for those is wasted work.
+     *
+     * @return <code>true</code> if the textures' mipmaps are sampled
+     */
+    default boolean samplesMipmaps() {
+        return true;
+    }
+
+    /**
+     * Show a different texture on every face that currently shows the given texture.
+     *
+     * @param previousTextureId texture to replace
+     * @param textureId replacement texture
+     */
+    void replaceTexture(int previousTextureId, int textureId);
+
+    /**
+     * Release any OpenGL resources held by this renderer.
+     */
+    void free();
+}
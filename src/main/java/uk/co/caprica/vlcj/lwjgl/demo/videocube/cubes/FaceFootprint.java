@@ -0,0 +1,127 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Estimates how large, and how minified, a texture is on screen, from the projected size of the cube faces that show
+ * it.
+ * <p>
+ * Each face's edges are projected with the same transform the renderers use, and compared with the texture size along
+ * the matching texture axis. A face seen at an angle is minified more along one axis than the other, the larger of the
+ * two is taken. Of all the faces showing the texture, the one drawn largest decides - if even that face is minified,
+ * the texture needs mipmaps wherever it appears.
+ * <p>
+ * No allocation takes place, so this can be used every frame.
+ */
+public final class FaceFootprint {
+
+    private final float[] vertices = CubeGeometry.vertices();
+
+    /**
+     * Faces that show the texture.
+     */
+    private final boolean[] faces = new boolean[CubeGeometry.FACES];
+
+    /**
+     * Create a footprint estimate.
+     *
+     * @param faceTextureIds texture id for each face
+     * @param textureId texture to estimate for
+     */
+    public FaceFootprint(int[] faceTextureIds, int textureId) {
+        for (int face = 0; face < CubeGeometry.FACES; face++) {
+            faces[face] = faceTextureIds[face] == textureId;
+        }
+    }
+
+    /**
+     * Get the number of texels per screen pixel on the largest face showing the texture.
+     *
+     * @param transform model-view-projection matrix, sixteen floats in column-major order
+     * @param viewportWidth viewport width, in pixels
+     * @param viewportHeight viewport height, in pixels
+     * @param textureWidth texture width, in texels
+     * @param textureHeight texture height, in texels
+     * @return texels per pixel, greater than one when minified
+     */
+    public float minification(FloatBuffer transform, int viewportWidth, int viewportHeight, int textureWidth, int textureHeight) {
+        float result = Float.MAX_VALUE;
+        for (int face = 0; face < CubeGeometry.FACES; face++) {
+            if (!faces[face]) {
+                continue;
+            }
+            // The first edge of every face runs along s, the second along t
+            int first = face * CubeGeometry.FACE_VERTICES * 3;
+            float sLength = edgeLength(transform, first, first + 3, viewportWidth, viewportHeight);
+            float tLength = edgeLength(transform, first + 3, first + 6, viewportWidth, viewportHeight);
+            float faceMinification = Math.max(textureWidth / Math.max(sLength, 1f), textureHeight / Math.max(tLength, 1f));
+            result = Math.min(result, faceMinification);
+        }
+        return result;
+    }
+
+    /**
+     * Get the largest size the texture is drawn at on any of its faces.
+     *
+     * @param transform model-view-projection matrix, sixteen floats in column-major order
+     * @param viewportWidth viewport width, in pixels
+     * @param viewportHeight viewport height, in pixels
+     * @param result receives the largest on-screen length along s and along t, in pixels
+     */
+    public void screenSize(FloatBuffer transform, int viewportWidth, int viewportHeight, float[] result) {
+        result[0] = 0;
+        result[1] = 0;
+        for (int face = 0; face < CubeGeometry.FACES; face++) {
+            if (faces[face]) {
+                int first = face * CubeGeometry.FACE_VERTICES * 3;
+                result[0] = Math.max(result[0], edgeLength(transform, first, first + 3, viewportWidth, viewportHeight));
+                result[1] = Math.max(result[1], edgeLength(transform, first + 3, first + 6, viewportWidth, viewportHeight));
+            }
+        }
+    }
+
+    /**
+     * Get the length on screen of the edge between two vertices.
+     */
+    private float edgeLength(FloatBuffer m, int from, int to, int viewportWidth, int viewportHeight) {
+        float dx = (project(m, to, 0) - project(m, from, 0)) * viewportWidth / 2;
+        float dy = (project(m, to, 1) - project(m, from, 1)) * viewportHeight / 2;
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Project one vertex to normalised device coordinates.
+     *
+     * @param m column-major matrix
+     * @param vertex index of the vertex's x position
+     * @param row 0 for x, 1 for y
+     * @return coordinate
+     */
+    private float project(FloatBuffer m, int vertex, int row) {
+        int p = m.position();
+        float x = vertices[vertex];
+        float y = vertices[vertex + 1];
+        float z = vertices[vertex + 2];
+        float w = m.get(p + 3) * x + m.get(p + 7) * y + m.get(p + 11) * z + m.get(p + 15);
+        return (m.get(p + row) * x + m.get(p + 4 + row) * y + m.get(p + 8 + row) * z + m.get(p + 12 + row)) / w;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL11.GL_MODELVIEW;
+import static org.lwjgl.opengl.GL11.GL_PROJECTION;
+import static org.lwjgl.opengl.GL11.glLoadIdentity;
+import static org.lwjgl.opengl.GL11.glLoadMatrixf;
+import static org.lwjgl.opengl.GL11.glMatrixMode;
+
+/**
+ * Renders a cube using the fixed-function pipeline and client-side vertex arrays.
+ * <p>
+ * The driver re-reads the geometry from CPU memory on every draw - this is kept as a fallback for contexts that do not
+ * support OpenGL 3.3.
+ */
+public final class FixedFunctionCubeRenderer implements CubeRenderer {
+
+    private final BaseCube cube;
+
+    public FixedFunctionCubeRenderer(BaseCube cube) {
+        this.cube = cube;
+    }
+
+    @Override
+    public void render(FloatBuffer transform) {
+        glMatrixMode(GL_PROJECTION);
+        glLoadIdentity();
+        glMatrixMode(GL_MODELVIEW);
+        glLoadMatrixf(transform);
+        cube.render();
+    }
+
+    @Override
+    public void replaceTexture(int previousTextureId, int textureId) {
+        cube.replaceTexture(previousTextureId, textureId);
+    }
+
+    @Override
+    public void free() {
+    }
+}
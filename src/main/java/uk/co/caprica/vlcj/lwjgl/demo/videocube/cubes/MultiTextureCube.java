@@ -29,7 +29,16 @@ public class MultiTextureCube extends BaseCube {
 
     public MultiTextureCube(int[] textureIds) {
         super();
-        this.textureIds = textureIds;
+        this.textureIds = textureIds.clone();
+    }
+
+    @Override
+    public void replaceTexture(int previousTextureId, int textureId) {
+        for (int face = 0; face < textureIds.length; face++) {
+            if (textureIds[face] == previousTextureId) {
+                textureIds[face] = textureId;
+            }
+        }
     }
 
     public void onRender() {
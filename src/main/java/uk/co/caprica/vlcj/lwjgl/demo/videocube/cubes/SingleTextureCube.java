@@ -34,30 +34,21 @@ import static org.lwjgl.opengl.GL11.glDrawElements;
  * This is not used by the demo application, but is kept here as a how-to for future reference.
  */
 public class SingleTextureCube extends BaseCube {
-    private final int textureId;
+    private int textureId;
 
     protected final IntBuffer indexBuffer;
 
     public SingleTextureCube(int textureId) {
         this.textureId = textureId;
-        int[] indices = generateIndices();
+        int[] indices = CubeGeometry.indices();
         this.indexBuffer = BufferUtils.createIntBuffer(indices.length).put(indices).flip();
     }
 
-    private int[] generateIndices() {
-        return new int[]{
-            // Front face
-            0, 1, 2, 0, 2, 3,
-            // Back face
-            4, 5, 6, 4, 6, 7,
-            // Top face
-            8, 9, 10, 8, 10, 11,
-            // Bottom face
-            12, 13, 14, 12, 14, 15,
-            // Left face
-            16, 17, 18, 16, 18, 19,
-            // Right face
-            20, 21, 22, 20, 22, 23};
+    @Override
+    public void replaceTexture(int previousTextureId, int textureId) {
+        if (this.textureId == previousTextureId) {
+            this.textureId = textureId;
+        }
     }
 
     public void onRender() {
@@ -0,0 +1,376 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL11.GL_LINEAR;
+import static org.lwjgl.opengl.GL11.GL_RGBA;
+import static org.lwjgl.opengl.GL11.GL_RGBA8;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_HEIGHT;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WIDTH;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
+import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11.GL_TRUE;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL11.glDeleteTextures;
+import static org.lwjgl.opengl.GL11.glDrawElements;
+import static org.lwjgl.opengl.GL11.glGenTextures;
+import static org.lwjgl.opengl.GL11.glGetTexImage;
+import static org.lwjgl.opengl.GL11.glGetTexLevelParameteri;
+import static org.lwjgl.opengl.GL11.glTexParameteri;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL12.GL_TEXTURE_MAX_LEVEL;
+import static org.lwjgl.opengl.GL12.glTexImage3D;
+import static org.lwjgl.opengl.GL12.glTexSubImage3D;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE_COMPRESSED;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL15.glBindBuffer;
+import static org.lwjgl.opengl.GL15.glBufferData;
+import static org.lwjgl.opengl.GL15.glDeleteBuffers;
+import static org.lwjgl.opengl.GL15.glGenBuffers;
+import static org.lwjgl.opengl.GL20.glDeleteProgram;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glGetUniformLocation;
+import static org.lwjgl.opengl.GL20.glUniform1i;
+import static org.lwjgl.opengl.GL20.glUniform2fv;
+import static org.lwjgl.opengl.GL20.glUniformMatrix4fv;
+import static org.lwjgl.opengl.GL20.glUseProgram;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.GL_TEXTURE_2D_ARRAY;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL43.glCopyImageSubData;
+import static org.lwjgl.system.MemoryUtil.memAlloc;
+import static org.lwjgl.system.MemoryUtil.memFree;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.shaders.ShaderProgram.shaderProgram;
+
+/**
+ * Renders a cube with a single draw call, whatever textures are mapped to its faces.
+ * <p>
+ * Each distinct face texture is copied into one layer of a texture array, and every vertex carries the layer for its
+ * face - the shader picks the layer, so there is no texture binding between faces.
+ * <p>
+ * Layers are copied on the GPU, and only after the source texture has been reported as changed with
+ * {@link #textureUpdated(int)}. All layers share the size of the largest source texture, smaller sources occupy the
+ * bottom-left corner of their layer and their texture coordinates are scaled to suit.
+ * <p>
+ * Block-compressed sources can not be copied into the uncompressed array on the GPU, so they are read back and
+ * uploaded instead - they are expected to be static images, copied once.
+ * <p>
+ * Requires OpenGL 3.3, and OpenGL 4.3 or ARB_copy_image.
+ */
+public final class TextureArrayCubeRenderer implements CubeRenderer {
+
+    private static final int POSITION_ATTRIBUTE = 0;
+
+    private static final int TEX_COORD_ATTRIBUTE = 1;
+
+    private static final int LAYER_ATTRIBUTE = 2;
+
+    private static final int VERTEX_FLOATS = 6;
+
+    /**
+     * Source texture for each layer.
+     */
+    private final int[] layerTextureIds;
+
+    private final int[] layerWidths;
+
+    private final int[] layerHeights;
+
+    private final boolean[] layerDirty;
+
+    private final boolean[] layerCompressed;
+
+    /**
+     * Extent of the source texture within each layer, in texture coordinates.
+     */
+    private final FloatBuffer layerExtents;
+
+    private final int programId;
+
+    private final int transformLocation;
+
+    private final int layerExtentsLocation;
+
+    private final int arrayTextureId;
+
+    private final int vertexArrayId;
+
+    private final int vertexBufferId;
+
+    private final int indexBufferId;
+
+    private int arrayWidth;
+
+    private int arrayHeight;
+
+    private long layerCopyCount;
+
+    /**
+     * Create a cube renderer.
+     *
+     * @param textureIds texture id for each face, in {@link CubeGeometry} face order
+     */
+    public TextureArrayCubeRenderer(int[] textureIds) {
+        if (textureIds.length != CubeGeometry.FACES) {
+            throw new IllegalArgumentException("Expected a texture id for each of the " + CubeGeometry.FACES + " faces");
+        }
+        int[] faceLayers = new int[CubeGeometry.FACES];
+        this.layerTextureIds = assignLayers(textureIds, faceLayers);
+        int layers = layerTextureIds.length;
+        this.layerWidths = new int[layers];
+        this.layerHeights = new int[layers];
+        this.layerDirty = new boolean[layers];
+        this.layerCompressed = new boolean[layers];
+        this.layerExtents = BufferUtils.createFloatBuffer(CubeGeometry.FACES * 2);
+        markAllDirty();
+
+        programId = shaderProgram("/shaders/cube-array.vert", "/shaders/cube-array.frag");
+        transformLocation = glGetUniformLocation(programId, "transform");
+        layerExtentsLocation = glGetUniformLocation(programId, "layerExtents");
+        glUseProgram(programId);
+        glUniform1i(glGetUniformLocation(programId, "faceTextures"), 0);
+        glUseProgram(0);
+
+        arrayTextureId = glGenTextures();
+        glBindTexture(GL_TEXTURE_2D_ARRAY, arrayTextureId);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAX_LEVEL, 0);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+
+        vertexArrayId = glGenVertexArrays();
+        glBindVertexArray(vertexArrayId);
+
+        vertexBufferId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vertexBufferId);
+        glBufferData(GL_ARRAY_BUFFER, interleavedVertices(faceLayers), GL_STATIC_DRAW);
+        int stride = VERTEX_FLOATS * Float.BYTES;
+        glEnableVertexAttribArray(POSITION_ATTRIBUTE);
+        glVertexAttribPointer(POSITION_ATTRIBUTE, 3, GL_FLOAT, false, stride, 0);
+        glEnableVertexAttribArray(TEX_COORD_ATTRIBUTE);
+        glVertexAttribPointer(TEX_COORD_ATTRIBUTE, 2, GL_FLOAT, false, stride, 3 * Float.BYTES);
+        glEnableVertexAttribArray(LAYER_ATTRIBUTE);
+        glVertexAttribPointer(LAYER_ATTRIBUTE, 1, GL_FLOAT, false, stride, 5 * Float.BYTES);
+
+        indexBufferId = glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBufferId);
+        int[] indices = CubeGeometry.indices();
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, BufferUtils.createIntBuffer(indices.length).put(indices).flip(), GL_STATIC_DRAW);
+
+        // The element array binding is part of the vertex array state, so unbind the vertex array first
+        glBindVertexArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Give each distinct texture its own layer.
+     *
+     * @param textureIds texture id for each face
+     * @param faceLayers receives the layer for each face
+     * @return texture id for each layer
+     */
+    private static int[] assignLayers(int[] textureIds, int[] faceLayers) {
+        IntBuffer layers = IntBuffer.allocate(textureIds.length);
+        for (int face = 0; face < textureIds.length; face++) {
+            int layer = 0;
+            while (layer < layers.position() && layers.get(layer) != textureIds[face]) {
+                layer++;
+            }
+            if (layer == layers.position()) {
+                layers.put(textureIds[face]);
+            }
+            faceLayers[face] = layer;
+        }
+        int[] result = new int[layers.position()];
+        layers.flip().get(result);
+        return result;
+    }
+
+    private static FloatBuffer interleavedVertices(int[] faceLayers) {
+        float[] vertices = CubeGeometry.vertices();
+        float[] texCoords = CubeGeometry.texCoords();
+        int vertexCount = vertices.length / 3;
+        FloatBuffer buffer = BufferUtils.createFloatBuffer(vertexCount * VERTEX_FLOATS);
+        for (int i = 0; i < vertexCount; i++) {
+            buffer.put(vertices, i * 3, 3).put(texCoords, i * 2, 2).put(faceLayers[i / CubeGeometry.FACE_VERTICES]);
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public void textureUpdated(int textureId) {
+        for (int layer = 0; layer < layerTextureIds.length; layer++) {
+            if (layerTextureIds[layer] == textureId) {
+                layerDirty[layer] = true;
+            }
+        }
+    }
+
+    /**
+     * Only the base level of each source texture is copied into the array, so source mipmaps are never sampled.
+     */
+    @Override
+    public boolean samplesMipmaps() {
+        return false;
+    }
+
+    @Override
+    public void replaceTexture(int previousTextureId, int textureId) {
+        for (int layer = 0; layer < layerTextureIds.length; layer++) {
+            if (layerTextureIds[layer] == previousTextureId) {
+                layerTextureIds[layer] = textureId;
+                layerDirty[layer] = true;
+            }
+        }
+    }
+
+    @Override
+    public void render(FloatBuffer transform) {
+        refreshLayers();
+        glUseProgram(programId);
+        glUniformMatrix4fv(transformLocation, false, transform);
+        glUniform2fv(layerExtentsLocation, layerExtents);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, arrayTextureId);
+        glBindVertexArray(vertexArrayId);
+        glDrawElements(GL_TRIANGLES, CubeGeometry.FACES * CubeGeometry.FACE_INDICES, GL_UNSIGNED_INT, 0);
+        glBindVertexArray(0);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+        glUseProgram(0);
+    }
+
+    /**
+     * Copy every changed source texture into its layer, growing the texture array first if a source no longer fits.
+     */
+    private void refreshLayers() {
+        boolean changed = false;
+        for (int layer = 0; layer < layerTextureIds.length; layer++) {
+            if (layerDirty[layer]) {
+                glBindTexture(GL_TEXTURE_2D, layerTextureIds[layer]);
+                layerWidths[layer] = glGetTexLevelParameteri(GL_TEXTURE_2D, 0, GL_TEXTURE_WIDTH);
+                layerHeights[layer] = glGetTexLevelParameteri(GL_TEXTURE_2D, 0, GL_TEXTURE_HEIGHT);
+                layerCompressed[layer] = glGetTexLevelParameteri(GL_TEXTURE_2D, 0, GL_TEXTURE_COMPRESSED) == GL_TRUE;
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return;
+        }
+        glBindTexture(GL_TEXTURE_2D, 0);
+        int width = arrayWidth;
+        int height = arrayHeight;
+        for (int layer = 0; layer < layerTextureIds.length; layer++) {
+            width = Math.max(width, layerWidths[layer]);
+            height = Math.max(height, layerHeights[layer]);
+        }
+        if (width != arrayWidth || height != arrayHeight) {
+            // The array only ever grows, a video that changes size back and forth must not reallocate every time
+            arrayWidth = width;
+            arrayHeight = height;
+            glBindTexture(GL_TEXTURE_2D_ARRAY, arrayTextureId);
+            glTexImage3D(GL_TEXTURE_2D_ARRAY, 0, GL_RGBA8, width, height, layerTextureIds.length, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+            glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+            markAllDirty();
+        }
+        for (int layer = 0; layer < layerTextureIds.length; layer++) {
+            if (layerDirty[layer]) {
+                if (layerCompressed[layer]) {
+                    copyCompressedLayer(layer);
+                } else {
+                    glCopyImageSubData(
+                        layerTextureIds[layer], GL_TEXTURE_2D, 0, 0, 0, 0,
+                        arrayTextureId, GL_TEXTURE_2D_ARRAY, 0, 0, 0, layer,
+                        layerWidths[layer], layerHeights[layer], 1
+                    );
+                }
+                layerDirty[layer] = false;
+                layerCopyCount++;
+            }
+            layerExtents.put(layer * 2, layerWidths[layer] / (float) arrayWidth);
+            layerExtents.put(layer * 2 + 1, layerHeights[layer] / (float) arrayHeight);
+        }
+    }
+
+    /**
+     * Copy a compressed source texture into its layer by way of client memory, decompressing it on the way.
+     *
+     * @param layer layer to copy
+     */
+    private void copyCompressedLayer(int layer) {
+        ByteBuffer pixels = memAlloc(layerWidths[layer] * layerHeights[layer] * 4);
+        try {
+            glBindTexture(GL_TEXTURE_2D, layerTextureIds[layer]);
+            glGetTexImage(GL_TEXTURE_2D, 0, GL_RGBA, GL_UNSIGNED_BYTE, pixels);
+            glBindTexture(GL_TEXTURE_2D, 0);
+            glBindTexture(GL_TEXTURE_2D_ARRAY, arrayTextureId);
+            glTexSubImage3D(GL_TEXTURE_2D_ARRAY, 0, 0, 0, layer, layerWidths[layer], layerHeights[layer], 1, GL_RGBA, GL_UNSIGNED_BYTE, pixels);
+            glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+        } finally {
+            memFree(pixels);
+        }
+    }
+
+    private void markAllDirty() {
+        Arrays.fill(layerDirty, true);
+    }
+
+    /**
+     * Get the number of layers in the texture array, i.e. the number of distinct face textures.
+     *
+     * @return layer count
+     */
+    public int layerCount() {
+        return layerTextureIds.length;
+    }
+
+    @Override
+    public void free() {
+        glDeleteVertexArrays(vertexArrayId);
+        glDeleteBuffers(vertexBufferId);
+        glDeleteBuffers(indexBufferId);
+        glDeleteTextures(arrayTextureId);
+        glDeleteProgram(programId);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TextureArrayCubeRenderer[layers=%d,size=%dx%d,copies=%d]", layerTextureIds.length, arrayWidth, arrayHeight, layerCopyCount);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Utility class that provides for construction of transformation matrices without allocation.
+ */
+public final class Transform {
+
+    /**
+     * Write a rotation matrix, equivalent to <code>glRotatef</code> on an identity matrix.
+     *
+     * @param dest buffer to receive sixteen floats in column-major order, the position is not changed
+     * @param angle rotation angle, in degrees
+     * @param x x component of the rotation axis
+     * @param y y component of the rotation axis
+     * @param z z component of the rotation axis
+     * @return the destination buffer
+     */
+    public static FloatBuffer rotation(FloatBuffer dest, float angle, float x, float y, float z) {
+        float length = (float) Math.sqrt(x * x + y * y + z * z);
+        x /= length;
+        y /= length;
+        z /= length;
+        float radians = (float) Math.toRadians(angle);
+        float c = (float) Math.cos(radians);
+        float s = (float) Math.sin(radians);
+        float t = 1f - c;
+        int p = dest.position();
+        // Column 0
+        dest.put(p, x * x * t + c);
+        dest.put(p + 1, y * x * t + z * s);
+        dest.put(p + 2, x * z * t - y * s);
+        dest.put(p + 3, 0f);
+        // Column 1
+        dest.put(p + 4, x * y * t - z * s);
+        dest.put(p + 5, y * y * t + c);
+        dest.put(p + 6, y * z * t + x * s);
+        dest.put(p + 7, 0f);
+        // Column 2
+        dest.put(p + 8, x * z * t + y * s);
+        dest.put(p + 9, y * z * t - x * s);
+        dest.put(p + 10, z * z * t + c);
+        dest.put(p + 11, 0f);
+        // Column 3
+        dest.put(p + 12, 0f);
+        dest.put(p + 13, 0f);
+        dest.put(p + 14, 0f);
+        dest.put(p + 15, 1f);
+        return dest;
+    }
+
+    private Transform() {}
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.engine;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import uk.co.caprica.vlcj.player.embedded.videosurface.videoengine.VideoEngineCallbackAdapter;
+import uk.co.caprica.vlcj.player.embedded.videosurface.videoengine.VideoEngineWindowCallback;
+
+import static org.lwjgl.glfw.GLFW.glfwGetProcAddress;
+import static org.lwjgl.glfw.GLFW.glfwMakeContextCurrent;
+import static org.lwjgl.system.MemoryUtil.NULL;
+
+/**
+ * Video engine callback that has LibVLC render into an {@link EngineFrameRing} on its own context, sharing objects
+ * with the scene's context.
+ * <p>
+ * Each context is only ever current on one thread, so unlike the video engine demo there is no semaphore - the
+ * frames are handed over with sync objects instead.
+ * <p>
+ * The callback methods here all execute on a native thread coming from LibVLC.
+ */
+public final class CubeVideoEngineHandler extends VideoEngineCallbackAdapter {
+
+    private final EngineFrameRing frames;
+
+    private final long engineWindow;
+
+    /**
+     * OpenGL capabilities of the video engine context, LWJGL tracks these per thread.
+     */
+    private GLCapabilities capabilities;
+
+    /**
+     * Create a handler.
+     *
+     * @param frames ring of textures to render into
+     * @param engineWindow hidden window whose context shares objects with the scene's context
+     */
+    public CubeVideoEngineHandler(EngineFrameRing frames, long engineWindow) {
+        this.frames = frames;
+        this.engineWindow = engineWindow;
+    }
+
+    @Override
+    public void onSetWindowCallback(VideoEngineWindowCallback windowCallback) {
+        windowCallback.setSize(frames.width(), frames.height());
+    }
+
+    @Override
+    public long onGetProcAddress(Long opaque, String functionName) {
+        return glfwGetProcAddress(functionName);
+    }
+
+    @Override
+    public boolean onMakeCurrent(Long opaque, boolean enter) {
+        if (enter) {
+            glfwMakeContextCurrent(engineWindow);
+            if (capabilities == null) {
+                capabilities = GL.createCapabilities();
+            } else {
+                GL.setCapabilities(capabilities);
+            }
+            frames.bind();
+        } else {
+            glfwMakeContextCurrent(NULL);
+            GL.setCapabilities(null);
+        }
+        return true;
+    }
+
+    @Override
+    public void onSwap(Long opaque) {
+        frames.publish();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.engine;
+
+/**
+ * One slot of an {@link EngineFrameRing} - a texture shared between the contexts, and the sync objects that hand it
+ * back and forth.
+ * <p>
+ * The fences are plain fields, they are only ever touched by whichever thread currently owns the slot and ownership
+ * passes through the frame exchange, which orders the accesses.
+ */
+final class EngineFrame {
+
+    /**
+     * Texture the frame is copied into, shared between the contexts.
+     */
+    final int textureId;
+
+    /**
+     * Framebuffer with the texture attached - framebuffers are not shared, so this belongs to the video engine
+     * context and is created lazily on the video engine thread.
+     */
+    int framebufferId;
+
+    /**
+     * Signalled when the video engine has finished writing the texture, waited on before the scene samples it.
+     */
+    long writeFence;
+
+    /**
+     * Signalled when the scene has finished sampling the texture, waited on before the video engine writes it again.
+     */
+    long readFence;
+
+    EngineFrame(int textureId) {
+        this.textureId = textureId;
+    }
+}
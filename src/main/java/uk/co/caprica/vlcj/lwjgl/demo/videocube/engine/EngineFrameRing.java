@@ -0,0 +1,240 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.engine;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameCounters;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_LINEAR;
+import static org.lwjgl.opengl.GL11.GL_NEAREST;
+import static org.lwjgl.opengl.GL11.GL_RGBA;
+import static org.lwjgl.opengl.GL11.GL_RGBA8;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL11.glDeleteTextures;
+import static org.lwjgl.opengl.GL11.glFlush;
+import static org.lwjgl.opengl.GL11.glGenTextures;
+import static org.lwjgl.opengl.GL11.glTexImage2D;
+import static org.lwjgl.opengl.GL11.glTexParameteri;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL12.GL_TEXTURE_MAX_LEVEL;
+import static org.lwjgl.opengl.GL30.GL_COLOR_ATTACHMENT0;
+import static org.lwjgl.opengl.GL30.GL_DRAW_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.GL_READ_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.GL_RENDERBUFFER;
+import static org.lwjgl.opengl.GL30.glBindFramebuffer;
+import static org.lwjgl.opengl.GL30.glBindRenderbuffer;
+import static org.lwjgl.opengl.GL30.glBlitFramebuffer;
+import static org.lwjgl.opengl.GL30.glFramebufferRenderbuffer;
+import static org.lwjgl.opengl.GL30.glFramebufferTexture2D;
+import static org.lwjgl.opengl.GL30.glGenFramebuffers;
+import static org.lwjgl.opengl.GL30.glGenRenderbuffers;
+import static org.lwjgl.opengl.GL30.glRenderbufferStorage;
+import static org.lwjgl.opengl.GL32.GL_SYNC_GPU_COMMANDS_COMPLETE;
+import static org.lwjgl.opengl.GL32.GL_TIMEOUT_IGNORED;
+import static org.lwjgl.opengl.GL32.glDeleteSync;
+import static org.lwjgl.opengl.GL32.glFenceSync;
+import static org.lwjgl.opengl.GL32.glWaitSync;
+
+/**
+ * Frames rendered by the native video engine on its own, shared, context, handed to the scene as textures.
+ * <p>
+ * LibVLC draws each frame into a framebuffer owned by the video engine context, which is then blitted into one of
+ * three textures shared with the scene's context. The textures are exchanged through a {@link FrameExchange}, so
+ * neither thread ever waits for the other on the CPU. Instead each hand-off carries a fence: the scene waits, on the
+ * GPU, for the blit to finish before sampling, and the video engine waits, also on the GPU, for the scene to finish
+ * sampling before blitting into the same texture again.
+ * <p>
+ * No pixels pass through CPU memory. The blit also flips the frame, OpenGL framebuffers are stored bottom row first
+ * whereas the rest of the scene expects textures top row first.
+ * <p>
+ * Requires OpenGL 3.2.
+ */
+public final class EngineFrameRing {
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * Every frame, whichever thread currently holds it - a frame exchange is a triple buffer.
+     */
+    private final EngineFrame[] slots = new EngineFrame[3];
+
+    private final FrameExchange<EngineFrame> frames;
+
+    /**
+     * Framebuffer the video engine draws into, only used on the video engine thread.
+     */
+    private int renderFramebufferId;
+
+    /**
+     * Colour buffer for {@link #renderFramebufferId}, only used on the video engine thread.
+     */
+    private int renderbufferId;
+
+    /**
+     * Create a frame ring, invoked with the scene's context current.
+     *
+     * @param width width the video engine renders at
+     * @param height height the video engine renders at
+     * @param counters counters to update as frames are taken or skipped
+     */
+    public EngineFrameRing(int width, int height, FrameCounters counters) {
+        this.width = width;
+        this.height = height;
+        this.frames = new FrameExchange<>(index -> slots[index] = new EngineFrame(newTexture(width, height)), counters);
+    }
+
+    private static int newTexture(int width, int height) {
+        int textureId = glGenTextures();
+        glBindTexture(GL_TEXTURE_2D, textureId);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAX_LEVEL, 0);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        glBindTexture(GL_TEXTURE_2D, 0);
+        return textureId;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Bind the framebuffer for the video engine to draw the next frame into.
+     * <p>
+     * Invoked on the video engine thread, each time the video engine context is made current.
+     */
+    public void bind() {
+        if (renderFramebufferId == 0) {
+            renderbufferId = glGenRenderbuffers();
+            glBindRenderbuffer(GL_RENDERBUFFER, renderbufferId);
+            glRenderbufferStorage(GL_RENDERBUFFER, GL_RGBA8, width, height);
+            glBindRenderbuffer(GL_RENDERBUFFER, 0);
+            renderFramebufferId = glGenFramebuffers();
+            glBindFramebuffer(GL_FRAMEBUFFER, renderFramebufferId);
+            glFramebufferRenderbuffer(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_RENDERBUFFER, renderbufferId);
+        }
+        // LibVLC draws into whichever framebuffer is bound when it starts drawing
+        glBindFramebuffer(GL_FRAMEBUFFER, renderFramebufferId);
+    }
+
+    /**
+     * Copy the frame the video engine has just drawn into the next texture, and publish it.
+     * <p>
+     * Invoked on the video engine thread, in place of swapping buffers.
+     */
+    public void publish() {
+        EngineFrame frame = frames.writeBuffer();
+        if (frame.readFence != 0) {
+            // The scene may still be sampling this texture from the last time it had it
+            glWaitSync(frame.readFence, 0, GL_TIMEOUT_IGNORED);
+            glDeleteSync(frame.readFence);
+            frame.readFence = 0;
+        }
+        if (frame.framebufferId == 0) {
+            frame.framebufferId = glGenFramebuffers();
+            glBindFramebuffer(GL_FRAMEBUFFER, frame.framebufferId);
+            glFramebufferTexture2D(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_TEXTURE_2D, frame.textureId, 0);
+        }
+        glBindFramebuffer(GL_READ_FRAMEBUFFER, renderFramebufferId);
+        glBindFramebuffer(GL_DRAW_FRAMEBUFFER, frame.framebufferId);
+        glBlitFramebuffer(0, 0, width, height, 0, height, width, 0, GL_COLOR_BUFFER_BIT, GL_NEAREST);
+        glBindFramebuffer(GL_FRAMEBUFFER, renderFramebufferId);
+        frame.writeFence = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        // The fence must reach the GPU before the scene's context can wait on it
+        glFlush();
+        frames.publish();
+    }
+
+    /**
+     * Take the most recently published frame, if there is a new one.
+     * <p>
+     * Invoked on the scene's thread, with the scene's context current, before rendering.
+     *
+     * @return <code>true</code> if {@link #textureId()} changed
+     */
+    public boolean acquire() {
+        if (!frames.available()) {
+            // Lets the exchange count the duplicate
+            frames.acquire();
+            return false;
+        }
+        // Everything submitted so far includes the last draws that sampled the current texture
+        EngineFrame previous = frames.readBuffer();
+        previous.readFence = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        glFlush();
+        EngineFrame frame = frames.acquire();
+        glWaitSync(frame.writeFence, 0, GL_TIMEOUT_IGNORED);
+        glDeleteSync(frame.writeFence);
+        frame.writeFence = 0;
+        return true;
+    }
+
+    /**
+     * Get the texture holding the frame the scene should currently sample.
+     * <p>
+     * Invoked on the scene's thread.
+     *
+     * @return texture id
+     */
+    public int textureId() {
+        return frames.readBuffer().textureId;
+    }
+
+    /**
+     * Release the shared textures and any outstanding fences, invoked with the scene's context current after the video
+     * engine has stopped.
+     * <p>
+     * The framebuffers belong to the video engine context, and are released along with it.
+     */
+    public void free() {
+        for (EngineFrame frame : slots) {
+            if (frame.writeFence != 0) {
+                glDeleteSync(frame.writeFence);
+            }
+            if (frame.readFence != 0) {
+                glDeleteSync(frame.readFence);
+            }
+            glDeleteTextures(frame.textureId);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EngineFrameRing[size=%dx%d]", width, height);
+    }
+}
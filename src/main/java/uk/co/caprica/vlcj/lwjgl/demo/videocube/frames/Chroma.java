@@ -0,0 +1,103 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.frames;
+
+/**
+ * Pixel formats that frames can be requested in, named after the corresponding LibVLC chroma.
+ */
+public enum Chroma {
+
+    /**
+     * Packed 32-bit, one int per pixel, blue in the lowest byte.
+     */
+    RV32(4, new int[] {4}, new boolean[] {false}),
+
+    /**
+     * Planar 4:2:0, a full size luma plane followed by separate quarter size U and V planes.
+     */
+    I420(32, new int[] {1, 1, 1}, new boolean[] {false, true, true}),
+
+    /**
+     * Semi-planar 4:2:0, a full size luma plane followed by a quarter size plane of interleaved U and V.
+     */
+    NV12(32, new int[] {1, 2}, new boolean[] {false, true});
+
+    private final int pitchAlignment;
+
+    private final int[] bytesPerPixel;
+
+    private final boolean[] subsampled;
+
+    Chroma(int pitchAlignment, int[] bytesPerPixel, boolean[] subsampled) {
+        this.pitchAlignment = pitchAlignment;
+        this.bytesPerPixel = bytesPerPixel;
+        this.subsampled = subsampled;
+    }
+
+    public int planeCount() {
+        return bytesPerPixel.length;
+    }
+
+    /**
+     * Get the number of bytes per pixel in a plane.
+     *
+     * @param plane plane index
+     * @return bytes per pixel
+     */
+    public int bytesPerPixel(int plane) {
+        return bytesPerPixel[plane];
+    }
+
+    /**
+     * Get the width of a plane, in pixels.
+     *
+     * @param plane plane index
+     * @param width frame width
+     * @return plane width
+     */
+    public int planeWidth(int plane, int width) {
+        return subsampled[plane] ? (width + 1) / 2 : width;
+    }
+
+    /**
+     * Get the height of a plane, in lines.
+     *
+     * @param plane plane index
+     * @param height frame height
+     * @return plane height
+     */
+    public int planeHeight(int plane, int height) {
+        return subsampled[plane] ? (height + 1) / 2 : height;
+    }
+
+    /**
+     * Get the pitch of a plane.
+     * <p>
+     * Planar formats have their pitches aligned, packed formats do not since they are copied as plain arrays.
+     *
+     * @param plane plane index
+     * @param width frame width
+     * @return plane pitch, in bytes
+     */
+    public int pitch(int plane, int width) {
+        int pitch = planeWidth(plane, width) * bytesPerPixel[plane];
+        return (pitch + pitchAlignment - 1) / pitchAlignment * pitchAlignment;
+    }
+}
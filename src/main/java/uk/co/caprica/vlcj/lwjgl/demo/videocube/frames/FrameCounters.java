@@ -0,0 +1,91 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.frames;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing what happened to each decoded frame on its way to a texture.
+ * <p>
+ * Counters may be updated and read from any thread.
+ */
+public final class FrameCounters {
+
+    private final LongAdder uploaded = new LongAdder();
+
+    private final LongAdder duplicates = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Record that a new frame was uploaded to the texture.
+     */
+    public void uploaded() {
+        uploaded.increment();
+    }
+
+    /**
+     * Record that the render loop found no new frame, so skipped the upload.
+     */
+    public void duplicate() {
+        duplicates.increment();
+    }
+
+    /**
+     * Record that frames were replaced by newer frames before they could be uploaded.
+     *
+     * @param count number of frames dropped
+     */
+    public void dropped(long count) {
+        dropped.add(count);
+    }
+
+    /**
+     * Get the number of frames uploaded.
+     *
+     * @return uploaded frame count
+     */
+    public long uploadedCount() {
+        return uploaded.sum();
+    }
+
+    /**
+     * Get the number of times the render loop skipped an upload because there was no new frame.
+     *
+     * @return duplicate frame count
+     */
+    public long duplicateCount() {
+        return duplicates.sum();
+    }
+
+    /**
+     * Get the number of decoded frames that were never uploaded.
+     *
+     * @return dropped frame count
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FrameCounters[uploaded=%d,duplicates=%d,dropped=%d]", uploadedCount(), duplicateCount(), droppedCount());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.frames;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Lock-free triple buffer used to hand decoded frames from a single producer thread to a single consumer thread.
+ * <p>
+ * The producer always has a buffer to write into, the consumer always has a buffer to read from, and the third buffer
+ * holds the most recently published frame - neither thread ever waits for the other.
+ * <p>
+ * Every published frame is given a sequence number, so the consumer can tell whether anything has changed since it
+ * last looked, and how many frames it missed in the meantime.
+ *
+ * @param <T> type of frame buffer
+ */
+public final class FrameExchange<T> {
+
+    /**
+     * Flag set in the shared slot when it holds a frame the consumer has not yet taken.
+     */
+    private static final int FRESH = 0x4;
+
+    private static final int INDEX_MASK = 0x3;
+
+    private final Object[] buffers = new Object[3];
+
+    /**
+     * Sequence number of the frame in each buffer, written before the buffer is published.
+     */
+    private final long[] sequences = new long[3];
+
+    /**
+     * Index of the shared buffer, combined with the {@link #FRESH} flag.
+     */
+    private final AtomicInteger shared = new AtomicInteger(1);
+
+    private final FrameCounters counters;
+
+    /**
+     * Index of the buffer owned by the producer.
+     */
+    private int back = 0;
+
+    /**
+     * Sequence number of the next frame to be published, owned by the producer.
+     */
+    private long nextSequence = 1;
+
+    /**
+     * Sequence number of the most recently published frame, written by the producer and readable from any thread.
+     */
+    private volatile long publishedSequence;
+
+    /**
+     * Index of the buffer owned by the consumer.
+     */
+    private int front = 2;
+
+    /**
+     * Sequence number of the last frame the consumer took.
+     */
+    private long frontSequence;
+
+    /**
+     * Create a frame exchange.
+     *
+     * @param factory creates each of the three frame buffers, given its index
+     * @param counters counters to update as frames are taken or skipped
+     */
+    public FrameExchange(IntFunction<T> factory, FrameCounters counters) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.apply(i);
+        }
+        this.counters = counters;
+    }
+
+    /**
+     * Get the buffer the producer should write the next frame into.
+     * <p>
+     * Invoked on the producer thread, the returned buffer changes each time a frame is published.
+     *
+     * @return frame buffer
+     */
+    @SuppressWarnings("unchecked")
+    public T writeBuffer() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Publish the frame that has just been written into the {@link #writeBuffer()}.
+     * <p>
+     * Invoked on the producer thread.
+     *
+     * @return sequence number of the published frame
+     */
+    public long publish() {
+        long sequence = nextSequence++;
+        sequences[back] = sequence;
+        back = shared.getAndSet(back | FRESH) & INDEX_MASK;
+        publishedSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Check whether a frame newer than the one last taken has been published, without taking it.
+     * <p>
+     * Invoked on the consumer thread.
+     *
+     * @return <code>true</code> if {@link #acquire()} would return a frame
+     */
+    public boolean available() {
+        return (shared.get() & FRESH) != 0;
+    }
+
+    /**
+     * Take the most recently published frame, if it is newer than the frame last taken.
+     * <p>
+     * Invoked on the consumer thread, the returned buffer remains valid until the next call.
+     *
+     * @return frame buffer, or <code>null</code> if no new frame has been published
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((shared.get() & FRESH) == 0) {
+            counters.duplicate();
+            return null;
+        }
+        front = shared.getAndSet(front) & INDEX_MASK;
+        long sequence = sequences[front];
+        if (frontSequence != 0) {
+            counters.dropped(sequence - frontSequence - 1);
+        }
+        frontSequence = sequence;
+        counters.uploaded();
+        return (T) buffers[front];
+    }
+
+    /**
+     * Get the buffer the consumer currently holds, the one most recently returned by {@link #acquire()}.
+     * <p>
+     * Invoked on the consumer thread, before the first frame is taken this is a buffer that has never been written.
+     *
+     * @return frame buffer
+     */
+    @SuppressWarnings("unchecked")
+    public T readBuffer() {
+        return (T) buffers[front];
+    }
+
+    /**
+     * Get the sequence number of the frame last taken by the consumer.
+     *
+     * @return sequence number, or zero if no frame has been taken yet
+     */
+    public long frontSequence() {
+        return frontSequence;
+    }
+
+    /**
+     * Get the sequence number of the most recently published frame.
+     *
+     * @return sequence number, or zero if no frame has been published yet
+     */
+    public long publishedSequence() {
+        return publishedSequence;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.frames;
+
+/**
+ * Format of a decoded video frame, as negotiated with the media player.
+ */
+public final class FrameFormat {
+
+    private final Chroma chroma;
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * Create an RV32 frame format.
+     *
+     * @param width frame width, in pixels
+     * @param height frame height, in pixels
+     */
+    public FrameFormat(int width, int height) {
+        this(Chroma.RV32, width, height);
+    }
+
+    /**
+     * Create a frame format.
+     *
+     * @param chroma pixel format
+     * @param width frame width, in pixels
+     * @param height frame height, in pixels
+     */
+    public FrameFormat(Chroma chroma, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid frame size " + width + "x" + height);
+        }
+        this.chroma = chroma;
+        this.width = width;
+        this.height = height;
+    }
+
+    public Chroma chroma() {
+        return chroma;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Get the number of pixels in a frame.
+     *
+     * @return pixel count
+     */
+    public int pixelCount() {
+        return width * height;
+    }
+
+    public int planeCount() {
+        return chroma.planeCount();
+    }
+
+    /**
+     * Get the pitch of a plane.
+     *
+     * @param plane plane index
+     * @return pitch, in bytes
+     */
+    public int pitch(int plane) {
+        return chroma.pitch(plane, width);
+    }
+
+    /**
+     * Get the number of lines in a plane.
+     *
+     * @param plane plane index
+     * @return line count
+     */
+    public int lines(int plane) {
+        return chroma.planeHeight(plane, height);
+    }
+
+    /**
+     * Get the size of a plane.
+     *
+     * @param plane plane index
+     * @return plane size, in bytes
+     */
+    public int planeSize(int plane) {
+        return pitch(plane) * lines(plane);
+    }
+
+    /**
+     * Get the pitch of every plane.
+     *
+     * @return new array of pitches, in bytes
+     */
+    public int[] pitches() {
+        int[] pitches = new int[planeCount()];
+        for (int plane = 0; plane < pitches.length; plane++) {
+            pitches[plane] = pitch(plane);
+        }
+        return pitches;
+    }
+
+    /**
+     * Get the number of lines in every plane.
+     *
+     * @return new array of line counts
+     */
+    public int[] lines() {
+        int[] lines = new int[planeCount()];
+        for (int plane = 0; plane < lines.length; plane++) {
+            lines[plane] = lines(plane);
+        }
+        return lines;
+    }
+
+    /**
+     * Get the size of a frame.
+     *
+     * @return frame size, in bytes
+     */
+    public int frameSize() {
+        int size = 0;
+        for (int plane = 0; plane < planeCount(); plane++) {
+            size += planeSize(plane);
+        }
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FrameFormat)) {
+            return false;
+        }
+        FrameFormat other = (FrameFormat) obj;
+        return chroma == other.chroma && width == other.width && height == other.height;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * chroma.hashCode() + width) + height;
+    }
+
+    @Override
+    public String toString() {
+        return chroma + " " + width + "x" + height;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.frames;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+import static org.lwjgl.system.MemoryUtil.memCopy;
+
+/**
+ * Copies decoded frames in parallel row bands, for sources large enough that a single thread cannot keep up.
+ * <p>
+ * A single thread copying an 8K frame is limited by how fast one core can stream memory, well short of what the memory
+ * system can do with several cores at once. Each frame is split into one band of whole rows per thread, the calling
+ * thread copies the first band itself and a small fork-join pool copies the rest, and the copy returns once every band
+ * is done. Frames below a minimum size are copied on the calling thread alone, since waking the pool would cost more
+ * than it saves.
+ * <p>
+ * The band tasks are reused, so a frame copy allocates nothing. A copy must only be used from one thread at a time -
+ * the decode thread.
+ */
+public final class ParallelFrameCopy {
+
+    private final int threads;
+
+    private final long minBytes;
+
+    private final ForkJoinPool pool;
+
+    private final Band[] bands;
+
+    /**
+     * The source buffer the band views were created for - sources reuse their buffers, so the views are only recreated
+     * when the buffer changes.
+     */
+    private IntBuffer viewedSource;
+
+    private long parallelCount;
+
+    private long serialCount;
+
+    /**
+     * Create a copy stage.
+     *
+     * @param threads number of threads copying each frame, including the calling thread - one copies every frame on the
+     *                calling thread
+     * @param minBytes smallest frame, in bytes, copied in parallel
+     */
+    public ParallelFrameCopy(int threads, long minBytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one copy thread is required");
+        }
+        this.threads = threads;
+        this.minBytes = minBytes;
+        this.pool = threads > 1 ? new ForkJoinPool(threads - 1, ParallelFrameCopy::newWorker, null, false) : null;
+        this.bands = new Band[threads];
+        for (int band = 0; band < threads; band++) {
+            bands[band] = new Band();
+        }
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("frame-copy-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Copy a frame between native buffers.
+     *
+     * @param source address of the source frame
+     * @param destination address of the destination frame
+     * @param bytes size of the frame, in bytes
+     * @param rows number of rows in the frame, the frame is only split between rows
+     */
+    public void copy(long source, long destination, long bytes, int rows) {
+        int count = bandCount(bytes, rows);
+        if (count == 1) {
+            memCopy(source, destination, bytes);
+            return;
+        }
+        long rowBytes = bytes / rows;
+        for (int band = 0; band < count; band++) {
+            long start = rowBytes * (rows * (long) band / count);
+            long end = band == count - 1 ? bytes : rowBytes * (rows * (long) (band + 1) / count);
+            bands[band].memory(source + start, destination + start, end - start);
+        }
+        run(count);
+    }
+
+    /**
+     * Copy a frame of packed pixels from a native buffer to the heap.
+     *
+     * @param source source frame, the view is not modified
+     * @param destination destination pixels
+     * @param length number of pixels to copy
+     * @param rows number of rows in the frame, the frame is only split between rows
+     */
+    public void copy(IntBuffer source, int[] destination, int length, int rows) {
+        if (source != viewedSource) {
+            viewedSource = source;
+            for (Band band : bands) {
+                band.view = null;
+            }
+        }
+        int count = bandCount(length * 4L, rows);
+        if (count == 1) {
+            bands[0].view(source, destination, 0, length);
+            bands[0].compute();
+            return;
+        }
+        int rowPixels = length / rows;
+        for (int band = 0; band < count; band++) {
+            int start = rowPixels * (int) (rows * (long) band / count);
+            int end = band == count - 1 ? length : rowPixels * (int) (rows * (long) (band + 1) / count);
+            bands[band].view(source, destination, start, end - start);
+        }
+        run(count);
+    }
+
+    private int bandCount(long bytes, int rows) {
+        if (pool == null || bytes < minBytes || rows < threads) {
+            serialCount++;
+            return 1;
+        }
+        parallelCount++;
+        return threads;
+    }
+
+    private void run(int count) {
+        for (int band = 1; band < count; band++) {
+            bands[band].reinitialize();
+            pool.execute(bands[band]);
+        }
+        bands[0].compute();
+        for (int band = 1; band < count; band++) {
+            bands[band].join();
+        }
+    }
+
+    /**
+     * Shut down the copy threads.
+     */
+    public void free() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    public long parallelCount() {
+        return parallelCount;
+    }
+
+    public long serialCount() {
+        return serialCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("frame copy: %d threads, %d frames in parallel, %d on one thread", threads, parallelCount, serialCount);
+    }
+
+    /**
+     * One band of rows, either between native buffers or from a native buffer to the heap.
+     */
+    private static final class Band extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private long source;
+
+        private long destination;
+
+        private long bytes;
+
+        /**
+         * This band's own view of the source buffer, so bands never share a position or limit.
+         */
+        private IntBuffer view;
+
+        private int[] pixels;
+
+        private int offset;
+
+        private int length;
+
+        void memory(long source, long destination, long bytes) {
+            this.source = source;
+            this.destination = destination;
+            this.bytes = bytes;
+            this.pixels = null;
+        }
+
+        void view(IntBuffer source, int[] pixels, int offset, int length) {
+            if (view == null) {
+                view = source.duplicate();
+            }
+            this.pixels = pixels;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        protected void compute() {
+            if (pixels == null) {
+                memCopy(source, destination, bytes);
+                return;
+            }
+            view.clear();
+            view.position(offset);
+            view.get(pixels, offset, length);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.frames;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A decoded video frame held in direct buffers, one per plane, together with the format it was decoded in.
+ */
+public final class PlanarFrame {
+
+    private FrameFormat format;
+
+    private ByteBuffer[] planes;
+
+    /**
+     * Create a frame.
+     *
+     * @param format initial frame format
+     */
+    public PlanarFrame(FrameFormat format) {
+        this.planes = new ByteBuffer[0];
+        setFormat(format);
+    }
+
+    /**
+     * Change the format of this frame.
+     * <p>
+     * Each plane buffer is only reallocated if the new format needs a different size for that plane.
+     *
+     * @param format new frame format
+     */
+    public void setFormat(FrameFormat format) {
+        if (format.equals(this.format)) {
+            return;
+        }
+        ByteBuffer[] planes = new ByteBuffer[format.planeCount()];
+        for (int plane = 0; plane < planes.length; plane++) {
+            int size = format.planeSize(plane);
+            if (plane < this.planes.length && this.planes[plane].capacity() == size) {
+                planes[plane] = this.planes[plane];
+            } else {
+                planes[plane] = BufferUtils.createByteBuffer(size);
+            }
+        }
+        this.planes = planes;
+        this.format = format;
+    }
+
+    /**
+     * Copy every plane from native frame buffers.
+     *
+     * @param source native frame buffers, one per plane, in this frame's format
+     */
+    public void copyFrom(ByteBuffer[] source) {
+        for (int plane = 0; plane < planes.length; plane++) {
+            long length = Math.min(source[plane].remaining(), planes[plane].capacity());
+            MemoryUtil.memCopy(MemoryUtil.memAddress(source[plane]), MemoryUtil.memAddress(planes[plane]), length);
+        }
+    }
+
+    /**
+     * Copy every plane from native frame buffers, each plane in parallel row bands if it is large enough.
+     *
+     * @param source native frame buffers, one per plane, in this frame's format
+     * @param copy copy stage
+     */
+    public void copyFrom(ByteBuffer[] source, ParallelFrameCopy copy) {
+        for (int plane = 0; plane < planes.length; plane++) {
+            long length = Math.min(source[plane].remaining(), planes[plane].capacity());
+            copy.copy(MemoryUtil.memAddress(source[plane]), MemoryUtil.memAddress(planes[plane]), length, format.lines(plane));
+        }
+    }
+
+    public FrameFormat format() {
+        return format;
+    }
+
+    /**
+     * Get the buffer for a plane.
+     *
+     * @param plane plane index
+     * @return plane buffer
+     */
+    public ByteBuffer plane(int plane) {
+        return planes[plane];
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.frames;
+
+import java.util.Arrays;
+
+/**
+ * A decoded video frame held in a heap array, together with the format it was decoded in.
+ */
+public final class VideoFrame {
+
+    private FrameFormat format;
+
+    private int[] pixels;
+
+    /**
+     * Create a frame, initially opaque black.
+     *
+     * @param format initial frame format
+     */
+    public VideoFrame(FrameFormat format) {
+        this.format = format;
+        this.pixels = newPixels(format);
+    }
+
+    /**
+     * Change the format of this frame.
+     * <p>
+     * The pixel array is only reallocated if the new format needs a different number of pixels, otherwise the existing
+     * array is reused as-is.
+     *
+     * @param format new frame format
+     */
+    public void setFormat(FrameFormat format) {
+        if (pixels.length != format.pixelCount()) {
+            pixels = newPixels(format);
+        }
+        this.format = format;
+    }
+
+    public FrameFormat format() {
+        return format;
+    }
+
+    public int[] pixels() {
+        return pixels;
+    }
+
+    private static int[] newPixels(FrameFormat format) {
+        int[] pixels = new int[format.pixelCount()];
+        Arrays.fill(pixels, 0xFF000000);
+        return pixels;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.hud;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Builds a null-terminated ASCII string in a direct buffer, formatting numbers without allocating.
+ */
+final class HudText {
+
+    private final ByteBuffer buffer;
+
+    private final byte[] digits = new byte[20];
+
+    /**
+     * Create a text builder.
+     *
+     * @param buffer buffer to write into, reused every time the text is rebuilt
+     */
+    HudText(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Start building a new string.
+     *
+     * @return this builder
+     */
+    HudText clear() {
+        buffer.clear();
+        return this;
+    }
+
+    /**
+     * Append text, which must be plain ASCII.
+     *
+     * @param text text to append
+     * @return this builder
+     */
+    HudText append(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Append a whole number.
+     *
+     * @param value number to append
+     * @return this builder
+     */
+    HudText append(long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (count > 0) {
+            buffer.put(digits[--count]);
+        }
+        return this;
+    }
+
+    /**
+     * Append a number with a fixed number of decimal places.
+     *
+     * @param value number to append
+     * @param decimals number of decimal places
+     * @return this builder
+     */
+    HudText append(double value, int decimals) {
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) {
+            scale *= 10;
+        }
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) {
+            buffer.put((byte) '-');
+        }
+        append(scaled / scale);
+        if (decimals > 0) {
+            buffer.put((byte) '.');
+            long fraction = scaled % scale;
+            for (long place = scale / 10; place > 0; place /= 10) {
+                buffer.put((byte) ('0' + fraction / place % 10));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Pad with spaces up to a column, relative to the start of the current line.
+     *
+     * @param column column to pad to
+     * @return this builder
+     */
+    HudText pad(int column) {
+        int lineStart = buffer.position();
+        while (lineStart > 0 && buffer.get(lineStart - 1) != '\n') {
+            lineStart--;
+        }
+        while (buffer.position() - lineStart < column) {
+            buffer.put((byte) ' ');
+        }
+        return this;
+    }
+
+    /**
+     * Terminate the string, ready to be passed to native code.
+     *
+     * @return buffer holding the null-terminated string, from position zero
+     */
+    ByteBuffer terminate() {
+        buffer.put((byte) 0);
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.hud;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBEasyFont;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.timing.CpuTimer;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL11.GL_BLEND;
+import static org.lwjgl.opengl.GL11.GL_BLEND_DST;
+import static org.lwjgl.opengl.GL11.GL_BLEND_SRC;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL11.GL_ONE_MINUS_SRC_ALPHA;
+import static org.lwjgl.opengl.GL11.GL_SRC_ALPHA;
+import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
+import static org.lwjgl.opengl.GL11.GL_VIEWPORT;
+import static org.lwjgl.opengl.GL11.glBlendFunc;
+import static org.lwjgl.opengl.GL11.glDisable;
+import static org.lwjgl.opengl.GL11.glDrawElements;
+import static org.lwjgl.opengl.GL11.glEnable;
+import static org.lwjgl.opengl.GL11.glGetInteger;
+import static org.lwjgl.opengl.GL11.glGetIntegerv;
+import static org.lwjgl.opengl.GL11.glIsEnabled;
+import static org.lwjgl.opengl.GL11.glViewport;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER_BINDING;
+import static org.lwjgl.opengl.GL15.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL15.GL_STREAM_DRAW;
+import static org.lwjgl.opengl.GL15.glBindBuffer;
+import static org.lwjgl.opengl.GL15.glBufferData;
+import static org.lwjgl.opengl.GL15.glBufferSubData;
+import static org.lwjgl.opengl.GL15.glDeleteBuffers;
+import static org.lwjgl.opengl.GL15.glGenBuffers;
+import static org.lwjgl.opengl.GL20.GL_CURRENT_PROGRAM;
+import static org.lwjgl.opengl.GL20.glDeleteProgram;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glGetUniformLocation;
+import static org.lwjgl.opengl.GL20.glUniform2f;
+import static org.lwjgl.opengl.GL20.glUseProgram;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.GL_VERTEX_ARRAY_BINDING;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.shaders.ShaderProgram.shaderProgram;
+
+/**
+ * On-screen performance overlay, showing frame rates, upload time, input latency, frame counters and a rolling frame
+ * time graph.
+ * <p>
+ * Text is generated with stb_easy_font into a direct buffer that is reused, and numbers are formatted without creating
+ * strings, so nothing is allocated per frame. The statistics and text are only refreshed a few times a second, while
+ * the graph is rebuilt every frame - either way the whole overlay is a single buffer update and a single draw call.
+ * <p>
+ * Must be created, used and freed with the same OpenGL context current. Requires OpenGL 3.3.
+ * <p>
+ * Creating and drawing the overlay leaves the program, vertex array and array buffer bindings as they were, so it can
+ * draw on a context that something else, like LibVLC's video engine, is rendering with.
+ */
+public final class PerformanceHud {
+
+    /**
+     * Size of an overlay unit, in pixels - stb_easy_font characters are about seven units high.
+     */
+    private static final float SCALE = 2.0f;
+
+    private static final float MARGIN = 6.0f;
+
+    private static final int GRAPH_SAMPLES = 120;
+
+    private static final float GRAPH_HEIGHT = 40.0f;
+
+    /**
+     * Frame time at the top of the graph, in milliseconds.
+     */
+    private static final float GRAPH_MAX_MILLIS = 50.0f;
+
+    private static final float TARGET_FRAME_MILLIS = 1000.0f / 60.0f;
+
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    private static final int VERTEX_BYTES = 16;
+
+    private static final int QUAD_BYTES = VERTEX_BYTES * 4;
+
+    /**
+     * Quads before the text, the panel background, the target frame time line, and one per graph sample.
+     */
+    private static final int FIXED_QUADS = 2 + GRAPH_SAMPLES;
+
+    private static final int MAX_TEXT_QUADS = 1024;
+
+    private static final int MAX_QUADS = FIXED_QUADS + MAX_TEXT_QUADS;
+
+    private final int programId;
+
+    private final int unitsToNdcLocation;
+
+    private final int vertexArrayId;
+
+    private final int vertexBufferId;
+
+    private final int indexBufferId;
+
+    private final ByteBuffer vertices = BufferUtils.createByteBuffer(MAX_QUADS * QUAD_BYTES);
+
+    private final ByteBuffer textColour = BufferUtils.createByteBuffer(4).put(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF}).flip();
+
+    private final HudText text = new HudText(BufferUtils.createByteBuffer(512));
+
+    private final IntBuffer savedViewport = BufferUtils.createIntBuffer(4);
+
+    private final IntBuffer savedBlend = BufferUtils.createIntBuffer(1);
+
+    private final float[] frameMillis = new float[GRAPH_SAMPLES];
+
+    private final CpuTimer renderTimer = new CpuTimer("hud");
+
+    private int nextSample;
+
+    private int textQuads;
+
+    private float textWidth;
+
+    private float textHeight;
+
+    private long lastFrameTime;
+
+    private long windowStart;
+
+    private long windowFrames;
+
+    private long windowDecoded;
+
+    private long windowUploadNanos;
+
+    private long windowUploads;
+
+    private long windowMaxUploadNanos;
+
+    private long windowHudNanos;
+
+    private long windowInputNanos;
+
+    private long windowInputs;
+
+    private long windowMaxInputNanos;
+
+    /**
+     * Input latency of the last refresh that had any input, kept on screen since input is only occasional.
+     */
+    private double inputAverageMillis = -1;
+
+    private double inputMaxMillis;
+
+    private long decodedFrames = -1;
+
+    private long droppedFrames = -1;
+
+    private long duplicateFrames = -1;
+
+    /**
+     * Create the overlay.
+     */
+    public PerformanceHud() {
+        int savedVertexArray = glGetInteger(GL_VERTEX_ARRAY_BINDING);
+        int savedArrayBuffer = glGetInteger(GL_ARRAY_BUFFER_BINDING);
+
+        programId = shaderProgram("/shaders/hud.vert", "/shaders/hud.frag");
+        unitsToNdcLocation = glGetUniformLocation(programId, "unitsToNdc");
+
+        vertexArrayId = glGenVertexArrays();
+        glBindVertexArray(vertexArrayId);
+
+        vertexBufferId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vertexBufferId);
+        glBufferData(GL_ARRAY_BUFFER, vertices.capacity(), GL_STREAM_DRAW);
+        glEnableVertexAttribArray(0);
+        glVertexAttribPointer(0, 3, GL_FLOAT, false, VERTEX_BYTES, 0);
+        glEnableVertexAttribArray(1);
+        glVertexAttribPointer(1, 4, GL_UNSIGNED_BYTE, true, VERTEX_BYTES, 12);
+
+        // Everything is drawn as quads, two triangles each
+        IntBuffer indices = BufferUtils.createIntBuffer(MAX_QUADS * 6);
+        for (int quad = 0; quad < MAX_QUADS; quad++) {
+            int base = quad * 4;
+            indices.put(base).put(base + 1).put(base + 2).put(base).put(base + 2).put(base + 3);
+        }
+        indexBufferId = glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBufferId);
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices.flip(), GL_STATIC_DRAW);
+
+        // The element array binding is part of the vertex array state, so it goes back along with the vertex array
+        glBindVertexArray(savedVertexArray);
+        glBindBuffer(GL_ARRAY_BUFFER, savedArrayBuffer);
+
+        updateText(0.0);
+    }
+
+    /**
+     * Record the completion of a rendered frame.
+     *
+     * @param now current time, from {@link System#nanoTime()}
+     */
+    public void frameCompleted(long now) {
+        if (lastFrameTime != 0) {
+            frameMillis[nextSample] = (now - lastFrameTime) / 1_000_000.0f;
+            nextSample = (nextSample + 1) % GRAPH_SAMPLES;
+        }
+        lastFrameTime = now;
+        windowFrames++;
+        if (windowStart == 0) {
+            windowStart = now;
+        } else if (now - windowStart >= REFRESH_NANOS) {
+            updateText((now - windowStart) / 1_000_000_000.0);
+            windowStart = now;
+        }
+    }
+
+    /**
+     * Record the time taken to upload a frame.
+     *
+     * @param nanos upload time, in nanoseconds
+     */
+    public void uploadCompleted(long nanos) {
+        windowUploadNanos += nanos;
+        windowUploads++;
+        windowMaxUploadNanos = Math.max(windowMaxUploadNanos, nanos);
+    }
+
+    /**
+     * Record the input-to-render latency of a frame that applied input events.
+     *
+     * @param nanos time from the oldest event being captured to the frame being presented, in nanoseconds
+     */
+    public void inputCompleted(long nanos) {
+        windowInputNanos += nanos;
+        windowInputs++;
+        windowMaxInputNanos = Math.max(windowMaxInputNanos, nanos);
+    }
+
+    /**
+     * Set the frame counters to show.
+     *
+     * @param decoded total frames decoded so far
+     * @param dropped total frames dropped so far
+     * @param duplicates total render loop iterations with no new frame so far
+     */
+    public void setFrameCounts(long decoded, long dropped, long duplicates) {
+        this.decodedFrames = decoded;
+        this.droppedFrames = dropped;
+        this.duplicateFrames = duplicates;
+    }
+
+    private void updateText(double seconds) {
+        text.clear()
+            .append("render").pad(8).append(seconds > 0 ? windowFrames / seconds : 0.0, 1).append(" fps").pad(22)
+            .append(seconds > 0 && windowFrames > 0 ? seconds * 1000.0 / windowFrames : 0.0, 2).append(" ms\n")
+            .append("decode").pad(8);
+        if (decodedFrames >= 0) {
+            text.append(seconds > 0 ? (decodedFrames - windowDecoded) / seconds : 0.0, 1).append(" fps");
+            windowDecoded = decodedFrames;
+        } else {
+            text.append("-");
+        }
+        text.append("\nupload").pad(8);
+        if (windowUploads > 0) {
+            text.append(windowUploadNanos / (double) windowUploads / 1_000_000.0, 3).append(" ms").pad(22)
+                .append("max ").append(windowMaxUploadNanos / 1_000_000.0, 3);
+        } else {
+            text.append("-");
+        }
+        if (windowInputs > 0) {
+            inputAverageMillis = windowInputNanos / (double) windowInputs / 1_000_000.0;
+            inputMaxMillis = windowMaxInputNanos / 1_000_000.0;
+        }
+        text.append("\ninput").pad(8);
+        if (inputAverageMillis >= 0) {
+            text.append(inputAverageMillis, 3).append(" ms").pad(22).append("max ").append(inputMaxMillis, 3);
+        } else {
+            text.append("-");
+        }
+        text.append("\ndropped").pad(8);
+        if (droppedFrames >= 0) {
+            text.append(droppedFrames).pad(22).append("duplicate ").append(duplicateFrames);
+        } else {
+            text.append("-");
+        }
+        text.append("\nhud").pad(8).append(windowFrames > 0 ? windowHudNanos / (double) windowFrames / 1_000_000.0 : 0.0, 3).append(" ms");
+        ByteBuffer string = text.terminate();
+
+        vertices.position(FIXED_QUADS * QUAD_BYTES);
+        textQuads = Math.min(STBEasyFont.stb_easy_font_print(MARGIN, MARGIN, string, textColour, vertices), MAX_TEXT_QUADS);
+        vertices.position(0);
+        textWidth = STBEasyFont.stb_easy_font_width(string);
+        textHeight = STBEasyFont.stb_easy_font_height(string);
+
+        windowFrames = 0;
+        windowUploadNanos = 0;
+        windowUploads = 0;
+        windowMaxUploadNanos = 0;
+        windowHudNanos = 0;
+        windowInputNanos = 0;
+        windowInputs = 0;
+        windowMaxInputNanos = 0;
+    }
+
+    /**
+     * Draw the overlay over whatever has already been rendered.
+     * <p>
+     * Blending, depth testing, the viewport, and the program, vertex array and array buffer bindings are restored
+     * afterwards.
+     *
+     * @param framebufferWidth width of the framebuffer, in pixels
+     * @param framebufferHeight height of the framebuffer, in pixels
+     */
+    public void render(int framebufferWidth, int framebufferHeight) {
+        renderTimer.start();
+        int quads = buildGraph() + textQuads;
+
+        boolean blend = glIsEnabled(GL_BLEND);
+        boolean depthTest = glIsEnabled(GL_DEPTH_TEST);
+        glGetIntegerv(GL_VIEWPORT, savedViewport);
+        glGetIntegerv(GL_BLEND_SRC, savedBlend);
+        int blendSrc = savedBlend.get(0);
+        glGetIntegerv(GL_BLEND_DST, savedBlend);
+        int blendDst = savedBlend.get(0);
+        int savedProgram = glGetInteger(GL_CURRENT_PROGRAM);
+        int savedVertexArray = glGetInteger(GL_VERTEX_ARRAY_BINDING);
+        int savedArrayBuffer = glGetInteger(GL_ARRAY_BUFFER_BINDING);
+
+        glViewport(0, 0, framebufferWidth, framebufferHeight);
+        glEnable(GL_BLEND);
+        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        glDisable(GL_DEPTH_TEST);
+
+        glBindBuffer(GL_ARRAY_BUFFER, vertexBufferId);
+        // Orphan the previous contents so the update never waits for the previous frame's draw to finish
+        glBufferData(GL_ARRAY_BUFFER, vertices.capacity(), GL_STREAM_DRAW);
+        vertices.position(0).limit(quads * QUAD_BYTES);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, vertices);
+        vertices.clear();
+
+        glUseProgram(programId);
+        glUniform2f(unitsToNdcLocation, 2.0f * SCALE / framebufferWidth, 2.0f * SCALE / framebufferHeight);
+        glBindVertexArray(vertexArrayId);
+        glDrawElements(GL_TRIANGLES, quads * 6, GL_UNSIGNED_INT, 0);
+
+        glBindVertexArray(savedVertexArray);
+        glBindBuffer(GL_ARRAY_BUFFER, savedArrayBuffer);
+        glUseProgram(savedProgram);
+
+        glBlendFunc(blendSrc, blendDst);
+        if (!blend) {
+            glDisable(GL_BLEND);
+        }
+        if (depthTest) {
+            glEnable(GL_DEPTH_TEST);
+        }
+        glViewport(savedViewport.get(0), savedViewport.get(1), savedViewport.get(2), savedViewport.get(3));
+        windowHudNanos += renderTimer.stop();
+    }
+
+    /**
+     * Write the panel background and the frame time graph into the fixed quads, ahead of the text.
+     *
+     * @return number of fixed quads
+     */
+    private int buildGraph() {
+        float graphTop = MARGIN + textHeight + MARGIN;
+        float graphBottom = graphTop + GRAPH_HEIGHT;
+        float panelRight = Math.max(MARGIN + textWidth, MARGIN + GRAPH_SAMPLES) + MARGIN;
+        vertices.clear();
+        quad(0.0f, 0.0f, panelRight, graphBottom + MARGIN, 0xB0000000);
+        float target = graphBottom - GRAPH_HEIGHT * TARGET_FRAME_MILLIS / GRAPH_MAX_MILLIS;
+        quad(MARGIN, target, MARGIN + GRAPH_SAMPLES, target + 0.5f, 0xFF808080);
+        for (int i = 0; i < GRAPH_SAMPLES; i++) {
+            // Oldest sample on the left
+            float millis = frameMillis[(nextSample + i) % GRAPH_SAMPLES];
+            float height = Math.min(millis / GRAPH_MAX_MILLIS, 1.0f) * GRAPH_HEIGHT;
+            int colour = millis <= TARGET_FRAME_MILLIS * 1.1f ? 0xFF40C040 : millis <= TARGET_FRAME_MILLIS * 2.1f ? 0xFF40C0C0 : 0xFF4040E0;
+            quad(MARGIN + i, graphBottom - height, MARGIN + i + 1, graphBottom, colour);
+        }
+        return FIXED_QUADS;
+    }
+
+    /**
+     * Write one quad at the current position.
+     *
+     * @param colour colour as 0xAABBGGRR, the byte order stb_easy_font uses
+     */
+    private void quad(float x0, float y0, float x1, float y1, int colour) {
+        vertex(x0, y0, colour);
+        vertex(x1, y0, colour);
+        vertex(x1, y1, colour);
+        vertex(x0, y1, colour);
+    }
+
+    private void vertex(float x, float y, int colour) {
+        vertices.putFloat(x).putFloat(y).putFloat(0.0f)
+            .put((byte) colour).put((byte) (colour >>> 8)).put((byte) (colour >>> 16)).put((byte) (colour >>> 24));
+    }
+
+    /**
+     * Get the timing of the overlay itself.
+     *
+     * @return timer
+     */
+    public CpuTimer renderTimer() {
+        return renderTimer;
+    }
+
+    public void free() {
+        glDeleteVertexArrays(vertexArrayId);
+        glDeleteBuffers(vertexBufferId);
+        glDeleteBuffers(indexBufferId);
+        glDeleteProgram(programId);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.shaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.lwjgl.opengl.GL11.GL_FALSE;
+import static org.lwjgl.opengl.GL20.GL_COMPILE_STATUS;
+import static org.lwjgl.opengl.GL20.GL_FRAGMENT_SHADER;
+import static org.lwjgl.opengl.GL20.GL_LINK_STATUS;
+import static org.lwjgl.opengl.GL20.GL_VERTEX_SHADER;
+import static org.lwjgl.opengl.GL20.glAttachShader;
+import static org.lwjgl.opengl.GL20.glCompileShader;
+import static org.lwjgl.opengl.GL20.glCreateProgram;
+import static org.lwjgl.opengl.GL20.glCreateShader;
+import static org.lwjgl.opengl.GL20.glDeleteProgram;
+import static org.lwjgl.opengl.GL20.glDeleteShader;
+import static org.lwjgl.opengl.GL20.glDetachShader;
+import static org.lwjgl.opengl.GL20.glGetProgramInfoLog;
+import static org.lwjgl.opengl.GL20.glGetProgrami;
+import static org.lwjgl.opengl.GL20.glGetShaderInfoLog;
+import static org.lwjgl.opengl.GL20.glGetShaderi;
+import static org.lwjgl.opengl.GL20.glLinkProgram;
+import static org.lwjgl.opengl.GL20.glShaderSource;
+
+/**
+ * Utility class that provides for creation of shader programs from GLSL source files on the class-path.
+ */
+public final class ShaderProgram {
+
+    /**
+     * Create a shader program.
+     *
+     * @param vertexShader class-path resource name of the vertex shader source
+     * @param fragmentShader class-path resource name of the fragment shader source
+     * @return program id
+     */
+    public static int shaderProgram(String vertexShader, String fragmentShader) {
+        int vertexShaderId = compile(GL_VERTEX_SHADER, vertexShader);
+        int fragmentShaderId = compile(GL_FRAGMENT_SHADER, fragmentShader);
+        int programId = glCreateProgram();
+        glAttachShader(programId, vertexShaderId);
+        glAttachShader(programId, fragmentShaderId);
+        glLinkProgram(programId);
+        glDetachShader(programId, vertexShaderId);
+        glDetachShader(programId, fragmentShaderId);
+        glDeleteShader(vertexShaderId);
+        glDeleteShader(fragmentShaderId);
+        if (glGetProgrami(programId, GL_LINK_STATUS) == GL_FALSE) {
+            String log = glGetProgramInfoLog(programId);
+            glDeleteProgram(programId);
+            throw new RuntimeException("Failed to link shader program: " + log);
+        }
+        return programId;
+    }
+
+    private static int compile(int type, String resourceName) {
+        int shaderId = glCreateShader(type);
+        glShaderSource(shaderId, source(resourceName));
+        glCompileShader(shaderId);
+        if (glGetShaderi(shaderId, GL_COMPILE_STATUS) == GL_FALSE) {
+            String log = glGetShaderInfoLog(shaderId);
+            glDeleteShader(shaderId);
+            throw new RuntimeException("Failed to compile shader " + resourceName + ": " + log);
+        }
+        return shaderId;
+    }
+
+    private static String source(String resourceName) {
+        try (InputStream in = ShaderProgram.class.getResourceAsStream(resourceName)) {
+            if (in == null) {
+                throw new RuntimeException("Shader not found: " + resourceName);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read shader: " + resourceName, e);
+        }
+    }
+
+    private ShaderProgram() {}
+}
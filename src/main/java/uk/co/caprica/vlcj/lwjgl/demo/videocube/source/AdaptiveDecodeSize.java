@@ -0,0 +1,166 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.source;
+
+/**
+ * Chooses the size video is decoded at from how large it is drawn on screen, so that a small video surface does not
+ * cost a full resolution copy and upload every frame.
+ * <p>
+ * The render loop reports the on-screen size of the video each frame with {@link #update(float, float)}. This is
+ * turned into a scale factor that just covers the on-screen size, keeping the source aspect ratio and never going
+ * above the source size. When that scale has moved far enough from the scale currently negotiated - by more than the
+ * hysteresis factor either way - and the last renegotiation was long enough ago, the frame source is asked to
+ * renegotiate its buffer format, and sizes the new format with {@link #scale(int, int, int[])}.
+ * <p>
+ * The hysteresis stops a surface that is rotating, or being resized, from renegotiating over and over.
+ * <p>
+ * {@link #update(float, float)} is called on the render thread, everything else may be called from any thread.
+ */
+public final class AdaptiveDecodeSize {
+
+    /**
+     * Smallest size ever requested, in either dimension.
+     */
+    private static final int MINIMUM_SIZE = 16;
+
+    private final float hysteresis;
+
+    private final long minimumIntervalNanos;
+
+    /**
+     * Scale the next buffer format should use.
+     */
+    private volatile float targetScale = 1f;
+
+    /**
+     * Source size and scale from the most recent negotiation, zero until the first format.
+     */
+    private volatile int sourceWidth;
+
+    private volatile int sourceHeight;
+
+    private volatile float negotiatedScale;
+
+    private volatile int negotiatedWidth;
+
+    private volatile int negotiatedHeight;
+
+    /**
+     * Asks the frame source to renegotiate, null until a source supports it.
+     */
+    private volatile Runnable renegotiation;
+
+    private long lastRequest;
+
+    private long requestCount;
+
+    /**
+     * Create an adaptive decode size.
+     *
+     * @param hysteresis factor the wanted scale must grow or shrink by, relative to the negotiated scale, before
+     *                   renegotiating - greater than one
+     * @param minimumIntervalMillis minimum time between renegotiations, in milliseconds
+     */
+    public AdaptiveDecodeSize(float hysteresis, long minimumIntervalMillis) {
+        if (hysteresis <= 1) {
+            throw new IllegalArgumentException("Hysteresis must be greater than one");
+        }
+        this.hysteresis = hysteresis;
+        this.minimumIntervalNanos = minimumIntervalMillis * 1_000_000L;
+    }
+
+    /**
+     * Set how to ask the frame source to renegotiate its buffer format.
+     *
+     * @param renegotiation renegotiation request, must not block
+     */
+    public void setRenegotiation(Runnable renegotiation) {
+        this.renegotiation = renegotiation;
+    }
+
+    /**
+     * Report the size the video is drawn at, renegotiating if it has changed enough.
+     *
+     * @param screenWidth width of the video on screen, in pixels
+     * @param screenHeight height of the video on screen, in pixels
+     * @return <code>true</code> if a renegotiation was requested
+     */
+    public boolean update(float screenWidth, float screenHeight) {
+        Runnable renegotiation = this.renegotiation;
+        int width = sourceWidth;
+        int height = sourceHeight;
+        if (renegotiation == null || width == 0) {
+            return false;
+        }
+        float wanted = scaleFor(width, height, screenWidth, screenHeight);
+        float current = negotiatedScale;
+        float change = wanted > current ? wanted / current : current / wanted;
+        if (change <= hysteresis) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (lastRequest != 0 && now - lastRequest < minimumIntervalNanos) {
+            return false;
+        }
+        lastRequest = now;
+        requestCount++;
+        targetScale = wanted;
+        renegotiation.run();
+        return true;
+    }
+
+    /**
+     * Get the scale that just covers an on-screen size in both dimensions.
+     */
+    private static float scaleFor(int sourceWidth, int sourceHeight, float screenWidth, float screenHeight) {
+        float scale = Math.max(screenWidth / sourceWidth, screenHeight / sourceHeight);
+        float minimum = MINIMUM_SIZE / (float) Math.min(sourceWidth, sourceHeight);
+        return Math.min(1f, Math.max(minimum, scale));
+    }
+
+    /**
+     * Work out the buffer size for a source size at the current target scale, rounded to even dimensions for chroma
+     * subsampling.
+     * <p>
+     * The result is recorded as the negotiated size.
+     *
+     * @param sourceWidth source width
+     * @param sourceHeight source height
+     * @param result receives the width and height
+     */
+    public void scale(int sourceWidth, int sourceHeight, int[] result) {
+        float scale = targetScale;
+        int width = scale < 1f ? Math.max(2, Math.round(sourceWidth * scale / 2) * 2) : sourceWidth;
+        int height = scale < 1f ? Math.max(2, Math.round(sourceHeight * scale / 2) * 2) : sourceHeight;
+        this.negotiatedScale = scale;
+        this.negotiatedWidth = width;
+        this.negotiatedHeight = height;
+        this.sourceHeight = sourceHeight;
+        // Written last, update() reads it first
+        this.sourceWidth = sourceWidth;
+        result[0] = width;
+        result[1] = height;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AdaptiveDecodeSize[negotiated=%dx%d,renegotiations=%d]", negotiatedWidth, negotiatedHeight, requestCount);
+    }
+}
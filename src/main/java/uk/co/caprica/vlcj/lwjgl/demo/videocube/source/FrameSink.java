@@ -0,0 +1,67 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.source;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receives frames from a {@link FrameSource}, and hands them on to the texture upload pipeline.
+ * <p>
+ * Every method is invoked on the source's own thread, in the same order as vlcj's render callback - for each frame
+ * {@link #lock()} before it is decoded, {@link #unlock()} once it has been decoded, and then
+ * {@link #display(ByteBuffer[])} when it is due to be shown. A frame that is late may be unlocked and never displayed.
+ * <p>
+ * The frame data is only safe to consume in {@link #display(ByteBuffer[])} - lock and unlock may only be used to
+ * prepare for it, for example to claim somewhere to copy the frame to.
+ */
+public interface FrameSink {
+
+    /**
+     * Set the format of the frames that will follow.
+     * <p>
+     * Never invoked while a frame is being delivered.
+     *
+     * @param format frame format
+     */
+    void setFormat(FrameFormat format);
+
+    /**
+     * A new frame is about to be written.
+     */
+    default void lock() {
+    }
+
+    /**
+     * The frame has been written, but is not yet due to be displayed.
+     */
+    default void unlock() {
+    }
+
+    /**
+     * A complete frame is due to be displayed.
+     * <p>
+     * The buffers belong to the source, and are only valid until this method returns.
+     *
+     * @param planes one buffer for each plane of the frame, laid out as described by the current format
+     */
+    void display(ByteBuffer[] planes);
+}
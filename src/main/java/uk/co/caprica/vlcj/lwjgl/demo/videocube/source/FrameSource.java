@@ -0,0 +1,40 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.source;
+
+/**
+ * A producer of video frames, such as a media player, feeding the texture upload pipeline through a {@link FrameSink}.
+ * <p>
+ * Frames are delivered on a thread belonging to the source, never the render thread.
+ */
+public interface FrameSource {
+
+    /**
+     * Start delivering frames.
+     *
+     * @param sink sink to deliver frames to
+     */
+    void start(FrameSink sink);
+
+    /**
+     * Stop delivering frames - once this returns the sink will not be invoked again.
+     */
+    void stop();
+}
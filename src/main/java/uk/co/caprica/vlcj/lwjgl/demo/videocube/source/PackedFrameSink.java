@@ -0,0 +1,91 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.source;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.ParallelFrameCopy;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.VideoFrame;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Sink that copies each RV32 frame into the write buffer of a frame exchange of heap frames, and publishes it.
+ */
+public final class PackedFrameSink implements FrameSink {
+
+    private final FrameExchange<VideoFrame> frames;
+
+    private final ParallelFrameCopy copy;
+
+    private volatile FrameFormat format;
+
+    /**
+     * The source buffer the current view was created for - sources reuse their buffers, so the view is only recreated
+     * when the buffer changes.
+     */
+    private ByteBuffer viewedBuffer;
+
+    private IntBuffer view;
+
+    /**
+     * Create a sink.
+     *
+     * @param frames exchange to publish frames to
+     */
+    public PackedFrameSink(FrameExchange<VideoFrame> frames) {
+        this(frames, null);
+    }
+
+    /**
+     * Create a sink that copies large frames in parallel.
+     *
+     * @param frames exchange to publish frames to
+     * @param copy copy stage, or <code>null</code> to copy every frame on the decode thread alone
+     */
+    public PackedFrameSink(FrameExchange<VideoFrame> frames, ParallelFrameCopy copy) {
+        this.frames = frames;
+        this.copy = copy;
+        this.format = frames.writeBuffer().format();
+    }
+
+    @Override
+    public void setFormat(FrameFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public void display(ByteBuffer[] planes) {
+        if (planes[0] != viewedBuffer) {
+            viewedBuffer = planes[0];
+            view = viewedBuffer.asIntBuffer();
+        }
+        VideoFrame frame = frames.writeBuffer();
+        frame.setFormat(format);
+        if (copy != null) {
+            copy.copy(view, frame.pixels(), format.pixelCount(), format.height());
+        } else {
+            view.clear();
+            view.get(frame.pixels(), 0, format.pixelCount());
+        }
+        frames.publish();
+    }
+}
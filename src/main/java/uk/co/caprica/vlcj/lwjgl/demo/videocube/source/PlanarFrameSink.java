@@ -0,0 +1,77 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.source;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.ParallelFrameCopy;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.PlanarFrame;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Sink that copies each plane of a YUV frame into the write buffer of a frame exchange, and publishes it.
+ */
+public final class PlanarFrameSink implements FrameSink {
+
+    private final FrameExchange<PlanarFrame> frames;
+
+    private final ParallelFrameCopy copy;
+
+    private volatile FrameFormat format;
+
+    /**
+     * Create a sink.
+     *
+     * @param frames exchange to publish frames to
+     */
+    public PlanarFrameSink(FrameExchange<PlanarFrame> frames) {
+        this(frames, null);
+    }
+
+    /**
+     * Create a sink that copies large planes in parallel.
+     *
+     * @param frames exchange to publish frames to
+     * @param copy copy stage, or <code>null</code> to copy every plane on the decode thread alone
+     */
+    public PlanarFrameSink(FrameExchange<PlanarFrame> frames, ParallelFrameCopy copy) {
+        this.frames = frames;
+        this.copy = copy;
+        this.format = frames.writeBuffer().format();
+    }
+
+    @Override
+    public void setFormat(FrameFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public void display(ByteBuffer[] planes) {
+        PlanarFrame frame = frames.writeBuffer();
+        frame.setFormat(format);
+        if (copy != null) {
+            frame.copyFrom(planes, copy);
+        } else {
+            frame.copyFrom(planes);
+        }
+        frames.publish();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.source;
+
+import org.lwjgl.BufferUtils;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.Chroma;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.lwjgl.system.MemoryUtil.memAddress;
+import static org.lwjgl.system.MemoryUtil.memCopy;
+
+/**
+ * Frame source that generates a moving test pattern, for exercising the upload and render pipeline without LibVLC or
+ * any media - at any resolution and frame rate, in any of the supported pixel formats.
+ * <p>
+ * The pattern is a row of colour bars scrolling sideways, crossed by a white band moving downwards. Every row of the
+ * bars, and the band, are prepared once up front for each plane, so producing a frame is just a memory copy per row and
+ * nothing is allocated per frame.
+ * <p>
+ * Frames are delivered on a dedicated thread, paced to the requested frame rate. If the sink cannot keep up the source
+ * does not try to catch up with a burst of frames, it just carries on from the current time.
+ */
+public final class SyntheticFrameSource implements FrameSource {
+
+    /**
+     * Colour bars, as 0xRRGGBB - white, yellow, cyan, green, magenta, red, blue and black.
+     */
+    private static final int[] BARS = {0xFFFFFF, 0xFFFF00, 0x00FFFF, 0x00FF00, 0xFF00FF, 0xFF0000, 0x0000FF, 0x000000};
+
+    private static final int WHITE = 0xFFFFFF;
+
+    /**
+     * Seconds for the pattern to scroll through once, in each direction.
+     */
+    private static final double SCROLL_SECONDS = 4.0;
+
+    private final FrameFormat format;
+
+    private final long frameNanos;
+
+    private final ByteBuffer[] planes;
+
+    /**
+     * For each plane, a row of bars twice the width of the plane, so any scroll offset is a single contiguous copy.
+     */
+    private final ByteBuffer[] barRows;
+
+    /**
+     * For each plane, one row of the band.
+     */
+    private final ByteBuffer[] bandRows;
+
+    /**
+     * Pixels the bars move per frame, in the full size plane.
+     */
+    private final int horizontalSpeed;
+
+    /**
+     * Lines the band moves per frame, in the full size plane.
+     */
+    private final int verticalSpeed;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    /**
+     * Create a frame source.
+     *
+     * @param chroma pixel format of the frames
+     * @param width width of the frames
+     * @param height height of the frames
+     * @param framesPerSecond frame rate
+     */
+    public SyntheticFrameSource(Chroma chroma, int width, int height, double framesPerSecond) {
+        if (framesPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid frame rate " + framesPerSecond);
+        }
+        this.format = new FrameFormat(chroma, width, height);
+        this.frameNanos = (long) (1_000_000_000L / framesPerSecond);
+        this.horizontalSpeed = Math.max(1, (int) (width / (SCROLL_SECONDS * framesPerSecond)));
+        this.verticalSpeed = Math.max(1, (int) (height / (SCROLL_SECONDS * framesPerSecond)));
+        int planeCount = format.planeCount();
+        this.planes = new ByteBuffer[planeCount];
+        this.barRows = new ByteBuffer[planeCount];
+        this.bandRows = new ByteBuffer[planeCount];
+        for (int plane = 0; plane < planeCount; plane++) {
+            int planeWidth = chroma.planeWidth(plane, width);
+            planes[plane] = BufferUtils.createByteBuffer(format.planeSize(plane));
+            barRows[plane] = BufferUtils.createByteBuffer(planeWidth * chroma.bytesPerPixel(plane) * 2);
+            bandRows[plane] = BufferUtils.createByteBuffer(planeWidth * chroma.bytesPerPixel(plane));
+            for (int x = 0; x < planeWidth * 2; x++) {
+                putPixel(barRows[plane], chroma, plane, BARS[(x % planeWidth) * BARS.length / planeWidth]);
+            }
+            for (int x = 0; x < planeWidth; x++) {
+                putPixel(bandRows[plane], chroma, plane, WHITE);
+            }
+            barRows[plane].flip();
+            bandRows[plane].flip();
+        }
+    }
+
+    /**
+     * Append one pixel of a plane, converting from RGB as the pixel format requires.
+     * <p>
+     * The YUV formats use BT.601 limited range, the conversion the upload pipeline picks for standard definition.
+     */
+    private static void putPixel(ByteBuffer row, Chroma chroma, int plane, int rgb) {
+        double r = (rgb >> 16 & 0xFF) / 255.0;
+        double g = (rgb >> 8 & 0xFF) / 255.0;
+        double b = (rgb & 0xFF) / 255.0;
+        byte y = (byte) Math.round(16 + 65.481 * r + 128.553 * g + 24.966 * b);
+        byte u = (byte) Math.round(128 - 37.797 * r - 74.203 * g + 112.0 * b);
+        byte v = (byte) Math.round(128 + 112.0 * r - 93.786 * g - 18.214 * b);
+        switch (chroma) {
+            case RV32:
+                row.put((byte) rgb).put((byte) (rgb >> 8)).put((byte) (rgb >> 16)).put((byte) 0xFF);
+                break;
+            case I420:
+                row.put(plane == 0 ? y : plane == 1 ? u : v);
+                break;
+            case NV12:
+                if (plane == 0) {
+                    row.put(y);
+                } else {
+                    row.put(u).put(v);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported chroma " + chroma);
+        }
+    }
+
+    @Override
+    public void start(FrameSink sink) {
+        sink.setFormat(format);
+        running = true;
+        thread = new Thread(() -> run(sink), "synthetic-frame-source");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    private void run(FrameSink sink) {
+        long next = System.nanoTime();
+        for (long frame = 0; running; frame++) {
+            sink.lock();
+            draw(frame);
+            sink.unlock();
+            sink.display(planes);
+
+            next += frameNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else if (wait < -frameNanos) {
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Draw one frame of the pattern into the plane buffers.
+     *
+     * @param frame frame number
+     */
+    private void draw(long frame) {
+        int width = format.width();
+        int height = format.height();
+        int offset = (int) (frame * horizontalSpeed % width);
+        int bandTop = (int) (frame * verticalSpeed % height);
+        int bandHeight = Math.max(1, height / 16);
+        Chroma chroma = format.chroma();
+        for (int plane = 0; plane < planes.length; plane++) {
+            int planeWidth = chroma.planeWidth(plane, width);
+            int planeHeight = format.lines(plane);
+            int bytesPerPixel = chroma.bytesPerPixel(plane);
+            int rowBytes = planeWidth * bytesPerPixel;
+            int pitch = format.pitch(plane);
+            long target = memAddress(planes[plane]);
+            long bars = memAddress(barRows[plane]) + (long) offset * planeWidth / width * bytesPerPixel;
+            long band = memAddress(bandRows[plane]);
+            int planeBandTop = bandTop * planeHeight / height;
+            int planeBandBottom = planeBandTop + Math.max(1, bandHeight * planeHeight / height);
+            for (int line = 0; line < planeHeight; line++) {
+                // The band wraps around from the bottom to the top
+                int bandLine = line < planeBandTop ? line + planeHeight : line;
+                memCopy(bandLine < planeBandBottom ? band : bars, target + (long) line * pitch, rowBytes);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SyntheticFrameSource[format=%s,fps=%.2f]", format, 1_000_000_000.0 / frameNanos);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.source;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.Chroma;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+import uk.co.caprica.vlcj.player.embedded.videosurface.CallbackVideoSurface;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormatCallbackAdapter;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.RenderCallback;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Frame source that plays media with a vlcj media player, receiving each decoded frame through a callback video surface.
+ * <p>
+ * Frames are requested at the source size, in the given pixel format, and LibVLC is asked again for a new format
+ * whenever the source size changes mid-stream.
+ * <p>
+ * With an {@link AdaptiveDecodeSize}, frames are instead requested at the size it chooses, and LibVLC scales them down
+ * before they are delivered. To renegotiate, the video track is deselected and selected again, which restarts the
+ * video output and so asks for a new buffer format.
+ */
+public final class VlcjFrameSource implements FrameSource {
+
+    private final EmbeddedMediaPlayer mediaPlayer;
+
+    private final Chroma chroma;
+
+    private final String mrl;
+
+    private final AdaptiveDecodeSize decodeSize;
+
+    /**
+     * Create a frame source.
+     *
+     * @param mediaPlayer media player, not yet playing anything
+     * @param chroma pixel format to request
+     * @param mrl media to play
+     */
+    public VlcjFrameSource(EmbeddedMediaPlayer mediaPlayer, Chroma chroma, String mrl) {
+        this(mediaPlayer, chroma, mrl, null);
+    }
+
+    /**
+     * Create a frame source that decodes at a size chosen from the on-screen size.
+     *
+     * @param mediaPlayer media player, not yet playing anything
+     * @param chroma pixel format to request
+     * @param mrl media to play
+     * @param decodeSize chooses the decoded size, or <code>null</code> to always decode at the source size
+     */
+    public VlcjFrameSource(EmbeddedMediaPlayer mediaPlayer, Chroma chroma, String mrl, AdaptiveDecodeSize decodeSize) {
+        this.mediaPlayer = mediaPlayer;
+        this.chroma = chroma;
+        this.mrl = mrl;
+        this.decodeSize = decodeSize;
+    }
+
+    @Override
+    public void start(FrameSink sink) {
+        mediaPlayer.videoSurface().set(new CallbackVideoSurface(new SinkBufferFormatCallback(chroma, sink, decodeSize), new SinkRenderCallback(sink), true));
+        if (decodeSize != null) {
+            // Never block the caller, the media player runs the request on its own thread
+            decodeSize.setRenegotiation(() -> mediaPlayer.submit(this::restartVideoOutput));
+        }
+        mediaPlayer.media().play(mrl);
+    }
+
+    /**
+     * Restart the video output so that the buffer format is negotiated again - this is visible, the video blanks or
+     * stalls until the output has started again.
+     */
+    private void restartVideoOutput() {
+        int track = mediaPlayer.video().track();
+        if (track != -1) {
+            mediaPlayer.video().setTrack(-1);
+            mediaPlayer.video().setTrack(track);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (decodeSize != null) {
+            decodeSize.setRenegotiation(null);
+        }
+        mediaPlayer.controls().stop();
+    }
+
+    /**
+     * Buffer format callback that requests frames at the source size, or the adaptive size, and passes that format on
+     * to the sink.
+     */
+    private static class SinkBufferFormatCallback extends BufferFormatCallbackAdapter {
+
+        private final Chroma chroma;
+
+        private final FrameSink sink;
+
+        private final AdaptiveDecodeSize decodeSize;
+
+        private final int[] size = new int[2];
+
+        private SinkBufferFormatCallback(Chroma chroma, FrameSink sink, AdaptiveDecodeSize decodeSize) {
+            this.chroma = chroma;
+            this.sink = sink;
+            this.decodeSize = decodeSize;
+        }
+
+        @Override
+        public BufferFormat getBufferFormat(int sourceWidth, int sourceHeight) {
+            if (decodeSize != null) {
+                decodeSize.scale(sourceWidth, sourceHeight, size);
+            } else {
+                size[0] = sourceWidth;
+                size[1] = sourceHeight;
+            }
+            FrameFormat format = new FrameFormat(chroma, size[0], size[1]);
+            sink.setFormat(format);
+            return new BufferFormat(chroma.name(), size[0], size[1], format.pitches(), format.lines());
+        }
+    }
+
+    /**
+     * Render callback that passes each frame straight on to the sink, LibVLC decodes into the native buffers vlcj
+     * allocated for the current format.
+     */
+    private static class SinkRenderCallback implements RenderCallback {
+
+        private final FrameSink sink;
+
+        private SinkRenderCallback(FrameSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void lock(MediaPlayer mediaPlayer) {
+            sink.lock();
+        }
+
+        @Override
+        public void display(MediaPlayer mediaPlayer, ByteBuffer[] nativeBuffers, BufferFormat bufferFormat, int displayWidth, int displayHeight) {
+            sink.display(nativeBuffers);
+        }
+
+        @Override
+        public void unlock(MediaPlayer mediaPlayer) {
+            sink.unlock();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.textures;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.system.MemoryStack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Loads textures from image files without stalling the render loop.
+ * <p>
+ * A texture is created straight away showing a placeholder, the image is decoded on a pool of worker threads via an
+ * {@link ImageCache}, and the pixels are uploaded to the texture when the render loop next calls {@link #poll(IntConsumer)}.
+ * Loading the same file for several textures while it is being decoded only decodes it once.
+ * <p>
+ * Given a {@link CompressedTextureCache}, images are uploaded block-compressed with mipmaps instead of as plain RGBA.
+ * <p>
+ * Other than the constructor, methods must be called on the thread that has the OpenGL context current.
+ */
+public final class AsyncTextureLoader {
+
+    /**
+     * Placeholder colour, an opaque mid grey.
+     */
+    private static final byte PLACEHOLDER_GREY = (byte) 0x80;
+
+    private final ImageCache cache;
+
+    private final CompressedTextureCache compressedCache;
+
+    private final ExecutorService decoders;
+
+    /**
+     * Textures waiting for each file being decoded, only used on the render thread.
+     */
+    private final Map<Path, Pending> pending = new HashMap<>();
+
+    /**
+     * Decodes that have finished, handed over from the worker threads.
+     */
+    private final Queue<Decoded> decoded = new ConcurrentLinkedQueue<>();
+
+    private long uploads;
+
+    private long failures;
+
+    /**
+     * Texture memory used by the uploaded images, not counting the placeholders.
+     */
+    private long textureBytes;
+
+    /**
+     * Longest time from a load request to its texture being ready.
+     */
+    private long slowestNanos;
+
+    /**
+     * Create a loader.
+     *
+     * @param cache cache of decoded images
+     * @param threads number of worker threads to decode on
+     */
+    public AsyncTextureLoader(ImageCache cache, int threads) {
+        this(cache, null, threads);
+    }
+
+    /**
+     * Create a loader that uploads block-compressed images.
+     *
+     * @param cache cache of decoded images, used if a compressed image can not be produced
+     * @param compressedCache cache of compressed images, or <code>null</code> to upload plain RGBA
+     * @param threads number of worker threads to decode on
+     */
+    public AsyncTextureLoader(ImageCache cache, CompressedTextureCache compressedCache, int threads) {
+        this.cache = cache;
+        this.compressedCache = compressedCache;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.decoders = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "image-decoder-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a texture for an image file, showing the placeholder until the image has been decoded.
+     *
+     * @param filePath path to the image file
+     * @return texture id
+     */
+    public int load(String filePath) {
+        int textureId = GL11.glGenTextures();
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            ByteBuffer placeholder = stack.bytes(PLACEHOLDER_GREY, PLACEHOLDER_GREY, PLACEHOLDER_GREY, (byte) 0xff);
+            ImageFileTexture.upload(textureId, 1, 1, placeholder);
+        }
+        Path file = Paths.get(filePath);
+        Pending request = pending.get(file);
+        if (request == null) {
+            request = new Pending(System.nanoTime());
+            pending.put(file, request);
+            decoders.execute(() -> decode(file));
+        }
+        request.textureIds.add(textureId);
+        return textureId;
+    }
+
+    private void decode(Path file) {
+        if (compressedCache != null) {
+            try {
+                decoded.add(new Decoded(file, null, compressedCache.get(file)));
+                return;
+            } catch (IOException e) {
+                System.out.printf("Failed to compress texture, using it uncompressed: %s%n", e.getMessage());
+            }
+        }
+        try {
+            decoded.add(new Decoded(file, cache.get(file), null));
+        } catch (IOException e) {
+            System.out.printf("Failed to load texture: %s%n", e.getMessage());
+            decoded.add(new Decoded(file, null, null));
+        }
+    }
+
+    /**
+     * Upload any images that have finished decoding to their textures.
+     *
+     * @param uploaded notified with the id of each texture whose contents changed
+     */
+    public void poll(IntConsumer uploaded) {
+        Decoded each;
+        while ((each = decoded.poll()) != null) {
+            Pending request = pending.remove(each.file);
+            if (each.image == null && each.compressed == null) {
+                failures++;
+                continue;
+            }
+            for (int textureId : request.textureIds) {
+                if (each.compressed != null) {
+                    ImageFileTexture.upload(textureId, each.compressed);
+                    textureBytes += each.compressed.size();
+                } else {
+                    ImageFileTexture.upload(textureId, each.image.width(), each.image.height(), each.image.pixels());
+                    textureBytes += each.image.size();
+                }
+                uploads++;
+                uploaded.accept(textureId);
+            }
+            slowestNanos = Math.max(slowestNanos, System.nanoTime() - request.requested);
+            if (each.image != null) {
+                each.image.release();
+            }
+        }
+    }
+
+    /**
+     * Stop the worker threads and release any decoded images that were never uploaded - the textures themselves belong
+     * to the caller.
+     */
+    public void free() {
+        decoders.shutdownNow();
+        try {
+            decoders.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Decoded each;
+        while ((each = decoded.poll()) != null) {
+            if (each.image != null) {
+                each.image.release();
+            }
+        }
+        pending.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AsyncTextureLoader[pending=%d,uploads=%d,failures=%d,textureBytes=%d,slowestMillis=%.2f,cache=%s,compressedCache=%s]", pending.size(), uploads, failures, textureBytes, slowestNanos / 1_000_000.0, cache, compressedCache);
+    }
+
+    private static final class Pending {
+
+        private final long requested;
+
+        private final List<Integer> textureIds = new ArrayList<>(1);
+
+        private Pending(long requested) {
+            this.requested = requested;
+        }
+    }
+
+    private static final class Decoded {
+
+        private final Path file;
+
+        private final DecodedImage image;
+
+        private final CompressedImage compressed;
+
+        private Decoded(Path file, DecodedImage image, CompressedImage compressed) {
+            this.file = file;
+            this.image = image;
+            this.compressed = compressed;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.textures;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A block-compressed image with its complete chain of mipmaps, ready for upload with glCompressedTexImage2D.
+ */
+public final class CompressedImage {
+
+    private final int internalFormat;
+
+    private final int[] widths;
+
+    private final int[] heights;
+
+    private final ByteBuffer[] levels;
+
+    CompressedImage(int internalFormat, int[] widths, int[] heights, ByteBuffer[] levels) {
+        this.internalFormat = internalFormat;
+        this.widths = widths;
+        this.heights = heights;
+        this.levels = levels;
+    }
+
+    /**
+     * Get the compressed OpenGL internal format.
+     *
+     * @return internal format, one of the S3TC formats
+     */
+    public int internalFormat() {
+        return internalFormat;
+    }
+
+    public int levelCount() {
+        return levels.length;
+    }
+
+    public int width(int level) {
+        return widths[level];
+    }
+
+    public int height(int level) {
+        return heights[level];
+    }
+
+    /**
+     * Get the compressed blocks of a mipmap level.
+     *
+     * @param level mipmap level, zero for the full size image
+     * @return blocks
+     */
+    public ByteBuffer level(int level) {
+        return levels[level];
+    }
+
+    /**
+     * Get the texture memory needed for all the mipmap levels.
+     *
+     * @return size, in bytes
+     */
+    public long size() {
+        long size = 0;
+        for (ByteBuffer level : levels) {
+            size += level.remaining();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.textures;
+
+import org.lwjgl.stb.STBDXT;
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.system.MemoryStack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.lwjgl.opengl.EXTTextureCompressionS3TC.GL_COMPRESSED_RGBA_S3TC_DXT5_EXT;
+import static org.lwjgl.opengl.EXTTextureCompressionS3TC.GL_COMPRESSED_RGB_S3TC_DXT1_EXT;
+import static org.lwjgl.system.MemoryUtil.memAddress;
+
+/**
+ * An on-disk cache of images transcoded to S3TC block compression with precomputed mipmaps.
+ * <p>
+ * The first time an image is seen it is decoded, its mipmaps are built with a box filter, and every level is compressed
+ * with stb_dxt - to BC1 if the image is opaque, otherwise BC3. The result is written to the cache directory under the
+ * SHA-256 hash of the image file's contents, so renaming or touching a file does not invalidate it but editing it does.
+ * Later loads just map the cached file, there is no decode at all.
+ * <p>
+ * A compressed texture with all its mipmaps takes a sixth (BC1) or a third (BC3) of the texture memory of the
+ * uncompressed image on its own.
+ * <p>
+ * The cache may be used from any thread.
+ */
+public final class CompressedTextureCache {
+
+    /**
+     * "VLCJDXT1" in little-endian order.
+     */
+    private static final long MAGIC = 0x315458444A434C56L;
+
+    /**
+     * Bump whenever the file layout or the transcoding changes, so older cache files are transcoded again.
+     */
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 24;
+
+    private static final int LEVEL_ENTRY_SIZE = 12;
+
+    private final Path directory;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder transcodes = new LongAdder();
+
+    /**
+     * Create a cache.
+     *
+     * @param directory directory to keep the compressed images in, created if necessary
+     * @throws IOException if the directory can not be created
+     */
+    public CompressedTextureCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Get the compressed image for an image file, transcoding it if it is not in the cache.
+     *
+     * @param file image file
+     * @return compressed image
+     * @throws IOException if the file can not be read, decoded or cached
+     */
+    public CompressedImage get(Path file) throws IOException {
+        ByteBuffer encoded;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            encoded = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        Path cached = directory.resolve(contentHash(encoded) + ".dxt");
+        if (Files.exists(cached)) {
+            CompressedImage image = read(cached);
+            if (image != null) {
+                hits.increment();
+                return image;
+            }
+        }
+        transcode(file, encoded, cached);
+        transcodes.increment();
+        CompressedImage image = read(cached);
+        if (image == null) {
+            throw new IOException("Failed to read back compressed image " + cached);
+        }
+        return image;
+    }
+
+    private static String contentHash(ByteBuffer encoded) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(encoded.duplicate());
+            StringBuilder hash = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hash.append(String.format("%02x", b & 0xff));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Map a cached file.
+     *
+     * @param cached cache file
+     * @return compressed image, or <code>null</code> if the file was written by a different version
+     * @throws IOException if the file can not be read
+     */
+    private static CompressedImage read(Path cached) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(cached, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (mapped.limit() < HEADER_SIZE || mapped.getLong(0) != MAGIC || mapped.getInt(8) != VERSION) {
+            return null;
+        }
+        int internalFormat = mapped.getInt(12);
+        int levelCount = mapped.getInt(16);
+        int[] widths = new int[levelCount];
+        int[] heights = new int[levelCount];
+        ByteBuffer[] levels = new ByteBuffer[levelCount];
+        int position = HEADER_SIZE + levelCount * LEVEL_ENTRY_SIZE;
+        for (int level = 0; level < levelCount; level++) {
+            int entry = HEADER_SIZE + level * LEVEL_ENTRY_SIZE;
+            widths[level] = mapped.getInt(entry);
+            heights[level] = mapped.getInt(entry + 4);
+            int size = mapped.getInt(entry + 8);
+            levels[level] = mapped.duplicate().position(position).limit(position + size).slice();
+            position += size;
+        }
+        return new CompressedImage(internalFormat, widths, heights, levels);
+    }
+
+    private void transcode(Path file, ByteBuffer encoded, Path cached) throws IOException {
+        int width, height;
+        byte[] pixels;
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer widthBuffer = stack.mallocInt(1);
+            IntBuffer heightBuffer = stack.mallocInt(1);
+            IntBuffer channelsBuffer = stack.mallocInt(1);
+            ByteBuffer decoded = STBImage.stbi_load_from_memory(encoded, widthBuffer, heightBuffer, channelsBuffer, 4);
+            if (decoded == null) {
+                throw new IOException("Failed to decode " + file + ": " + STBImage.stbi_failure_reason());
+            }
+            width = widthBuffer.get(0);
+            height = heightBuffer.get(0);
+            pixels = new byte[width * height * 4];
+            // Read through a duplicate, the buffer freed must still be at position zero
+            decoded.duplicate().get(pixels);
+            STBImage.stbi_image_free(decoded);
+        }
+        boolean alpha = hasAlpha(pixels);
+        int blockSize = alpha ? 16 : 8;
+        int levelCount = 32 - Integer.numberOfLeadingZeros(Math.max(width, height));
+
+        int[] widths = new int[levelCount];
+        int[] heights = new int[levelCount];
+        byte[][] levelPixels = new byte[levelCount][];
+        long dataSize = 0;
+        for (int level = 0; level < levelCount; level++) {
+            widths[level] = width;
+            heights[level] = height;
+            levelPixels[level] = pixels;
+            dataSize += (long) blockCount(width) * blockCount(height) * blockSize;
+            if (level + 1 < levelCount) {
+                pixels = downsample(pixels, width, height);
+                width = Math.max(1, width / 2);
+                height = Math.max(1, height / 2);
+            }
+        }
+
+        ByteBuffer out = ByteBuffer.allocateDirect(Math.toIntExact(HEADER_SIZE + levelCount * LEVEL_ENTRY_SIZE + dataSize)).order(ByteOrder.LITTLE_ENDIAN);
+        out.putLong(MAGIC).putInt(VERSION).putInt(alpha ? GL_COMPRESSED_RGBA_S3TC_DXT5_EXT : GL_COMPRESSED_RGB_S3TC_DXT1_EXT).putInt(levelCount).putInt(0);
+        for (int level = 0; level < levelCount; level++) {
+            out.putInt(widths[level]).putInt(heights[level]).putInt(blockCount(widths[level]) * blockCount(heights[level]) * blockSize);
+        }
+        ByteBuffer block = ByteBuffer.allocateDirect(64);
+        for (int level = 0; level < levelCount; level++) {
+            compress(levelPixels[level], widths[level], heights[level], alpha, block, out);
+        }
+        out.flip();
+
+        // Write to a temporary file first, so a concurrent reader never sees half a file
+        Path temporary = Files.createTempFile(directory, "transcode", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+            }
+            Files.move(temporary, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static boolean hasAlpha(byte[] pixels) {
+        for (int i = 3; i < pixels.length; i += 4) {
+            if (pixels[i] != (byte) 0xff) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int blockCount(int size) {
+        return (size + 3) / 4;
+    }
+
+    /**
+     * Halve an image in each dimension with a box filter, a dimension of one stays at one.
+     *
+     * @param pixels RGBA pixels
+     * @param width image width
+     * @param height image height
+     * @return RGBA pixels of the smaller image
+     */
+    private static byte[] downsample(byte[] pixels, int width, int height) {
+        int targetWidth = Math.max(1, width / 2);
+        int targetHeight = Math.max(1, height / 2);
+        byte[] target = new byte[targetWidth * targetHeight * 4];
+        for (int y = 0; y < targetHeight; y++) {
+            int y0 = Math.min(y * 2, height - 1);
+            int y1 = Math.min(y * 2 + 1, height - 1);
+            for (int x = 0; x < targetWidth; x++) {
+                int x0 = Math.min(x * 2, width - 1);
+                int x1 = Math.min(x * 2 + 1, width - 1);
+                for (int c = 0; c < 4; c++) {
+                    int sum = (pixels[(y0 * width + x0) * 4 + c] & 0xff)
+                        + (pixels[(y0 * width + x1) * 4 + c] & 0xff)
+                        + (pixels[(y1 * width + x0) * 4 + c] & 0xff)
+                        + (pixels[(y1 * width + x1) * 4 + c] & 0xff);
+                    target[(y * targetWidth + x) * 4 + c] = (byte) ((sum + 2) >> 2);
+                }
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Compress one mipmap level, appending the blocks to the output buffer.
+     * <p>
+     * Blocks hanging over the right or bottom edge repeat the edge pixels.
+     */
+    private static void compress(byte[] pixels, int width, int height, boolean alpha, ByteBuffer block, ByteBuffer out) {
+        long blockAddress = memAddress(block);
+        int blockSize = alpha ? 16 : 8;
+        for (int by = 0; by < height; by += 4) {
+            for (int bx = 0; bx < width; bx += 4) {
+                block.clear();
+                for (int y = 0; y < 4; y++) {
+                    int row = Math.min(by + y, height - 1) * width;
+                    for (int x = 0; x < 4; x++) {
+                        block.put(pixels, (row + Math.min(bx + x, width - 1)) * 4, 4);
+                    }
+                }
+                STBDXT.nstb_compress_dxt_block(memAddress(out), blockAddress, alpha ? 1 : 0, STBDXT.STB_DXT_HIGHQUAL);
+                out.position(out.position() + blockSize);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompressedTextureCache[directory=%s,hits=%d,transcodes=%d]", directory, hits.sum(), transcodes.sum());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.textures;
+
+import org.lwjgl.stb.STBImage;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pixels of a decoded image, as tightly packed RGBA, held in memory allocated by STB.
+ * <p>
+ * An image may be shared between the cache and any number of pending uploads, so it is reference counted - the pixels
+ * are freed when the last reference is released.
+ */
+public final class DecodedImage {
+
+    private final ByteBuffer pixels;
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * The creator holds the first reference.
+     */
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    DecodedImage(ByteBuffer pixels, int width, int height) {
+        this.pixels = pixels;
+        this.width = width;
+        this.height = height;
+    }
+
+    public ByteBuffer pixels() {
+        return pixels;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Get the size of the pixels.
+     *
+     * @return size, in bytes
+     */
+    public long size() {
+        return (long) width * height * 4;
+    }
+
+    /**
+     * Take another reference to the image.
+     *
+     * @return this image
+     */
+    public DecodedImage retain() {
+        references.incrementAndGet();
+        return this;
+    }
+
+    /**
+     * Release a reference to the image, freeing the pixels if it was the last one.
+     */
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            STBImage.stbi_image_free(pixels);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.textures;
+
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.system.MemoryStack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A size-bounded cache of decoded images, keyed by file path and modification time, so the same file is only decoded
+ * once however many textures show it, and is decoded again if the file changes.
+ * <p>
+ * Files are decoded straight from a read-only memory mapping, with no intermediate copy on the Java heap.
+ * <p>
+ * When the decoded images no longer fit, the least recently used ones are evicted. An image that is larger than the
+ * whole cache is still returned, it is just not kept, and nothing is evicted to make room for it.
+ * <p>
+ * The cache may be used from any thread.
+ */
+public final class ImageCache {
+
+    private final long maximumSize;
+
+    private final LinkedHashMap<Key, DecodedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    /**
+     * Create a cache.
+     *
+     * @param maximumSize maximum total size of the decoded images to keep, in bytes
+     */
+    public ImageCache(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Get the decoded image for a file, decoding it if it is not in the cache.
+     * <p>
+     * The caller owns a reference to the returned image, and must {@link DecodedImage#release()} it when done.
+     * <p>
+     * The decode happens on the calling thread, without holding the cache lock.
+     *
+     * @param file image file
+     * @return decoded image
+     * @throws IOException if the file can not be read or decoded
+     */
+    public DecodedImage get(Path file) throws IOException {
+        Key key = new Key(file.toAbsolutePath().normalize(), Files.getLastModifiedTime(file).toMillis());
+        synchronized (this) {
+            DecodedImage image = images.get(key);
+            if (image != null) {
+                hits++;
+                return image.retain();
+            }
+            misses++;
+        }
+        DecodedImage image = decode(file);
+        if (image.size() > maximumSize) {
+            // Caching it would only flush every other image out before evicting this one too
+            return image;
+        }
+        synchronized (this) {
+            // Another thread may have decoded the same file meanwhile, the last one in wins
+            DecodedImage previous = images.put(key, image.retain());
+            if (previous != null) {
+                size -= previous.size();
+                previous.release();
+            }
+            size += image.size();
+            evict();
+        }
+        return image;
+    }
+
+    private void evict() {
+        Iterator<DecodedImage> eldest = images.values().iterator();
+        while (size > maximumSize && eldest.hasNext()) {
+            DecodedImage image = eldest.next();
+            eldest.remove();
+            size -= image.size();
+            image.release();
+            evictions++;
+        }
+    }
+
+    private static DecodedImage decode(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer encoded = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try (MemoryStack stack = MemoryStack.stackPush()) {
+                IntBuffer width = stack.mallocInt(1);
+                IntBuffer height = stack.mallocInt(1);
+                IntBuffer channels = stack.mallocInt(1);
+                ByteBuffer pixels = STBImage.stbi_load_from_memory(encoded, width, height, channels, 4);
+                if (pixels == null) {
+                    throw new IOException("Failed to decode " + file + ": " + STBImage.stbi_failure_reason());
+                }
+                return new DecodedImage(pixels, width.get(0), height.get(0));
+            }
+        }
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    /**
+     * Release every image in the cache - images still referenced elsewhere are freed when those references are
+     * released.
+     */
+    public synchronized void free() {
+        images.values().forEach(DecodedImage::release);
+        images.clear();
+        size = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ImageCache[images=%d,size=%d,maximumSize=%d,hits=%d,misses=%d,evictions=%d]", images.size(), size, maximumSize, hits, misses, evictions);
+    }
+
+    private static final class Key {
+
+        private final Path file;
+
+        private final long lastModified;
+
+        private Key(Path file, long lastModified) {
+            this.file = file;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return lastModified == key.lastModified && file.equals(key.file);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, lastModified);
+        }
+    }
+}
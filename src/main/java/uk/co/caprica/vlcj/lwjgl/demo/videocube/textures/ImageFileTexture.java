@@ -20,15 +20,20 @@
 package uk.co.caprica.vlcj.lwjgl.demo.videocube.textures;
 
 import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
 import org.lwjgl.opengl.GL13;
 import org.lwjgl.stb.STBImage;
 import org.lwjgl.system.MemoryStack;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
+import java.nio.file.Paths;
 
 /**
  * Utility class that provides for generation of textures from image files.
+ * <p>
+ * The image is decoded on the calling thread, see {@link AsyncTextureLoader} to decode in the background instead.
  */
 public final class ImageFileTexture {
 
@@ -55,15 +60,67 @@ public final class ImageFileTexture {
             height = heightBuffer.get();
         }
         int textureId = GL11.glGenTextures();
+        upload(textureId, width, height, imageBuffer);
+        STBImage.stbi_image_free(imageBuffer);
+        return textureId;
+    }
+
+    /**
+     * Create a texture from an image file, via a cache of block-compressed images.
+     * <p>
+     * Requires EXT_texture_compression_s3tc.
+     *
+     * @param filePath path to the image file
+     * @param cache compressed image cache
+     * @return texture id
+     */
+    public static int imageFileTexture(String filePath, CompressedTextureCache cache) {
+        CompressedImage image;
+        try {
+            image = cache.get(Paths.get(filePath));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load texture: " + e.getMessage(), e);
+        }
+        int textureId = GL11.glGenTextures();
+        upload(textureId, image);
+        return textureId;
+    }
+
+    /**
+     * Replace the contents of a texture with an image.
+     *
+     * @param textureId texture to upload to
+     * @param width image width
+     * @param height image height
+     * @param pixels tightly packed RGBA pixels
+     */
+    static void upload(int textureId, int width, int height, ByteBuffer pixels) {
         GL13.glActiveTexture(GL13.GL_TEXTURE0);
         GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
-        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, width, height, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, imageBuffer);
+        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, width, height, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, pixels);
         GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
         GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
         GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
         GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
-        STBImage.stbi_image_free(imageBuffer);
-        return textureId;
+    }
+
+    /**
+     * Replace the contents of a texture with a compressed image and its mipmaps.
+     *
+     * @param textureId texture to upload to
+     * @param image compressed image
+     */
+    static void upload(int textureId, CompressedImage image) {
+        GL13.glActiveTexture(GL13.GL_TEXTURE0);
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
+        for (int level = 0; level < image.levelCount(); level++) {
+            GL13.glCompressedTexImage2D(GL11.GL_TEXTURE_2D, level, image.internalFormat(), image.width(level), image.height(level), 0, image.level(level));
+        }
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL12.GL_TEXTURE_MAX_LEVEL, image.levelCount() - 1);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
     }
 
     private ImageFileTexture() {}
@@ -0,0 +1,192 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.textures;
+
+import org.lwjgl.opengl.GL11;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL11.GL_RGBA;
+import static org.lwjgl.opengl.GL11.GL_RGBA8;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL11.glTexImage2D;
+import static org.lwjgl.opengl.GL12.GL_TEXTURE_MAX_LEVEL;
+import static org.lwjgl.opengl.GL30.glGenerateMipmap;
+
+/**
+ * A texture for video frames, whose storage can be reallocated when the video size changes.
+ * <p>
+ * The storage is mutable so that the texture id stays the same across reallocations - anything already rendering with
+ * this texture does not need to know the size changed.
+ * <p>
+ * Storage is allocated for a full chain of mipmaps, but they are only generated, and sampled, while the texture is
+ * drawn minified - see {@link #mipmapsDue(boolean, boolean)}. Otherwise only the base level is sampled, so the
+ * texture is always complete.
+ */
+public final class VideoTexture {
+
+    private final int textureId;
+
+    private int width;
+
+    private int height;
+
+    private int reallocationCount;
+
+    /**
+     * Whether the mipmaps are currently being sampled.
+     */
+    private boolean mipmapped;
+
+    private long mipmapGenerationCount;
+
+    private long mipmapSkipCount;
+
+    /**
+     * Create a video texture, initially a single opaque black pixel until the first frame arrives.
+     */
+    public VideoTexture() {
+        textureId = GL11.glGenTextures();
+        glBindTexture(GL_TEXTURE_2D, textureId);
+        GL11.glTexParameteri(GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
+        GL11.glTexParameteri(GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
+        GL11.glTexParameteri(GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAX_LEVEL, 0);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, 1, 1, 0, GL_RGBA, GL_UNSIGNED_BYTE, new int[] {0xFF000000});
+        width = 1;
+        height = 1;
+    }
+
+    /**
+     * Make sure the texture storage matches the given size, reallocating it only if the size has changed.
+     * <p>
+     * The texture is left bound.
+     *
+     * @param width required width, in pixels
+     * @param height required height, in pixels
+     * @return <code>true</code> if the storage was reallocated; <code>false</code> if it was reused
+     */
+    public boolean allocate(int width, int height) {
+        glBindTexture(GL_TEXTURE_2D, textureId);
+        if (width == this.width && height == this.height) {
+            return false;
+        }
+        int levels = levelCount(width, height);
+        for (int level = 0; level < levels; level++) {
+            glTexImage2D(GL_TEXTURE_2D, level, GL_RGBA8, Math.max(1, width >> level), Math.max(1, height >> level), 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        }
+        if (mipmapped) {
+            GL11.glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAX_LEVEL, levels - 1);
+        }
+        this.width = width;
+        this.height = height;
+        reallocationCount++;
+        return true;
+    }
+
+    /**
+     * Check whether the mipmaps need to be generated before the texture is next drawn, sampling only the base level
+     * while the texture is not drawn minified.
+     * <p>
+     * Mipmaps are due when the base level has changed, or when the texture has just become minified - when it is not
+     * minified generating them would be wasted work, since nothing samples them.
+     * <p>
+     * The texture is left bound.
+     *
+     * @param baseLevelChanged <code>true</code> if a new frame was uploaded since the mipmaps were last generated
+     * @param minified <code>true</code> if the texture is drawn minified
+     * @return <code>true</code> if {@link #generateMipmaps()} should be called
+     */
+    public boolean mipmapsDue(boolean baseLevelChanged, boolean minified) {
+        glBindTexture(GL_TEXTURE_2D, textureId);
+        if (!minified) {
+            if (mipmapped) {
+                GL11.glTexParameteri(GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+                GL11.glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAX_LEVEL, 0);
+                mipmapped = false;
+            }
+            if (baseLevelChanged) {
+                mipmapSkipCount++;
+            }
+            return false;
+        }
+        return !mipmapped || baseLevelChanged;
+    }
+
+    /**
+     * Generate the mipmaps from the base level, and sample them from now on.
+     * <p>
+     * Requires OpenGL 3.0. The texture is left bound.
+     */
+    public void generateMipmaps() {
+        glBindTexture(GL_TEXTURE_2D, textureId);
+        if (!mipmapped) {
+            GL11.glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAX_LEVEL, levelCount(width, height) - 1);
+            GL11.glTexParameteri(GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
+            mipmapped = true;
+        }
+        glGenerateMipmap(GL_TEXTURE_2D);
+        mipmapGenerationCount++;
+    }
+
+    /**
+     * Get the number of levels in a full chain of mipmaps.
+     *
+     * @param width base level width
+     * @param height base level height
+     * @return number of levels, including the base level
+     */
+    public static int levelCount(int width, int height) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, Math.max(width, height)));
+    }
+
+    public int id() {
+        return textureId;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Get the number of times the storage has been reallocated.
+     *
+     * @return reallocation count
+     */
+    public int reallocationCount() {
+        return reallocationCount;
+    }
+
+    public void free() {
+        GL11.glDeleteTextures(textureId);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("VideoTexture[id=%d,size=%dx%d,reallocations=%d,mipmapGenerations=%d,mipmapSkips=%d]", textureId, width, height, reallocationCount, mipmapGenerationCount, mipmapSkipCount);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.timing;
+
+/**
+ * Measures the CPU time spent in a section of code, accumulating the average and worst case over many samples.
+ * <p>
+ * This is wall-clock time on the calling thread - for OpenGL calls it measures the cost of submitting the commands,
+ * not of executing them on the GPU.
+ * <p>
+ * A timer must only be used from a single thread.
+ */
+public final class CpuTimer {
+
+    private final String name;
+
+    private long startTime;
+
+    private long count;
+
+    private long total;
+
+    private long max;
+
+    /**
+     * Create a timer.
+     *
+     * @param name name used when reporting
+     */
+    public CpuTimer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Start timing a sample.
+     */
+    public void start() {
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Finish timing a sample.
+     *
+     * @return elapsed time of this sample, in nanoseconds
+     */
+    public long stop() {
+        long elapsed = System.nanoTime() - startTime;
+        count++;
+        total += elapsed;
+        if (elapsed > max) {
+            max = elapsed;
+        }
+        return elapsed;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Get the average time per sample.
+     *
+     * @return average, in milliseconds
+     */
+    public double averageMillis() {
+        return count > 0 ? total / (double) count / 1_000_000.0 : 0.0;
+    }
+
+    /**
+     * Get the longest time for a single sample.
+     *
+     * @return maximum, in milliseconds
+     */
+    public double maxMillis() {
+        return max / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d samples, average %.3f ms, max %.3f ms", name, count, averageMillis(), maxMillis());
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.timing;
+
+import static org.lwjgl.opengl.GL15.GL_QUERY_RESULT;
+import static org.lwjgl.opengl.GL15.GL_QUERY_RESULT_AVAILABLE;
+import static org.lwjgl.opengl.GL15.glDeleteQueries;
+import static org.lwjgl.opengl.GL15.glGenQueries;
+import static org.lwjgl.opengl.GL15.glGetQueryObjecti;
+import static org.lwjgl.opengl.GL33.GL_TIMESTAMP;
+import static org.lwjgl.opengl.GL33.glGetQueryObjecti64;
+import static org.lwjgl.opengl.GL33.glQueryCounter;
+
+/**
+ * Measures the GPU time spent in each stage of a frame, accumulating the average and worst case over many frames.
+ * <p>
+ * A timestamp query is issued at the start of the frame and at the end of each stage, and a stage's time is the
+ * difference between consecutive timestamps. Results are read back a frame or two later, and only once the GPU reports
+ * them available, so timing never stalls the pipeline - if every set of queries is still waiting for its results the
+ * frame is simply not timed.
+ * <p>
+ * Must be created, used and freed with the same OpenGL context current. Requires OpenGL 3.3.
+ */
+public final class GpuStageTimer {
+
+    /**
+     * Number of frames that can have queries outstanding at the same time.
+     */
+    private static final int FRAMES_IN_FLIGHT = 3;
+
+    private final String[] stages;
+
+    /**
+     * Query objects for each frame in flight, one for the start of the frame and one for the end of each stage.
+     */
+    private final int[][] queries = new int[FRAMES_IN_FLIGHT][];
+
+    private final long[] total;
+
+    private final long[] max;
+
+    /**
+     * Number of frames whose queries have been issued.
+     */
+    private long issued;
+
+    /**
+     * Number of frames whose results have been read back.
+     */
+    private long collected;
+
+    /**
+     * Number of frames not timed because no set of queries was free.
+     */
+    private long skipped;
+
+    /**
+     * Next timestamp to issue in the current frame, or -1 if the current frame is not being timed.
+     */
+    private int mark = -1;
+
+    /**
+     * Create a timer.
+     *
+     * @param stages names of the stages timed in each frame, in order
+     */
+    public GpuStageTimer(String... stages) {
+        this.stages = stages.clone();
+        this.total = new long[stages.length];
+        this.max = new long[stages.length];
+        for (int i = 0; i < FRAMES_IN_FLIGHT; i++) {
+            queries[i] = new int[stages.length + 1];
+            glGenQueries(queries[i]);
+        }
+    }
+
+    /**
+     * Start timing a frame, first collecting the results of any earlier frames that are available.
+     */
+    public void frameStart() {
+        collect();
+        if (issued - collected == FRAMES_IN_FLIGHT) {
+            mark = -1;
+            skipped++;
+            return;
+        }
+        glQueryCounter(queries[(int) (issued % FRAMES_IN_FLIGHT)][0], GL_TIMESTAMP);
+        mark = 1;
+    }
+
+    /**
+     * Mark the end of the next stage in the current frame - must be called once for each stage, in order.
+     */
+    public void stageEnd() {
+        if (mark < 0) {
+            return;
+        }
+        int[] frame = queries[(int) (issued % FRAMES_IN_FLIGHT)];
+        glQueryCounter(frame[mark++], GL_TIMESTAMP);
+        if (mark == frame.length) {
+            issued++;
+            mark = -1;
+        }
+    }
+
+    /**
+     * Read back the results of completed frames, oldest first, stopping at the first frame still in progress.
+     */
+    private void collect() {
+        while (collected < issued) {
+            int[] frame = queries[(int) (collected % FRAMES_IN_FLIGHT)];
+            // Timestamps complete in order, so if the last one is available so are all the others
+            if (glGetQueryObjecti(frame[frame.length - 1], GL_QUERY_RESULT_AVAILABLE) == 0) {
+                return;
+            }
+            long previous = glGetQueryObjecti64(frame[0], GL_QUERY_RESULT);
+            for (int stage = 0; stage < stages.length; stage++) {
+                long timestamp = glGetQueryObjecti64(frame[stage + 1], GL_QUERY_RESULT);
+                long elapsed = timestamp - previous;
+                total[stage] += elapsed;
+                if (elapsed > max[stage]) {
+                    max[stage] = elapsed;
+                }
+                previous = timestamp;
+            }
+            collected++;
+        }
+    }
+
+    public int stageCount() {
+        return stages.length;
+    }
+
+    public String stageName(int stage) {
+        return stages[stage];
+    }
+
+    /**
+     * Get the number of frames timed so far.
+     *
+     * @return number of frames with results read back
+     */
+    public long count() {
+        return collected;
+    }
+
+    /**
+     * Get the average GPU time of a stage.
+     *
+     * @param stage index of the stage
+     * @return average, in milliseconds
+     */
+    public double averageMillis(int stage) {
+        return collected > 0 ? total[stage] / (double) collected / 1_000_000.0 : 0.0;
+    }
+
+    /**
+     * Get the longest GPU time of a stage in a single frame.
+     *
+     * @param stage index of the stage
+     * @return maximum, in milliseconds
+     */
+    public double maxMillis(int stage) {
+        return max[stage] / 1_000_000.0;
+    }
+
+    public void free() {
+        for (int[] frame : queries) {
+            glDeleteQueries(frame);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(100);
+        sb.append(String.format("GPU: %d frames, %d skipped", collected, skipped));
+        for (int stage = 0; stage < stages.length; stage++) {
+            sb.append(String.format(", %s average %.3f ms max %.3f ms", stages[stage], averageMillis(stage), maxMillis(stage)));
+        }
+        return sb.toString();
+    }
+}
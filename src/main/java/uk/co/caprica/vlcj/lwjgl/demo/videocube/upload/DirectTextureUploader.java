@@ -0,0 +1,71 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.upload;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.VideoFrame;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.VideoTexture;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.glTexSubImage2D;
+import static org.lwjgl.opengl.GL12.GL_BGRA;
+
+/**
+ * Uploads directly from the pixel array most recently published to a frame exchange.
+ * <p>
+ * This is the simplest approach, but the driver must copy the pixels before the call returns so the upload stalls the
+ * render thread.
+ */
+public final class DirectTextureUploader implements TextureUploader {
+
+    private final FrameExchange<VideoFrame> frames;
+
+    /**
+     * Create an uploader.
+     *
+     * @param frames exchange supplying video frames
+     */
+    public DirectTextureUploader(FrameExchange<VideoFrame> frames) {
+        this.frames = frames;
+    }
+
+    @Override
+    public boolean upload(VideoTexture texture) {
+        VideoFrame frame = frames.acquire();
+        if (frame == null) {
+            return false;
+        }
+        FrameFormat format = frame.format();
+        texture.allocate(format.width(), format.height());
+        glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, format.width(), format.height(), GL_BGRA, GL_UNSIGNED_BYTE, frame.pixels());
+        return true;
+    }
+
+    @Override
+    public void free() {
+    }
+
+    @Override
+    public String toString() {
+        return "DirectTextureUploader[]";
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.upload;
+
+import org.lwjgl.system.MemoryUtil;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameCounters;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.ParallelFrameCopy;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.FrameSink;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.VideoTexture;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.glTexSubImage2D;
+import static org.lwjgl.opengl.GL12.GL_BGRA;
+import static org.lwjgl.opengl.GL15.glBindBuffer;
+import static org.lwjgl.opengl.GL15.glDeleteBuffers;
+import static org.lwjgl.opengl.GL15.glGenBuffers;
+import static org.lwjgl.opengl.GL15.glUnmapBuffer;
+import static org.lwjgl.opengl.GL21.GL_PIXEL_UNPACK_BUFFER;
+import static org.lwjgl.opengl.GL30.GL_MAP_WRITE_BIT;
+import static org.lwjgl.opengl.GL30.glMapBufferRange;
+import static org.lwjgl.opengl.GL32.GL_ALREADY_SIGNALED;
+import static org.lwjgl.opengl.GL32.GL_CONDITION_SATISFIED;
+import static org.lwjgl.opengl.GL32.GL_SYNC_GPU_COMMANDS_COMPLETE;
+import static org.lwjgl.opengl.GL32.glClientWaitSync;
+import static org.lwjgl.opengl.GL32.glDeleteSync;
+import static org.lwjgl.opengl.GL32.glFenceSync;
+import static org.lwjgl.opengl.GL44.GL_MAP_COHERENT_BIT;
+import static org.lwjgl.opengl.GL44.GL_MAP_PERSISTENT_BIT;
+import static org.lwjgl.opengl.GL44.glBufferStorage;
+import static org.lwjgl.system.MemoryUtil.NULL;
+
+/**
+ * Uploads from a persistently mapped pixel buffer that the decode thread writes into directly.
+ * <p>
+ * A single buffer object is created with immutable storage (ARB_buffer_storage) and mapped once, with coherent writes,
+ * for as long as the frame format stays the same. The buffer is divided into slots of one frame each.
+ * <p>
+ * On the decode thread, {@link #lock()} claims a free slot, then {@link #display(ByteBuffer[])} copies the decoded
+ * frame straight into GPU-visible memory and publishes the slot. There are no Java heap arrays and no monitors
+ * involved, the threads hand slots to each other with atomic operations only.
+ * <p>
+ * On the render thread, {@link #upload(VideoTexture)} updates the texture from the most recently published slot, if
+ * there is one, and fences it - a slot is only returned to the decode thread once the GPU has finished reading it.
+ * <p>
+ * If the decode thread gets ahead of the render thread, an unread published frame is replaced by the next one and is
+ * counted as dropped. If the render thread finds nothing newly published, the upload is skipped and counted as a
+ * duplicate. If no slot is free when a frame arrives, the frame is not written and is counted as busy.
+ * <p>
+ * Since the buffer storage is immutable, a change of frame format needs a new buffer. The render thread creates it the
+ * next time it uploads, and frames arriving before then are counted as busy. The old buffer is retired, its slots are
+ * closed one by one as the decode thread and GPU finish with them, and it is freed once every slot is closed.
+ */
+public final class PersistentBufferRing implements TextureUploader, FrameSink {
+
+    private static final int FREE = 0;
+    private static final int WRITING = 1;
+    private static final int READY = 2;
+    private static final int READING = 3;
+    private static final int CLOSED = 4;
+
+    private static final int NO_SLOT = -1;
+
+    private final int size;
+
+    private final FrameCounters counters;
+
+    /**
+     * Copy stage for large frames, null to copy on the decode thread alone.
+     */
+    private final ParallelFrameCopy copy;
+
+    private final AtomicLong busyCount = new AtomicLong();
+
+    /**
+     * Slots for the current frame format, replaced by the render thread when the format changes.
+     */
+    private final AtomicReference<Slots> current = new AtomicReference<>();
+
+    /**
+     * Slots for previous frame formats that have not yet been freed, only ever accessed by the render thread.
+     */
+    private final List<Slots> retired = new ArrayList<>();
+
+    /**
+     * Most recent frame format negotiated by the decode thread.
+     */
+    private volatile FrameFormat format;
+
+    private int reallocationCount;
+
+    /**
+     * Slots holding the slot currently being written, only ever accessed by the decode thread.
+     */
+    private Slots writeSlots;
+
+    /**
+     * Slot currently being written, only ever accessed by the decode thread.
+     */
+    private int writeSlot = NO_SLOT;
+
+    /**
+     * Create a ring of persistently mapped frame slots.
+     * <p>
+     * No buffer is allocated until the first frame format is set.
+     *
+     * @param size number of slots in the ring, at least three so that one slot can be written while one is published
+     *             and another is still being read by the GPU
+     * @param counters counters to update as frames are uploaded, skipped or dropped
+     */
+    public PersistentBufferRing(int size, FrameCounters counters) {
+        this(size, counters, null);
+    }
+
+    /**
+     * Create a ring of persistently mapped frame slots, copying large frames into them in parallel.
+     *
+     * @param size number of slots in the ring, at least three
+     * @param counters counters to update as frames are uploaded, skipped or dropped
+     * @param copy copy stage, or <code>null</code> to copy every frame on the decode thread alone
+     */
+    public PersistentBufferRing(int size, FrameCounters counters, ParallelFrameCopy copy) {
+        if (size < 3) {
+            throw new IllegalArgumentException("Ring size must be at least 3");
+        }
+        this.size = size;
+        this.counters = counters;
+        this.copy = copy;
+    }
+
+    /**
+     * Set the format of the frames that will follow.
+     * <p>
+     * Invoked on the decode thread, before the first frame of the new format is locked.
+     *
+     * @param format frame format
+     */
+    @Override
+    public void setFormat(FrameFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Claim a free slot for the next decoded frame.
+     * <p>
+     * Invoked on the decode thread. A slot still claimed for a frame that was never displayed is kept for this one.
+     */
+    @Override
+    public void lock() {
+        Slots slots = current.get();
+        boolean usable = slots != null && slots.format.equals(format);
+        if (writeSlot != NO_SLOT) {
+            if (usable && writeSlots == slots) {
+                return;
+            }
+            // Claimed before the format changed, hand it back so the old buffer can be closed
+            writeSlots.states.compareAndSet(writeSlot, WRITING, FREE);
+            writeSlots = null;
+            writeSlot = NO_SLOT;
+        }
+        if (usable) {
+            for (int slot = 0; slot < size; slot++) {
+                if (slots.states.compareAndSet(slot, FREE, WRITING)) {
+                    writeSlots = slots;
+                    writeSlot = slot;
+                    return;
+                }
+            }
+        }
+        busyCount.incrementAndGet();
+    }
+
+    /**
+     * Copy a decoded frame into the slot claimed by {@link #lock()}, and publish it to the render thread.
+     * <p>
+     * Invoked on the decode thread. If no slot could be claimed the frame is skipped, it has already been counted as
+     * busy.
+     *
+     * @param frame native frame buffer, RV32 pixel format
+     */
+    public void write(ByteBuffer frame) {
+        if (writeSlot == NO_SLOT) {
+            return;
+        }
+        Slots slots = writeSlots;
+        long length = Math.min(frame.remaining(), slots.frameSize);
+        if (copy != null) {
+            copy.copy(MemoryUtil.memAddress(frame), slots.address(writeSlot), length, slots.format.height());
+        } else {
+            MemoryUtil.memCopy(MemoryUtil.memAddress(frame), slots.address(writeSlot), length);
+        }
+        slots.states.set(writeSlot, READY);
+        int previous = slots.published.getAndSet(writeSlot);
+        // The render thread never saw the previous frame, so it can be reused straight away - unless it has been closed
+        if (previous != NO_SLOT && slots.states.compareAndSet(previous, READY, FREE)) {
+            counters.dropped(1);
+        }
+        writeSlots = null;
+        writeSlot = NO_SLOT;
+    }
+
+    /**
+     * Copy and publish a decoded frame.
+     * <p>
+     * LibVLC unlocks a picture before it displays it, so this - not {@link #unlock()} - is where the frame is complete.
+     */
+    @Override
+    public void display(ByteBuffer[] planes) {
+        write(planes[0]);
+    }
+
+    @Override
+    public boolean upload(VideoTexture texture) {
+        Slots slots = current.get();
+        FrameFormat requested = format;
+        if (requested != null && (slots == null || !slots.format.equals(requested))) {
+            if (slots != null) {
+                retired.add(slots);
+            }
+            slots = new Slots(size, requested);
+            current.set(slots);
+            reallocationCount++;
+        }
+        closeRetired();
+        if (slots == null) {
+            counters.duplicate();
+            return false;
+        }
+        slots.retire();
+        int slot = slots.published.getAndSet(NO_SLOT);
+        if (slot == NO_SLOT) {
+            counters.duplicate();
+            return false;
+        }
+        slots.states.set(slot, READING);
+        FrameFormat format = slots.format;
+        texture.allocate(format.width(), format.height());
+        glBindBuffer(GL_PIXEL_UNPACK_BUFFER, slots.bufferId);
+        glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, format.width(), format.height(), GL_BGRA, GL_UNSIGNED_BYTE, slots.offset(slot));
+        slots.fences[slot] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+        counters.uploaded();
+        return true;
+    }
+
+    private void closeRetired() {
+        for (Iterator<Slots> it = retired.iterator(); it.hasNext(); ) {
+            Slots slots = it.next();
+            if (slots.close()) {
+                slots.free();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the number of decoded frames that could not be written because no slot was free.
+     *
+     * @return busy count
+     */
+    public long busyCount() {
+        return busyCount.get();
+    }
+
+    /**
+     * Get the number of times a new buffer was allocated because the frame format changed.
+     *
+     * @return reallocation count
+     */
+    public int reallocationCount() {
+        return reallocationCount;
+    }
+
+    /**
+     * Release all buffers.
+     * <p>
+     * The decode thread must no longer be using this ring.
+     */
+    @Override
+    public void free() {
+        Slots slots = current.getAndSet(null);
+        if (slots != null) {
+            slots.free();
+        }
+        for (Slots retiredSlots : retired) {
+            retiredSlots.free();
+        }
+        retired.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PersistentBufferRing[size=%d,busy=%d,reallocations=%d]", size, busyCount(), reallocationCount);
+    }
+
+    /**
+     * A persistently mapped buffer for one frame format, and the state of each of its slots.
+     */
+    private static final class Slots {
+
+        private final FrameFormat format;
+
+        private final int frameSize;
+
+        private final int bufferId;
+
+        private final ByteBuffer mapped;
+
+        private final AtomicIntegerArray states;
+
+        private final AtomicInteger published = new AtomicInteger(NO_SLOT);
+
+        /**
+         * Fence for each slot being read by the GPU, only ever accessed by the render thread.
+         */
+        private final long[] fences;
+
+        private Slots(int size, FrameFormat format) {
+            this.format = format;
+            this.frameSize = format.frameSize();
+            this.states = new AtomicIntegerArray(size);
+            this.fences = new long[size];
+            long capacity = (long) frameSize * size;
+            int flags = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+            this.bufferId = glGenBuffers();
+            glBindBuffer(GL_PIXEL_UNPACK_BUFFER, bufferId);
+            glBufferStorage(GL_PIXEL_UNPACK_BUFFER, capacity, flags);
+            this.mapped = glMapBufferRange(GL_PIXEL_UNPACK_BUFFER, 0, capacity, flags);
+            glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+            if (mapped == null) {
+                glDeleteBuffers(bufferId);
+                throw new IllegalStateException("Failed to map persistent pixel buffer");
+            }
+        }
+
+        private long offset(int slot) {
+            return (long) slot * frameSize;
+        }
+
+        private long address(int slot) {
+            return MemoryUtil.memAddress(mapped) + offset(slot);
+        }
+
+        /**
+         * Return any slots the GPU has finished reading to the decode thread, without waiting.
+         */
+        private void retire() {
+            for (int slot = 0; slot < fences.length; slot++) {
+                if (signalled(slot)) {
+                    states.set(slot, FREE);
+                }
+            }
+        }
+
+        /**
+         * Close every slot that is not in use, without waiting.
+         *
+         * @return <code>true</code> if every slot is now closed
+         */
+        private boolean close() {
+            boolean closed = true;
+            for (int slot = 0; slot < fences.length; slot++) {
+                if (signalled(slot)) {
+                    states.set(slot, CLOSED);
+                }
+                if (!states.compareAndSet(slot, FREE, CLOSED) && !states.compareAndSet(slot, READY, CLOSED)) {
+                    closed &= states.get(slot) == CLOSED;
+                }
+            }
+            return closed;
+        }
+
+        private boolean signalled(int slot) {
+            long fence = fences[slot];
+            if (fence == NULL) {
+                return false;
+            }
+            int result = glClientWaitSync(fence, 0, 0);
+            if (result == GL_ALREADY_SIGNALED || result == GL_CONDITION_SATISFIED) {
+                glDeleteSync(fence);
+                fences[slot] = NULL;
+                return true;
+            }
+            return false;
+        }
+
+        private void free() {
+            for (int slot = 0; slot < fences.length; slot++) {
+                if (fences[slot] != NULL) {
+                    glDeleteSync(fences[slot]);
+                    fences[slot] = NULL;
+                }
+            }
+            glBindBuffer(GL_PIXEL_UNPACK_BUFFER, bufferId);
+            glUnmapBuffer(GL_PIXEL_UNPACK_BUFFER);
+            glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+            glDeleteBuffers(bufferId);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.upload;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.VideoFrame;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.VideoTexture;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.glTexSubImage2D;
+import static org.lwjgl.opengl.GL12.GL_BGRA;
+import static org.lwjgl.opengl.GL15.GL_STREAM_DRAW;
+import static org.lwjgl.opengl.GL15.glBindBuffer;
+import static org.lwjgl.opengl.GL15.glBufferData;
+import static org.lwjgl.opengl.GL15.glDeleteBuffers;
+import static org.lwjgl.opengl.GL15.glGenBuffers;
+import static org.lwjgl.opengl.GL15.glUnmapBuffer;
+import static org.lwjgl.opengl.GL21.GL_PIXEL_UNPACK_BUFFER;
+import static org.lwjgl.opengl.GL30.GL_MAP_INVALIDATE_BUFFER_BIT;
+import static org.lwjgl.opengl.GL30.GL_MAP_UNSYNCHRONIZED_BIT;
+import static org.lwjgl.opengl.GL30.GL_MAP_WRITE_BIT;
+import static org.lwjgl.opengl.GL30.glMapBufferRange;
+import static org.lwjgl.opengl.GL32.GL_ALREADY_SIGNALED;
+import static org.lwjgl.opengl.GL32.GL_CONDITION_SATISFIED;
+import static org.lwjgl.opengl.GL32.GL_SYNC_FLUSH_COMMANDS_BIT;
+import static org.lwjgl.opengl.GL32.GL_SYNC_GPU_COMMANDS_COMPLETE;
+import static org.lwjgl.opengl.GL32.GL_TIMEOUT_EXPIRED;
+import static org.lwjgl.opengl.GL32.GL_WAIT_FAILED;
+import static org.lwjgl.opengl.GL32.glClientWaitSync;
+import static org.lwjgl.opengl.GL32.glDeleteSync;
+import static org.lwjgl.opengl.GL32.glFenceSync;
+import static org.lwjgl.system.MemoryUtil.NULL;
+
+/**
+ * Uploads the pixel array most recently published to a frame exchange via a ring of pixel buffer objects.
+ * <p>
+ * Each frame is copied into the next buffer in the ring and the texture is then updated from that buffer, so the
+ * driver can perform the transfer asynchronously while the render thread carries on drawing. A fence is placed after
+ * each transfer, and a buffer is only written again once its fence has been signalled.
+ * <p>
+ * The buffers are sized for the current frame format, and are reallocated only when a frame arrives whose size in
+ * bytes is different.
+ * <p>
+ * The number of times a buffer was still in use by the GPU when it came round again is counted - if this is regularly
+ * non-zero, the ring is too small. If the GPU is still using the buffer when the wait times out, the upload is skipped
+ * and counted rather than written into a buffer that may still be read. The frame is left in the exchange, and the same
+ * buffer is waited for again with the next upload - by then the frame has either been uploaded, or replaced by a newer
+ * one and counted as dropped.
+ */
+public final class PixelBufferRing implements TextureUploader {
+
+    /**
+     * Maximum time to wait for a busy buffer to become available, in nanoseconds.
+     */
+    private static final long WAIT_TIMEOUT = 1_000_000_000L;
+
+    private final FrameExchange<VideoFrame> frames;
+
+    private final int[] bufferIds;
+
+    private final long[] fences;
+
+    private int capacity;
+
+    private int next;
+
+    private long uploadCount;
+
+    private long busyCount;
+
+    private long timeoutCount;
+
+    /**
+     * Create a ring of pixel buffers.
+     *
+     * @param size number of buffers in the ring, two or three is usually enough
+     * @param frames exchange supplying video frames
+     */
+    public PixelBufferRing(int size, FrameExchange<VideoFrame> frames) {
+        if (size < 2) {
+            throw new IllegalArgumentException("Ring size must be at least 2");
+        }
+        this.frames = frames;
+        this.bufferIds = new int[size];
+        this.fences = new long[size];
+        glGenBuffers(bufferIds);
+    }
+
+    @Override
+    public boolean upload(VideoTexture texture) {
+        // Wait before taking the frame, so after a timeout it is still there to be uploaded, or dropped, next time
+        if (frames.available() && !awaitSlot(next)) {
+            timeoutCount++;
+            return false;
+        }
+        VideoFrame frame = frames.acquire();
+        if (frame == null) {
+            return false;
+        }
+        FrameFormat format = frame.format();
+        if (format.frameSize() != capacity) {
+            reallocate(format.frameSize());
+        }
+        // Allocate before binding the pixel buffer, otherwise the allocation itself would read from the buffer
+        texture.allocate(format.width(), format.height());
+
+        int slot = next;
+        next = (next + 1) % bufferIds.length;
+
+        glBindBuffer(GL_PIXEL_UNPACK_BUFFER, bufferIds[slot]);
+
+        // The fence already guarantees the GPU is finished with this buffer, so there is no need for the driver to
+        // synchronise again
+        ByteBuffer mapped = glMapBufferRange(GL_PIXEL_UNPACK_BUFFER, 0, capacity, GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_BUFFER_BIT | GL_MAP_UNSYNCHRONIZED_BIT);
+        if (mapped == null) {
+            glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+            throw new IllegalStateException("Failed to map pixel buffer");
+        }
+        mapped.order(ByteOrder.nativeOrder()).asIntBuffer().put(frame.pixels(), 0, format.pixelCount());
+        glUnmapBuffer(GL_PIXEL_UNPACK_BUFFER);
+
+        // With a pixel unpack buffer bound, the final argument is an offset into that buffer and the call returns
+        // without waiting for the transfer
+        glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, format.width(), format.height(), GL_BGRA, GL_UNSIGNED_BYTE, 0L);
+        fences[slot] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+
+        glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+        uploadCount++;
+        return true;
+    }
+
+    /**
+     * Respecify the storage of every buffer in the ring.
+     * <p>
+     * Any transfers still reading from the old storage are unaffected, the driver orphans it.
+     *
+     * @param capacity new size of each buffer, in bytes
+     */
+    private void reallocate(int capacity) {
+        for (int bufferId : bufferIds) {
+            glBindBuffer(GL_PIXEL_UNPACK_BUFFER, bufferId);
+            glBufferData(GL_PIXEL_UNPACK_BUFFER, capacity, GL_STREAM_DRAW);
+        }
+        glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Wait for the GPU to finish reading a buffer.
+     * <p>
+     * If the wait times out the fence is kept, so the buffer is waited for again next time.
+     *
+     * @param slot index of the buffer in the ring
+     * @return <code>true</code> if the buffer can be written; <code>false</code> if the GPU may still be reading it
+     */
+    private boolean awaitSlot(int slot) {
+        long fence = fences[slot];
+        if (fence == NULL) {
+            return true;
+        }
+        int result = glClientWaitSync(fence, 0, 0);
+        if (result != GL_ALREADY_SIGNALED && result != GL_CONDITION_SATISFIED) {
+            busyCount++;
+            result = glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, WAIT_TIMEOUT);
+        }
+        if (result == GL_WAIT_FAILED) {
+            throw new IllegalStateException("Failed waiting for pixel buffer fence");
+        }
+        if (result == GL_TIMEOUT_EXPIRED) {
+            return false;
+        }
+        glDeleteSync(fence);
+        fences[slot] = NULL;
+        return true;
+    }
+
+    /**
+     * Get the number of frames uploaded.
+     *
+     * @return upload count
+     */
+    public long uploadCount() {
+        return uploadCount;
+    }
+
+    /**
+     * Get the number of times the next buffer in the ring was still being read by the GPU when it was needed.
+     *
+     * @return busy count
+     */
+    public long busyCount() {
+        return busyCount;
+    }
+
+    /**
+     * Get the number of uploads skipped because the next buffer in the ring was still being read when the wait for it
+     * timed out.
+     *
+     * @return timeout count
+     */
+    public long timeoutCount() {
+        return timeoutCount;
+    }
+
+    @Override
+    public void free() {
+        for (int i = 0; i < fences.length; i++) {
+            if (fences[i] != NULL) {
+                glDeleteSync(fences[i]);
+                fences[i] = NULL;
+            }
+        }
+        glDeleteBuffers(bufferIds);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PixelBufferRing[size=%d,uploads=%d,busy=%d,timeouts=%d]", bufferIds.length, uploadCount, busyCount, timeoutCount);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.upload;
+
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.VideoTexture;
+
+/**
+ * A strategy for transferring decoded video frames into an OpenGL texture.
+ * <p>
+ * Implementations must only be used on the thread that owns the OpenGL context.
+ */
+public interface TextureUploader {
+
+    /**
+     * Upload the current video frame to a texture, if a new frame has been published since the last upload.
+     * <p>
+     * The texture storage is reallocated first if the frame size has changed.
+     *
+     * @param texture texture to update
+     * @return <code>true</code> if the texture was updated; <code>false</code> if there was no new frame
+     */
+    boolean upload(VideoTexture texture);
+
+    /**
+     * Release any OpenGL resources held by this uploader.
+     */
+    void free();
+}
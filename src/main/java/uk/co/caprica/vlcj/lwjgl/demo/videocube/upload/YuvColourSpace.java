@@ -0,0 +1,92 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.upload;
+
+/**
+ * YUV to RGB colour space conversions.
+ * <p>
+ * Each colour space is defined by its red and blue luma coefficients, from which the full conversion matrix is derived.
+ */
+public enum YuvColourSpace {
+
+    /**
+     * ITU-R BT.601, standard definition video.
+     */
+    BT601(0.299f, 0.114f),
+
+    /**
+     * ITU-R BT.709, high definition video.
+     */
+    BT709(0.2126f, 0.0722f);
+
+    private final float kr;
+
+    private final float kb;
+
+    YuvColourSpace(float kr, float kb) {
+        this.kr = kr;
+        this.kb = kb;
+    }
+
+    /**
+     * Pick the conventional colour space for a video height - BT.709 for HD and above, BT.601 otherwise.
+     *
+     * @param height video height, in pixels
+     * @return colour space
+     */
+    public static YuvColourSpace forHeight(int height) {
+        return height >= 720 ? BT709 : BT601;
+    }
+
+    /**
+     * Get the offset to subtract from normalised Y, U and V samples before applying the {@link #matrix(boolean)}.
+     *
+     * @param fullRange <code>true</code> for full range (0-255) samples; <code>false</code> for limited range (16-235
+     *                  for Y, 16-240 for U and V)
+     * @return offset, Y then U then V
+     */
+    public float[] offset(boolean fullRange) {
+        return new float[] {fullRange ? 0f : 16f / 255f, 128f / 255f, 128f / 255f};
+    }
+
+    /**
+     * Get the matrix converting offset Y, U and V samples to RGB, including any range expansion.
+     *
+     * @param fullRange <code>true</code> for full range samples; <code>false</code> for limited range
+     * @return 3x3 matrix, in column-major order as expected by OpenGL
+     */
+    public float[] matrix(boolean fullRange) {
+        float kg = 1f - kr - kb;
+        float yScale = fullRange ? 1f : 255f / 219f;
+        float cScale = fullRange ? 1f : 255f / 224f;
+        float rv = 2f * (1f - kr);
+        float bu = 2f * (1f - kb);
+        float gu = -bu * kb / kg;
+        float gv = -rv * kr / kg;
+        return new float[] {
+            // Y column
+            yScale, yScale, yScale,
+            // U column
+            0f, gu * cScale, bu * cScale,
+            // V column
+            rv * cScale, gv * cScale, 0f
+        };
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.upload;
+
+import org.lwjgl.BufferUtils;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.Chroma;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.PlanarFrame;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.textures.VideoTexture;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
+import static org.lwjgl.opengl.GL11.GL_LINEAR;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
+import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11.GL_UNPACK_ALIGNMENT;
+import static org.lwjgl.opengl.GL11.GL_UNPACK_ROW_LENGTH;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.GL_VIEWPORT;
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL11.glDeleteTextures;
+import static org.lwjgl.opengl.GL11.glDisable;
+import static org.lwjgl.opengl.GL11.glDrawArrays;
+import static org.lwjgl.opengl.GL11.glEnable;
+import static org.lwjgl.opengl.GL11.glGenTextures;
+import static org.lwjgl.opengl.GL11.glGetIntegerv;
+import static org.lwjgl.opengl.GL11.glIsEnabled;
+import static org.lwjgl.opengl.GL11.glPixelStorei;
+import static org.lwjgl.opengl.GL11.glTexImage2D;
+import static org.lwjgl.opengl.GL11.glTexParameteri;
+import static org.lwjgl.opengl.GL11.glTexSubImage2D;
+import static org.lwjgl.opengl.GL11.glViewport;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL20.glDeleteProgram;
+import static org.lwjgl.opengl.GL20.glGetUniformLocation;
+import static org.lwjgl.opengl.GL20.glUniform1i;
+import static org.lwjgl.opengl.GL20.glUniform3fv;
+import static org.lwjgl.opengl.GL20.glUniformMatrix3fv;
+import static org.lwjgl.opengl.GL20.glUseProgram;
+import static org.lwjgl.opengl.GL30.GL_COLOR_ATTACHMENT0;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.GL_R8;
+import static org.lwjgl.opengl.GL30.GL_RED;
+import static org.lwjgl.opengl.GL30.GL_RG;
+import static org.lwjgl.opengl.GL30.GL_RG8;
+import static org.lwjgl.opengl.GL30.glBindFramebuffer;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL30.glDeleteFramebuffers;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
+import static org.lwjgl.opengl.GL30.glFramebufferTexture2D;
+import static org.lwjgl.opengl.GL30.glGenFramebuffers;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.shaders.ShaderProgram.shaderProgram;
+
+/**
+ * Uploads planar YUV frames and converts them to RGB on the GPU.
+ * <p>
+ * Each plane is uploaded to its own texture - single channel for Y, U and V, two channel for interleaved UV - and a
+ * fragment shader then renders the converted RGB image into the video texture via a framebuffer object. Everything
+ * that samples the video texture is therefore unaware that the source was YUV.
+ * <p>
+ * Compared with RV32, a 4:2:0 frame is 1.5 bytes per pixel rather than 4, and LibVLC no longer needs to run a software
+ * colour conversion before handing over the frame.
+ * <p>
+ * Requires OpenGL 3.3, for the GLSL 3.30 core shaders that also compile in a core profile context.
+ */
+public final class YuvTextureUploader implements TextureUploader {
+
+    private static final int MAX_PLANES = 3;
+
+    private final FrameExchange<PlanarFrame> frames;
+
+    private final YuvColourSpace colourSpace;
+
+    private final boolean fullRange;
+
+    private final int programId;
+
+    private final int interleavedLocation;
+
+    private final int offsetLocation;
+
+    private final int matrixLocation;
+
+    private final int framebufferId;
+
+    /**
+     * Empty vertex array, the conversion pass has no vertex attributes but a core profile context still requires one.
+     */
+    private final int vertexArrayId;
+
+    private final int[] planeTextureIds = new int[MAX_PLANES];
+
+    private final IntBuffer viewport = BufferUtils.createIntBuffer(4);
+
+    private FrameFormat format;
+
+    /**
+     * Create an uploader.
+     *
+     * @param frames exchange supplying planar video frames
+     * @param colourSpace colour space of the source, or <code>null</code> to pick one from the video height
+     * @param fullRange <code>true</code> if the source uses full range samples; <code>false</code> for limited range
+     */
+    public YuvTextureUploader(FrameExchange<PlanarFrame> frames, YuvColourSpace colourSpace, boolean fullRange) {
+        this.frames = frames;
+        this.colourSpace = colourSpace;
+        this.fullRange = fullRange;
+        this.programId = shaderProgram("/shaders/fullscreen.vert", "/shaders/yuv.frag");
+        glUseProgram(programId);
+        glUniform1i(glGetUniformLocation(programId, "planeY"), 0);
+        glUniform1i(glGetUniformLocation(programId, "planeU"), 1);
+        glUniform1i(glGetUniformLocation(programId, "planeV"), 2);
+        glUseProgram(0);
+        this.interleavedLocation = glGetUniformLocation(programId, "interleaved");
+        this.offsetLocation = glGetUniformLocation(programId, "offset");
+        this.matrixLocation = glGetUniformLocation(programId, "yuvToRgb");
+        this.framebufferId = glGenFramebuffers();
+        this.vertexArrayId = glGenVertexArrays();
+        glGenTextures(planeTextureIds);
+        for (int textureId : planeTextureIds) {
+            glBindTexture(GL_TEXTURE_2D, textureId);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        }
+        glBindTexture(GL_TEXTURE_2D, 0);
+    }
+
+    @Override
+    public boolean upload(VideoTexture texture) {
+        PlanarFrame frame = frames.acquire();
+        if (frame == null) {
+            return false;
+        }
+        if (!frame.format().equals(format)) {
+            reallocate(frame.format(), texture);
+        }
+        uploadPlanes(frame);
+        convert();
+        return true;
+    }
+
+    private void reallocate(FrameFormat format, VideoTexture texture) {
+        Chroma chroma = format.chroma();
+        for (int plane = 0; plane < chroma.planeCount(); plane++) {
+            glBindTexture(GL_TEXTURE_2D, planeTextureIds[plane]);
+            int planeWidth = chroma.planeWidth(plane, format.width());
+            int planeHeight = chroma.planeHeight(plane, format.height());
+            boolean twoChannel = chroma.bytesPerPixel(plane) == 2;
+            glTexImage2D(GL_TEXTURE_2D, 0, twoChannel ? GL_RG8 : GL_R8, planeWidth, planeHeight, 0, twoChannel ? GL_RG : GL_RED, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        }
+        texture.allocate(format.width(), format.height());
+        glBindFramebuffer(GL_FRAMEBUFFER, framebufferId);
+        glFramebufferTexture2D(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_TEXTURE_2D, texture.id(), 0);
+        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+
+        YuvColourSpace colourSpace = this.colourSpace != null ? this.colourSpace : YuvColourSpace.forHeight(format.height());
+        glUseProgram(programId);
+        glUniform1i(interleavedLocation, chroma == Chroma.NV12 ? 1 : 0);
+        glUniform3fv(offsetLocation, colourSpace.offset(fullRange));
+        glUniformMatrix3fv(matrixLocation, false, colourSpace.matrix(fullRange));
+        glUseProgram(0);
+        this.format = format;
+    }
+
+    private void uploadPlanes(PlanarFrame frame) {
+        Chroma chroma = format.chroma();
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+        for (int plane = 0; plane < chroma.planeCount(); plane++) {
+            int bytesPerPixel = chroma.bytesPerPixel(plane);
+            glActiveTexture(GL_TEXTURE0 + plane);
+            glBindTexture(GL_TEXTURE_2D, planeTextureIds[plane]);
+            // Rows are padded to the pitch, so tell OpenGL how long a row really is
+            glPixelStorei(GL_UNPACK_ROW_LENGTH, format.pitch(plane) / bytesPerPixel);
+            glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, chroma.planeWidth(plane, format.width()), format.lines(plane), bytesPerPixel == 2 ? GL_RG : GL_RED, GL_UNSIGNED_BYTE, frame.plane(plane));
+        }
+        glPixelStorei(GL_UNPACK_ROW_LENGTH, 0);
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+    }
+
+    private void convert() {
+        boolean depthTest = glIsEnabled(GL_DEPTH_TEST);
+        glGetIntegerv(GL_VIEWPORT, viewport);
+        glDisable(GL_DEPTH_TEST);
+        glBindFramebuffer(GL_FRAMEBUFFER, framebufferId);
+        glViewport(0, 0, format.width(), format.height());
+        glUseProgram(programId);
+        glBindVertexArray(vertexArrayId);
+        glDrawArrays(GL_TRIANGLES, 0, 3);
+        glBindVertexArray(0);
+        glUseProgram(0);
+        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        glViewport(viewport.get(0), viewport.get(1), viewport.get(2), viewport.get(3));
+        for (int plane = MAX_PLANES - 1; plane >= 0; plane--) {
+            glActiveTexture(GL_TEXTURE0 + plane);
+            glBindTexture(GL_TEXTURE_2D, 0);
+        }
+        if (depthTest) {
+            glEnable(GL_DEPTH_TEST);
+        }
+    }
+
+    @Override
+    public void free() {
+        glDeleteFramebuffers(framebufferId);
+        glDeleteVertexArrays(vertexArrayId);
+        glDeleteTextures(planeTextureIds);
+        glDeleteProgram(programId);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("YuvTextureUploader[format=%s,colourSpace=%s,fullRange=%b]", format, colourSpace != null ? colourSpace : "auto", fullRange);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.window;
+
+import static org.lwjgl.glfw.GLFW.glfwPostEmptyEvent;
+import static org.lwjgl.glfw.GLFW.glfwSetWindowShouldClose;
+import static org.lwjgl.glfw.GLFW.glfwWaitEvents;
+import static org.lwjgl.glfw.GLFW.glfwWaitEventsTimeout;
+import static org.lwjgl.glfw.GLFW.glfwWindowShouldClose;
+
+/**
+ * Runs rendering on a dedicated thread while the main thread does nothing but pump GLFW events.
+ * <p>
+ * The render thread owns the OpenGL context: it should make the context current itself, render until
+ * {@link org.lwjgl.glfw.GLFW#glfwWindowShouldClose(long)} - which, like setting the flag and swapping buffers, is safe
+ * from any thread - and free its OpenGL resources before it returns. Windows must still be created and destroyed on the
+ * main thread, before and after this runs.
+ * <p>
+ * However the render thread finishes, the window is flagged to close and the main thread is woken, and any exception it
+ * threw is rethrown on the main thread.
+ */
+public final class RenderThread {
+
+    private RenderThread() {
+    }
+
+    /**
+     * Start a render thread and pump events on the calling thread until it has finished.
+     *
+     * @param window window being rendered
+     * @param render rendering to run on the render thread
+     */
+    public static void run(long window, Runnable render) {
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(() -> {
+            try {
+                render.run();
+            } catch (Throwable t) {
+                failure[0] = t;
+            } finally {
+                glfwSetWindowShouldClose(window, true);
+                glfwPostEmptyEvent();
+            }
+        }, "render");
+        thread.start();
+
+        while (!glfwWindowShouldClose(window)) {
+            // Blocks until there is at least one event, callbacks are only invoked during this call
+            glfwWaitEvents();
+        }
+
+        // Keep pumping while the render thread finishes its last frame and frees its resources
+        while (thread.isAlive()) {
+            glfwWaitEventsTimeout(0.1);
+        }
+
+        if (failure[0] instanceof RuntimeException) {
+            throw (RuntimeException) failure[0];
+        }
+        if (failure[0] instanceof Error) {
+            throw (Error) failure[0];
+        }
+        if (failure[0] != null) {
+            throw new RuntimeException("Render thread failed", failure[0]);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.window;
+
+/**
+ * Coalesces and rate-limits framebuffer size changes, for consumers that reconfigure expensively on every resize.
+ * <p>
+ * An interactive drag-resize delivers a size event for practically every mouse movement. Only the most recent size is
+ * kept, and it is applied once resize events have stopped for a quiet period, or once the minimum interval since the
+ * last size applied has passed if they keep on coming - so the consumer follows a long drag at a bounded rate, and gets
+ * the final size as soon as the drag pauses or ends.
+ * <p>
+ * Must only be used from a single thread.
+ */
+public final class ResizeCoalescer {
+
+    private final long quietNanos;
+
+    private final long intervalNanos;
+
+    private boolean pending;
+
+    private int width;
+
+    private int height;
+
+    private long lastEventTime;
+
+    private long lastAppliedTime;
+
+    private boolean appliedAny;
+
+    private long eventCount;
+
+    private long appliedCount;
+
+    /**
+     * Create a coalescer.
+     *
+     * @param quietNanos time without resize events after which the latest size is applied, in nanoseconds
+     * @param intervalNanos minimum time between sizes being applied while resize events keep coming, in nanoseconds, or
+     *                      zero to apply every size straight away
+     */
+    public ResizeCoalescer(long quietNanos, long intervalNanos) {
+        this.quietNanos = quietNanos;
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * Record a size change.
+     *
+     * @param width new width, in pixels
+     * @param height new height, in pixels
+     * @param time time of the change, from {@link System#nanoTime()}
+     */
+    public void resized(int width, int height, long time) {
+        this.pending = true;
+        this.width = width;
+        this.height = height;
+        this.lastEventTime = time;
+        eventCount++;
+    }
+
+    /**
+     * Take the latest size if it is due to be applied.
+     *
+     * @param now current time, from {@link System#nanoTime()}
+     * @param size receives the width and height to apply
+     * @return <code>true</code> if the size should be applied now
+     */
+    public boolean poll(long now, int[] size) {
+        if (!pending || nanosUntilDue(now) > 0) {
+            return false;
+        }
+        pending = false;
+        appliedAny = true;
+        lastAppliedTime = now;
+        appliedCount++;
+        size[0] = width;
+        size[1] = height;
+        return true;
+    }
+
+    /**
+     * Get how long until the latest size is due to be applied.
+     *
+     * @param now current time, from {@link System#nanoTime()}
+     * @return time until due, in nanoseconds, zero or less if due now, or {@link Long#MAX_VALUE} if nothing is pending
+     */
+    public long nanosUntilDue(long now) {
+        if (!pending) {
+            return Long.MAX_VALUE;
+        }
+        if (intervalNanos <= 0 || !appliedAny) {
+            return 0;
+        }
+        long quiet = lastEventTime + quietNanos - now;
+        long interval = lastAppliedTime + intervalNanos - now;
+        return Math.min(quiet, interval);
+    }
+
+    public long eventCount() {
+        return eventCount;
+    }
+
+    public long appliedCount() {
+        return appliedCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("resize: %d size changes, %d applied", eventCount, appliedCount);
+    }
+}
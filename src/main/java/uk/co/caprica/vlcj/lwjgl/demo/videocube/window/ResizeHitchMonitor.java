@@ -0,0 +1,102 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.window;
+
+/**
+ * Counts frame hitches caused by resizing - frames presented shortly after a resize that took much longer than usual.
+ * <p>
+ * The typical frame time is a moving average of the frame times not counted as hitches, so a run of slow frames does
+ * not raise the bar for the next one.
+ * <p>
+ * {@link #resizeApplied(long)} may be called from any thread, {@link #frameCompleted(long)} only from the one thread
+ * presenting frames.
+ */
+public final class ResizeHitchMonitor {
+
+    /**
+     * How long after a resize a slow frame is still put down to it.
+     */
+    private static final long WINDOW_NANOS = 500_000_000L;
+
+    /**
+     * How much longer than the typical frame time a frame must take to count as a hitch.
+     */
+    private static final double HITCH_FACTOR = 2.0;
+
+    private volatile long lastResizeTime;
+
+    private volatile boolean resized;
+
+    private long lastFrameTime;
+
+    private double typicalNanos;
+
+    private long frameCount;
+
+    private long hitchCount;
+
+    private long maxHitchNanos;
+
+    /**
+     * Record that a new size has been applied.
+     *
+     * @param now current time, from {@link System#nanoTime()}
+     */
+    public void resizeApplied(long now) {
+        lastResizeTime = now;
+        resized = true;
+    }
+
+    /**
+     * Record a presented frame.
+     *
+     * @param now current time, from {@link System#nanoTime()}
+     * @return <code>true</code> if the frame was a resize hitch
+     */
+    public boolean frameCompleted(long now) {
+        long previous = lastFrameTime;
+        lastFrameTime = now;
+        frameCount++;
+        if (previous == 0) {
+            return false;
+        }
+        long elapsed = now - previous;
+        if (typicalNanos > 0 && elapsed > typicalNanos * HITCH_FACTOR) {
+            if (resized && now - lastResizeTime < WINDOW_NANOS) {
+                hitchCount++;
+                maxHitchNanos = Math.max(maxHitchNanos, elapsed);
+                return true;
+            }
+            // Slow for some other reason, such as the video being paused, so not part of the typical frame time either
+            return false;
+        }
+        typicalNanos = typicalNanos > 0 ? typicalNanos * 0.95 + elapsed * 0.05 : elapsed;
+        return false;
+    }
+
+    public long hitchCount() {
+        return hitchCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("resize hitches: %d of %d frames, typical frame %.3f ms, worst hitch %.3f ms", hitchCount, frameCount, typicalNanos / 1_000_000.0, maxHitchNanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.window;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.CubeRenderer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.timing.CpuTimer;
+
+import java.nio.FloatBuffer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.lwjgl.glfw.GLFW.glfwDestroyWindow;
+import static org.lwjgl.glfw.GLFW.glfwMakeContextCurrent;
+import static org.lwjgl.glfw.GLFW.glfwSwapBuffers;
+import static org.lwjgl.glfw.GLFW.glfwSwapInterval;
+import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
+import static org.lwjgl.opengl.GL11.GL_LESS;
+import static org.lwjgl.opengl.GL11.glClear;
+import static org.lwjgl.opengl.GL11.glClearColor;
+import static org.lwjgl.opengl.GL11.glDepthFunc;
+import static org.lwjgl.opengl.GL11.glEnable;
+import static org.lwjgl.opengl.GL11.glViewport;
+import static org.lwjgl.opengl.GL32.GL_TIMEOUT_IGNORED;
+import static org.lwjgl.opengl.GL32.glWaitSync;
+import static org.lwjgl.system.MemoryUtil.NULL;
+
+/**
+ * An additional window showing the same scene, with a context in the same share group as the main window.
+ * <p>
+ * Textures, buffers and shaders are shared between the contexts, so the video is decoded and uploaded once, in the
+ * main context, and every window samples the same texture. Vertex arrays and other container objects are not shared,
+ * so each window has its own cube renderer. Each window has its own swap interval - with a single render thread
+ * presenting every window, typically only one of them should wait for v-sync.
+ * <p>
+ * The window is created and destroyed on the main thread, everything else happens on the render thread, which
+ * switches its current context to each window in turn and back again.
+ */
+public final class SharedContextWindow {
+
+    private final long window;
+
+    private final int swapInterval;
+
+    private final WindowEventQueue events = new WindowEventQueue();
+
+    private final CpuTimer renderTimer;
+
+    private GLCapabilities capabilities;
+
+    private CubeRenderer renderer;
+
+    /**
+     * Create a window, on the main thread.
+     *
+     * @param window GLFW window, created sharing the main window's context
+     * @param name name used when reporting
+     * @param swapInterval swap interval for this window
+     */
+    public SharedContextWindow(long window, String name, int swapInterval) {
+        this.window = window;
+        this.swapInterval = swapInterval;
+        this.renderTimer = new CpuTimer(name);
+        events.attach(window);
+    }
+
+    public long window() {
+        return window;
+    }
+
+    /**
+     * Set up the context and create the renderer, on the render thread.
+     * <p>
+     * The context is left current.
+     *
+     * @param rendererFactory creates the cube renderer, with this window's context current
+     */
+    public void init(Supplier<CubeRenderer> rendererFactory) {
+        glfwMakeContextCurrent(window);
+        // LWJGL keeps the capabilities per thread, so they must be switched along with the context
+        capabilities = GL.createCapabilities();
+        glfwSwapInterval(swapInterval);
+        glClearColor(0, 0, 0, 0);
+        int[] size = new int[2];
+        events.framebufferSize(size);
+        glViewport(0, 0, size[0], size[1]);
+        renderer = rendererFactory.get();
+    }
+
+    /**
+     * Draw and present a frame, on the render thread.
+     * <p>
+     * Makes this window's context current, and leaves it current - the caller restores its own context afterwards.
+     *
+     * @param transform model-view-projection matrix
+     * @param fence sync object to wait for before sampling textures updated in another context, or {@link
+     *              org.lwjgl.system.MemoryUtil#NULL} if the other context has already finished its commands
+     * @param keyHandler handles key events from this window
+     */
+    public void render(FloatBuffer transform, long fence, Consumer<WindowEvent> keyHandler) {
+        glfwMakeContextCurrent(window);
+        GL.setCapabilities(capabilities);
+
+        events.drain(event -> {
+            if (event.type() == WindowEvent.Type.FRAMEBUFFER_SIZE) {
+                glViewport(0, 0, event.width(), event.height());
+            } else {
+                keyHandler.accept(event);
+            }
+        });
+
+        if (fence != NULL) {
+            // The GPU waits, the render thread carries straight on
+            glWaitSync(fence, 0, GL_TIMEOUT_IGNORED);
+        }
+
+        glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+        glEnable(GL_DEPTH_TEST);
+        glDepthFunc(GL_LESS);
+
+        renderTimer.start();
+        renderer.render(transform);
+        renderTimer.stop();
+
+        glfwSwapBuffers(window);
+        events.presented(System.nanoTime());
+    }
+
+    /**
+     * Notify the renderer that the video texture has changed.
+     *
+     * @param previousTextureId texture to replace
+     * @param textureId replacement texture
+     */
+    public void replaceTexture(int previousTextureId, int textureId) {
+        renderer.replaceTexture(previousTextureId, textureId);
+    }
+
+    /**
+     * Release the renderer and the context, on the render thread.
+     * <p>
+     * Leaves no context current.
+     */
+    public void free() {
+        if (renderer != null) {
+            glfwMakeContextCurrent(window);
+            GL.setCapabilities(capabilities);
+            renderer.free();
+        }
+        glfwMakeContextCurrent(NULL);
+        GL.setCapabilities(null);
+    }
+
+    /**
+     * Remove the callbacks and destroy the window, on the main thread.
+     */
+    public void destroy() {
+        events.detach();
+        glfwDestroyWindow(window);
+    }
+
+    @Override
+    public String toString() {
+        return renderTimer + ", " + events;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.window;
+
+/**
+ * A window input event, captured by a GLFW callback on the main thread and handed to the render thread.
+ * <p>
+ * Each event carries the time it was captured, so the render thread can measure how long it took for the event to
+ * reach the screen.
+ */
+public final class WindowEvent {
+
+    public enum Type {
+        KEY,
+        FRAMEBUFFER_SIZE
+    }
+
+    private final Type type;
+
+    private final long time;
+
+    private final int key;
+
+    private final int action;
+
+    private final int mods;
+
+    private final int width;
+
+    private final int height;
+
+    private WindowEvent(Type type, long time, int key, int action, int mods, int width, int height) {
+        this.type = type;
+        this.time = time;
+        this.key = key;
+        this.action = action;
+        this.mods = mods;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Create a key event.
+     *
+     * @param time time the event was captured, from {@link System#nanoTime()}
+     * @param key GLFW key code
+     * @param action GLFW key action
+     * @param mods GLFW modifier bits
+     * @return event
+     */
+    public static WindowEvent key(long time, int key, int action, int mods) {
+        return new WindowEvent(Type.KEY, time, key, action, mods, 0, 0);
+    }
+
+    /**
+     * Create a framebuffer size event.
+     *
+     * @param time time the event was captured, from {@link System#nanoTime()}
+     * @param width new framebuffer width, in pixels
+     * @param height new framebuffer height, in pixels
+     * @return event
+     */
+    public static WindowEvent framebufferSize(long time, int width, int height) {
+        return new WindowEvent(Type.FRAMEBUFFER_SIZE, time, 0, 0, 0, width, height);
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public long time() {
+        return time;
+    }
+
+    public int key() {
+        return key;
+    }
+
+    public int action() {
+        return action;
+    }
+
+    public int mods() {
+        return mods;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.KEY ? String.format("key %d action %d", key, action) : String.format("framebuffer %dx%d", width, height);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.window;
+
+import org.lwjgl.glfw.GLFWFramebufferSizeCallback;
+import org.lwjgl.glfw.GLFWKeyCallback;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static org.lwjgl.glfw.GLFW.glfwGetFramebufferSize;
+import static org.lwjgl.glfw.GLFW.glfwSetFramebufferSizeCallback;
+import static org.lwjgl.glfw.GLFW.glfwSetKeyCallback;
+
+/**
+ * Lock-free queue of window events, filled by GLFW callbacks on the main thread and drained by the render thread.
+ * <p>
+ * GLFW only allows events to be processed, and most window state to be queried, on the main thread. With this queue
+ * the main thread does nothing but pump events, so it can block in a window move, a resize or any other modal OS event
+ * loop without stalling rendering - the render thread picks the events up whenever it next gets round to them.
+ * <p>
+ * The render thread also reports each frame it presents, and the queue measures the input-to-render latency of every
+ * event that frame applied: the time from the callback capturing the event to the buffer swap showing its effect.
+ * <p>
+ * {@link #attach(long)} and {@link #detach()} must be called on the main thread, {@link #drain(Consumer)},
+ * {@link #await(long)} and {@link #presented(long)} only on the one render thread, and the framebuffer size may be read
+ * from any thread.
+ */
+public final class WindowEventQueue {
+
+    private final Queue<WindowEvent> events = new ConcurrentLinkedQueue<>();
+
+    private long window;
+
+    private GLFWKeyCallback keyCallback;
+
+    private GLFWFramebufferSizeCallback framebufferSizeCallback;
+
+    private volatile Thread consumer;
+
+    /**
+     * Most recent framebuffer size, width in the high half and height in the low half, so the two are always read as
+     * a consistent pair.
+     */
+    private final AtomicLong framebufferSize = new AtomicLong();
+
+    /**
+     * Events drained since the last presented frame, with the sum and minimum of their capture times.
+     */
+    private long pendingCount;
+
+    private long pendingTimeSum;
+
+    private long pendingOldest;
+
+    private long latencyCount;
+
+    private long latencyTotal;
+
+    private long latencyMax;
+
+    /**
+     * Install the key and framebuffer size callbacks on a window, replacing any already installed.
+     *
+     * @param window window to capture events from
+     * @return this queue
+     */
+    public WindowEventQueue attach(long window) {
+        this.window = window;
+        int[] width = new int[1];
+        int[] height = new int[1];
+        glfwGetFramebufferSize(window, width, height);
+        framebufferSize.set(pack(width[0], height[0]));
+        keyCallback = GLFWKeyCallback.create((w, key, scancode, action, mods) -> offer(WindowEvent.key(System.nanoTime(), key, action, mods)));
+        framebufferSizeCallback = GLFWFramebufferSizeCallback.create((w, newWidth, newHeight) -> {
+            framebufferSize.set(pack(newWidth, newHeight));
+            offer(WindowEvent.framebufferSize(System.nanoTime(), newWidth, newHeight));
+        });
+        glfwSetKeyCallback(window, keyCallback);
+        glfwSetFramebufferSizeCallback(window, framebufferSizeCallback);
+        return this;
+    }
+
+    /**
+     * Remove and free the callbacks, before the window is destroyed.
+     */
+    public void detach() {
+        glfwSetKeyCallback(window, null);
+        glfwSetFramebufferSizeCallback(window, null);
+        keyCallback.free();
+        framebufferSizeCallback.free();
+    }
+
+    /**
+     * Add an event, waking the render thread if it is waiting for one.
+     *
+     * @param event event
+     */
+    public void offer(WindowEvent event) {
+        events.offer(event);
+        Thread waiting = consumer;
+        if (waiting != null) {
+            LockSupport.unpark(waiting);
+        }
+    }
+
+    /**
+     * Hand every queued event to a handler, in the order they were captured.
+     *
+     * @param handler event handler
+     * @return number of events drained
+     */
+    public int drain(Consumer<WindowEvent> handler) {
+        int count = 0;
+        WindowEvent event;
+        while ((event = events.poll()) != null) {
+            if (pendingCount == 0 || event.time() < pendingOldest) {
+                pendingOldest = event.time();
+            }
+            pendingCount++;
+            pendingTimeSum += event.time();
+            handler.accept(event);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Wait for an event to be queued, for a render thread that has nothing else to do.
+     *
+     * @param timeoutNanos longest time to wait, in nanoseconds
+     */
+    public void await(long timeoutNanos) {
+        consumer = Thread.currentThread();
+        if (events.isEmpty()) {
+            LockSupport.parkNanos(this, timeoutNanos);
+        }
+        consumer = null;
+    }
+
+    /**
+     * Record that a frame applying every event drained so far has been presented.
+     *
+     * @param now time the frame was presented, from {@link System#nanoTime()}
+     * @return latency of the oldest event in the frame, in nanoseconds, or -1 if the frame applied no events
+     */
+    public long presented(long now) {
+        if (pendingCount == 0) {
+            return -1;
+        }
+        long oldest = now - pendingOldest;
+        latencyCount += pendingCount;
+        latencyTotal += pendingCount * now - pendingTimeSum;
+        latencyMax = Math.max(latencyMax, oldest);
+        pendingCount = 0;
+        pendingTimeSum = 0;
+        return oldest;
+    }
+
+    /**
+     * Get the most recent framebuffer size reported by GLFW, with the width and height from the same report.
+     *
+     * @param size receives the width and height, in pixels
+     */
+    public void framebufferSize(int[] size) {
+        long packed = framebufferSize.get();
+        size[0] = (int) (packed >>> 32);
+        size[1] = (int) packed;
+    }
+
+    private static long pack(int width, int height) {
+        return (long) width << 32 | (height & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("input latency: %d events, average %.3f ms, max %.3f ms", latencyCount, latencyCount > 0 ? latencyTotal / (double) latencyCount / 1_000_000.0 : 0.0, latencyMax / 1_000_000.0);
+    }
+}
@@ -21,9 +21,16 @@ package uk.co.caprica.vlcj.lwjgl.demo.videoengine;
 
 import org.lwjgl.Version;
 import org.lwjgl.glfw.GLFWErrorCallback;
-import org.lwjgl.glfw.GLFWFramebufferSizeCallback;
 import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
 import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.hud.PerformanceHud;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.timing.CpuTimer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.window.RenderThread;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.window.ResizeCoalescer;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.window.ResizeHitchMonitor;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.window.WindowEvent;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.window.WindowEventQueue;
 import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
 import uk.co.caprica.vlcj.player.embedded.videosurface.videoengine.VideoEngineVideoSurface;
 import uk.co.caprica.vlcj.player.embedded.videosurface.videoengine.VideoEngine;
@@ -32,10 +39,11 @@ import uk.co.caprica.vlcj.player.embedded.videosurface.videoengine.VideoEngineCa
 import uk.co.caprica.vlcj.player.embedded.videosurface.videoengine.VideoEngineWindowCallback;
 
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
 
-import static org.lwjgl.glfw.Callbacks.glfwFreeCallbacks;
 import static org.lwjgl.glfw.GLFW.GLFW_FALSE;
 import static org.lwjgl.glfw.GLFW.GLFW_KEY_ESCAPE;
+import static org.lwjgl.glfw.GLFW.GLFW_KEY_H;
 import static org.lwjgl.glfw.GLFW.GLFW_KEY_SPACE;
 import static org.lwjgl.glfw.GLFW.GLFW_RELEASE;
 import static org.lwjgl.glfw.GLFW.GLFW_RESIZABLE;
@@ -45,13 +53,9 @@ import static org.lwjgl.glfw.GLFW.glfwCreateWindow;
 import static org.lwjgl.glfw.GLFW.glfwDefaultWindowHints;
 import static org.lwjgl.glfw.GLFW.glfwDestroyWindow;
 import static org.lwjgl.glfw.GLFW.glfwGetProcAddress;
-import static org.lwjgl.glfw.GLFW.glfwGetWindowSize;
 import static org.lwjgl.glfw.GLFW.glfwInit;
 import static org.lwjgl.glfw.GLFW.glfwMakeContextCurrent;
-import static org.lwjgl.glfw.GLFW.glfwPollEvents;
 import static org.lwjgl.glfw.GLFW.glfwSetErrorCallback;
-import static org.lwjgl.glfw.GLFW.glfwSetFramebufferSizeCallback;
-import static org.lwjgl.glfw.GLFW.glfwSetKeyCallback;
 import static org.lwjgl.glfw.GLFW.glfwSetWindowPos;
 import static org.lwjgl.glfw.GLFW.glfwSetWindowShouldClose;
 import static org.lwjgl.glfw.GLFW.glfwShowWindow;
@@ -83,6 +87,39 @@ public class VideoEngineDemo {
      */
     private static boolean preserveAspectRatio = true;
 
+    /**
+     * Render loop mode, either "events" or "poll".
+     * <p>
+     * With "events" (the default) only the video engine presents frames, the render thread just applies input events as
+     * they arrive. With "poll" the render thread also clears and swaps the window at about 60 Hz, competing with the
+     * video engine for the same context and swap chain - select with -Dvlcj.engine.loop=poll to compare.
+     * <p>
+     * Either way the main thread does nothing but pump window events.
+     */
+    private static final String loopMode = System.getProperty("vlcj.engine.loop", "events");
+
+    /**
+     * Show the performance overlay from the start - press H to show or hide it while running.
+     */
+    private static final boolean hudVisible = Boolean.getBoolean("vlcj.hud");
+
+    /**
+     * Longest time the render thread waits for an input event in the "events" loop mode, before checking whether the
+     * window has been closed.
+     */
+    private static final long EVENT_WAIT_NANOS = 100_000_000L;
+
+    /**
+     * Minimum time between window size changes being passed on to the video engine during a drag-resize, in
+     * milliseconds - zero passes on every change as it happens.
+     */
+    private static final long resizeInterval = Long.getLong("vlcj.engine.resize.interval", 100);
+
+    /**
+     * Time without any size change after which the latest size is passed on to the video engine, one frame at 60 Hz.
+     */
+    private static final long RESIZE_QUIET_NANOS = 1_000_000_000L / 60;
+
     /**
      * This application.
      */
@@ -98,6 +135,63 @@ public class VideoEngineDemo {
      */
     private final Semaphore contextSemaphore = new Semaphore(0, true);
 
+    /**
+     * Time spent in {@link VideoEngineHandler#onMakeCurrent(Long, boolean)} waiting to acquire the context semaphore,
+     * only ever used on the native video engine thread.
+     */
+    private final CpuTimer contextWaitTimer = new CpuTimer("onMakeCurrent wait");
+
+    /**
+     * Number of buffer swaps by the video engine.
+     */
+    private final LongAdder engineSwapCount = new LongAdder();
+
+    /**
+     * Number of buffer swaps by the render thread.
+     */
+    private long renderSwapCount;
+
+    /**
+     * OpenGL capabilities of the window context, created on the render thread and shared with the video engine thread.
+     */
+    private volatile GLCapabilities capabilities;
+
+    /**
+     * Performance overlay, drawn over each video frame before it is presented - created on first use, and only used on
+     * the native video engine thread until the media player is released.
+     */
+    private volatile PerformanceHud hud;
+
+    /**
+     * Toggled from a key event on the render thread.
+     */
+    private volatile boolean showHud = hudVisible;
+
+    /**
+     * Key and resize events, captured on the main thread and applied on the render thread.
+     * <p>
+     * The queue also tracks the framebuffer size, since GLFW only allows it to be queried on the main thread.
+     */
+    private final WindowEventQueue windowEvents = new WindowEventQueue();
+
+    /**
+     * Each size passed on to the video engine may have it reallocate its render targets, so the size changes from a
+     * drag-resize are coalesced, only ever used on the render thread.
+     */
+    private final ResizeCoalescer resizeCoalescer = new ResizeCoalescer(RESIZE_QUIET_NANOS, resizeInterval * 1_000_000L);
+
+    private final int[] resizeSize = new int[2];
+
+    /**
+     * Counts the video frames held up by a resize.
+     */
+    private final ResizeHitchMonitor resizeHitches = new ResizeHitchMonitor();
+
+    /**
+     * Framebuffer size the overlay is drawn at, only ever used on the native video engine thread.
+     */
+    private final int[] hudSize = new int[2];
+
     /**
      * Media player factory.
      */
@@ -124,7 +218,7 @@ public class VideoEngineDemo {
      * The application should invoke methods in this component when the size of the OpenGL video  rendering surface
      * changes, or when a mouse button is pressed or released.
      */
-    private VideoEngineWindowCallback windowCallback;
+    private volatile VideoEngineWindowCallback windowCallback;
 
     /**
      * Create a new demo application.
@@ -146,14 +240,24 @@ public class VideoEngineDemo {
 
         mediaPlayer.media().play(mrl);
 
-        loop();
+        RenderThread.run(window, this::render);
 
         // We need to make sure the callbacks stop before we disappear, otherwise a fatal JVM crash may occur
         mediaPlayer.release();
         mediaPlayerFactory.release();
 
+        System.out.println(contextWaitTimer);
+        if (hud != null) {
+            System.out.println(hud.renderTimer());
+            freeHud();
+        }
+        System.out.println(windowEvents);
+        System.out.println(resizeCoalescer);
+        System.out.println(resizeHitches);
+        System.out.printf("Swaps: video engine %d, render thread %d%n", engineSwapCount.sum(), renderSwapCount);
+
         // Free the window callbacks and destroy the window
-        glfwFreeCallbacks(window);
+        windowEvents.detach();
         glfwDestroyWindow(window);
 
         // Terminate GLFW and free the error callback
@@ -161,6 +265,25 @@ public class VideoEngineDemo {
         glfwSetErrorCallback(null).free();
     }
 
+    /**
+     * Free the overlay on the context it was created on, while that context still exists.
+     * <p>
+     * The video engine has stopped and the render thread has finished, so the context is free to make current here.
+     */
+    private void freeHud() {
+        contextSemaphore.acquireUninterruptibly();
+        try {
+            glfwMakeContextCurrent(window);
+            GL.setCapabilities(capabilities);
+            hud.free();
+            hud = null;
+        } finally {
+            GL.setCapabilities(null);
+            glfwMakeContextCurrent(0L);
+            contextSemaphore.release();
+        }
+    }
+
     /**
      * Initialise the main window.
      */
@@ -184,41 +307,24 @@ public class VideoEngineDemo {
             throw new RuntimeException("Failed to create the GLFW window");
         }
 
-        if (enableResize) {
-            glfwSetFramebufferSizeCallback(window, new GLFWFramebufferSizeCallback() {
-                @Override
-                public void invoke(long window, int width, int height) {
-                    windowCallback.setSize(width, height);
-                }
-            });
-        }
-
-        // Setup a key callback - it will be called every time a key is pressed, repeated or released
-        glfwSetKeyCallback(window, (window, key, scancode, action, mods) -> {
-            if (key == GLFW_KEY_ESCAPE && action == GLFW_RELEASE) {
-                // We will detect this in the rendering loop
-                glfwSetWindowShouldClose(window, true);
-            }
-
-            if (key == GLFW_KEY_SPACE && action == GLFW_RELEASE) {
-                mediaPlayer.controls().pause();
-            }
-        });
+        // Key and resize events are only captured here, they are applied on the render thread
+        windowEvents.attach(window);
 
         glfwSetWindowPos(window, 10, 10);
-        glfwMakeContextCurrent(window); // Make the OpenGL context current
-        glfwSwapInterval(1); // Enable v-sync
         glfwShowWindow(window);
     }
 
     /**
-     * Main loop.
+     * Render loop, run on the render thread until the window is closed.
      */
-    private void loop() {
+    private void render() {
+        glfwMakeContextCurrent(window); // Make the OpenGL context current
+        glfwSwapInterval(1); // Enable v-sync
+
         // This line is critical for LWJGL's interoperation with GLFW's OpenGL context, or any context that is managed
         // externally. LWJGL detects the context that is current in the current thread, creates the GLCapabilities
         // instance and makes the OpenGL bindings available for use
-        GL.createCapabilities();
+        capabilities = GL.createCapabilities();
 
         // Set the clear colour
         glClearColor(0.0f, 0.0f, 0.0f, 0.0f);
@@ -226,15 +332,61 @@ public class VideoEngineDemo {
         glfwMakeContextCurrent(0L);
         contextSemaphore.release();
 
+        switch (loopMode) {
+            case "events":
+                eventLoop();
+                break;
+            case "poll":
+                pollLoop();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown loop mode: " + loopMode);
+        }
+    }
+
+    /**
+     * Apply input events as they arrive until the user has attempted to close the window or has pressed the ESCAPE key.
+     * <p>
+     * The video engine renders and swaps on its own thread whenever it has a new frame, so there is nothing for the
+     * render thread to draw - it never touches the context, and never contends with the video engine for it. Input
+     * latency is measured to when each event is applied, its effect is presented with the next video frame.
+     */
+    private void eventLoop() {
+        while (!glfwWindowShouldClose(window)) {
+            // Wakes for each event, when a coalesced size is due, and now and then to notice the window being closed from
+            // the main thread
+            windowEvents.await(Math.min(EVENT_WAIT_NANOS, resizeCoalescer.nanosUntilDue(System.nanoTime())));
+            windowEvents.drain(this::windowEvent);
+            applyResize();
+            windowEvents.presented(System.nanoTime());
+        }
+    }
+
+    /**
+     * Clear and swap the window from the render thread at about 60 Hz, as well as the video engine doing so.
+     */
+    private void pollLoop() {
         // Run the rendering loop until the user has attempted to close the window or has pressed the ESCAPE key
         while (!glfwWindowShouldClose(window)) {
-            // Clear the framebuffer (no need to since the video will render the whole surface every frame?)
-            glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+            windowEvents.drain(this::windowEvent);
+            applyResize();
 
-            glfwSwapBuffers(window);
+            // The context is shared with the video engine thread, so take turns with it
+            contextSemaphore.acquireUninterruptibly();
+            try {
+                glfwMakeContextCurrent(window);
+
+                // Clear the framebuffer (no need to since the video will render the whole surface every frame?)
+                glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+
+                glfwSwapBuffers(window);
+                renderSwapCount++;
+            } finally {
+                glfwMakeContextCurrent(0L);
+                contextSemaphore.release();
+            }
 
-            // Poll for window events - the key callback above will only be invoked during this call
-            glfwPollEvents();
+            windowEvents.presented(System.nanoTime());
 
             // Implement the render/timing loop however you want - if you don't sleep the loop will run as fast as it
             // can and consume 100% of a CPU core
@@ -245,11 +397,54 @@ public class VideoEngineDemo {
         }
     }
 
+    /**
+     * Apply a window event, on the render thread.
+     *
+     * @param event event
+     */
+    private void windowEvent(WindowEvent event) {
+        switch (event.type()) {
+            case KEY:
+                if (event.key() == GLFW_KEY_ESCAPE && event.action() == GLFW_RELEASE) {
+                    // We will detect this in the rendering loop
+                    glfwSetWindowShouldClose(window, true);
+                }
+
+                if (event.key() == GLFW_KEY_SPACE && event.action() == GLFW_RELEASE) {
+                    mediaPlayer.controls().pause();
+                }
+
+                if (event.key() == GLFW_KEY_H && event.action() == GLFW_RELEASE) {
+                    showHud = !showHud;
+                }
+                break;
+            case FRAMEBUFFER_SIZE:
+                resizeCoalescer.resized(event.width(), event.height(), event.time());
+                break;
+        }
+    }
+
+    /**
+     * Pass the latest window size on to the video engine, if it is due.
+     */
+    private void applyResize() {
+        if (resizeCoalescer.poll(System.nanoTime(), resizeSize)) {
+            // The native video engine may not have handed over its window callback yet, it then picks up the size from
+            // the queue when it does
+            VideoEngineWindowCallback callback = windowCallback;
+            if (callback != null) {
+                callback.setSize(resizeSize[0], resizeSize[1]);
+                resizeHitches.resizeApplied(System.nanoTime());
+            }
+        }
+    }
+
     /**
      * This class is the bridge between the native video engine and the LWJGL rendering surface.
      * <p>
-     * The semaphore may be a bit overkill since in this example the main thread never sets the current context again
-     * after it has finished initialisation, however the first acquire at least protects us from a race during startup.
+     * The semaphore is only contended in the "poll" loop mode, when the render thread also draws - otherwise the render
+     * thread never sets the current context again after it has finished initialisation, however the first acquire at
+     * least protects us from a race during startup.
      * <p>
      * The callback methods here all execute on a native thread coming from LibVLC.
      */
@@ -257,10 +452,11 @@ public class VideoEngineDemo {
         @Override
         public void onSetWindowCallback(VideoEngineWindowCallback windowCallback) {
             VideoEngineDemo.this.windowCallback = windowCallback;
-            int[] width = new int[1];
-            int[] height = new int[1];
-            glfwGetWindowSize(window, width, height);
-            windowCallback.setSize(width[0], height[0]);
+            // This is a native thread, where GLFW does not allow the window size to be queried, so use the size the main
+            // thread last captured
+            int[] size = new int[2];
+            windowEvents.framebufferSize(size);
+            windowCallback.setSize(size[0], size[1]);
         }
 
         @Override
@@ -272,8 +468,12 @@ public class VideoEngineDemo {
         public boolean onMakeCurrent(Long opaque, boolean enter) {
             if (enter) {
                 try {
+                    contextWaitTimer.start();
                     contextSemaphore.acquire();
+                    contextWaitTimer.stop();
                     glfwMakeContextCurrent(window);
+                    // LWJGL keeps the capabilities per thread, the overlay needs them on this one
+                    GL.setCapabilities(capabilities);
                 } catch (InterruptedException e) {
                     return false;
                 } catch (Exception e) {
@@ -293,7 +493,30 @@ public class VideoEngineDemo {
 
         @Override
         public void onSwap(Long opaque) {
+            renderHud();
             glfwSwapBuffers(window);
+            engineSwapCount.increment();
+            resizeHitches.frameCompleted(System.nanoTime());
+        }
+
+        private void renderHud() {
+            if (hud == null) {
+                if (!showHud) {
+                    return;
+                }
+                if (!capabilities.OpenGL33) {
+                    System.out.println("The performance overlay requires OpenGL 3.3");
+                    showHud = false;
+                    return;
+                }
+                hud = new PerformanceHud();
+            }
+            // Every swap presents a new video frame, so the overlay frame rate is the video engine's render rate
+            hud.frameCompleted(System.nanoTime());
+            if (showHud) {
+                windowEvents.framebufferSize(hudSize);
+                hud.render(hudSize[0], hudSize[1]);
+            }
         }
     }
 
@@ -0,0 +1,258 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videowall;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decides which streams get to upload a new frame on each render loop iteration, within a per-frame byte budget.
+ * <p>
+ * This is a weighted deficit round robin. Every stream with a new frame waiting earns credit in proportion to its
+ * weight, typically its on-screen area, and uploads once its credit covers the size of a frame. A stream with no new
+ * frame earns nothing, so idle streams cannot bank credit and then swamp a later frame. The stream that is considered
+ * first moves on every frame, so ties never favour the same stream, and because credit only ever accumulates every
+ * stream with a non-zero weight eventually uploads - no stream can starve the others.
+ * <p>
+ * Frames are exchanged latest-wins, so a stream that is held back does not build up a backlog, it simply shows fewer
+ * frames. The per-stream queue depth reports how many frames were published between uploads.
+ * <p>
+ * Must only be used on the thread that owns the OpenGL context.
+ */
+final class UploadScheduler {
+
+    /**
+     * A stream as the scheduler sees it.
+     */
+    interface Stream {
+
+        /**
+         * Check whether there is a new frame waiting to be uploaded.
+         *
+         * @return <code>true</code> if there is a new frame
+         */
+        boolean ready();
+
+        /**
+         * Get the number of frames published since the last upload.
+         *
+         * @return queue depth
+         */
+        long queueDepth();
+
+        /**
+         * Get the total number of frames published so far.
+         *
+         * @return frame count
+         */
+        long publishedCount();
+
+        /**
+         * Get the number of bytes uploaded for each frame.
+         *
+         * @return frame size, in bytes
+         */
+        int frameBytes();
+
+        /**
+         * Upload the most recently published frame, if there is a new one.
+         *
+         * @param layer layer index
+         * @return <code>true</code> if a new frame was uploaded
+         */
+        boolean upload(int layer);
+    }
+
+    private final long budgetBytes;
+
+    private final double[] weights;
+
+    private final double[] credits;
+
+    private final boolean[] waiting;
+
+    private int cursor;
+
+    private final long[] uploadCounts;
+
+    private final long[] lastUploadCounts;
+
+    private final long[] lastPublishedCounts;
+
+    private final long[] queueDepthTotals;
+
+    private final long[] maxQueueDepths;
+
+    private long samples;
+
+    private long lastReportTime = System.nanoTime();
+
+    private long deferredCount;
+
+    /**
+     * Create a scheduler.
+     *
+     * @param streamCount number of streams
+     * @param budgetBytes maximum bytes to upload per frame, zero or less for no limit
+     */
+    UploadScheduler(int streamCount, long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        this.weights = new double[streamCount];
+        this.credits = new double[streamCount];
+        this.waiting = new boolean[streamCount];
+        this.uploadCounts = new long[streamCount];
+        this.lastUploadCounts = new long[streamCount];
+        this.lastPublishedCounts = new long[streamCount];
+        this.queueDepthTotals = new long[streamCount];
+        this.maxQueueDepths = new long[streamCount];
+        Arrays.fill(weights, 1.0);
+    }
+
+    /**
+     * Set the priority of a stream.
+     *
+     * @param stream stream index
+     * @param weight relative share of the budget, zero for a stream that is not visible and should not upload at all
+     */
+    void setWeight(int stream, double weight) {
+        weights[stream] = Math.max(weight, 0.0);
+    }
+
+    /**
+     * Upload new frames from as many streams as the budget allows, each into the layer of the currently bound texture
+     * array matching its index.
+     *
+     * @param streams streams, in layer order
+     * @return number of frames uploaded
+     */
+    int schedule(List<? extends Stream> streams) {
+        int count = streams.size();
+        double totalWeight = 0.0;
+        for (int i = 0; i < count; i++) {
+            Stream stream = streams.get(i);
+            long queueDepth = stream.queueDepth();
+            queueDepthTotals[i] += queueDepth;
+            maxQueueDepths[i] = Math.max(maxQueueDepths[i], queueDepth);
+            waiting[i] = weights[i] > 0.0 && stream.ready();
+            if (waiting[i]) {
+                totalWeight += weights[i];
+            } else {
+                credits[i] = 0.0;
+            }
+        }
+        samples++;
+        if (totalWeight == 0.0) {
+            return 0;
+        }
+        int uploaded = budgetBytes > 0 ? scheduleWithinBudget(streams, totalWeight) : scheduleAll(streams);
+        cursor = (cursor + 1) % count;
+        return uploaded;
+    }
+
+    private int scheduleAll(List<? extends Stream> streams) {
+        int uploaded = 0;
+        for (int i = 0; i < streams.size(); i++) {
+            if (waiting[i] && upload(streams, i)) {
+                uploaded++;
+            }
+        }
+        return uploaded;
+    }
+
+    private int scheduleWithinBudget(List<? extends Stream> streams, double totalWeight) {
+        int count = streams.size();
+        for (int i = 0; i < count; i++) {
+            if (waiting[i]) {
+                // Cap the credit so a stream held back for a while can catch up, but not monopolise a whole frame
+                int frameBytes = streams.get(i).frameBytes();
+                credits[i] = Math.min(credits[i] + budgetBytes * weights[i] / totalWeight, 2.0 * frameBytes);
+            }
+        }
+        long remaining = budgetBytes;
+        int uploaded = 0;
+        int best = -1;
+        for (int n = 0; n < count; n++) {
+            int i = (cursor + n) % count;
+            if (!waiting[i]) {
+                continue;
+            }
+            int frameBytes = streams.get(i).frameBytes();
+            if (credits[i] >= frameBytes && remaining >= frameBytes) {
+                if (upload(streams, i)) {
+                    credits[i] -= frameBytes;
+                    remaining -= frameBytes;
+                    uploaded++;
+                }
+            } else {
+                deferredCount++;
+                if (best < 0 || credits[i] > credits[best]) {
+                    best = i;
+                }
+            }
+        }
+        // A budget smaller than a single frame must still make progress, so let the most deserving stream through
+        if (uploaded == 0 && best >= 0 && upload(streams, best)) {
+            credits[best] = 0.0;
+            uploaded++;
+        }
+        return uploaded;
+    }
+
+    private boolean upload(List<? extends Stream> streams, int i) {
+        if (streams.get(i).upload(i)) {
+            uploadCounts[i]++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Report the effective frame rate and queue depth of each stream since the previous report.
+     *
+     * @param streams streams, in layer order
+     * @return report, one line per stream
+     */
+    String report(List<? extends Stream> streams) {
+        long now = System.nanoTime();
+        double seconds = Math.max((now - lastReportTime) / 1_000_000_000.0, 1e-9);
+        StringBuilder sb = new StringBuilder(64 * (streams.size() + 2));
+        sb.append(String.format("UploadScheduler[budget=%d,deferred=%d]%n", budgetBytes, deferredCount));
+        sb.append(String.format("%8s %8s %12s %12s %10s %10s%n", "stream", "weight", "decoded fps", "uploaded fps", "avg queue", "max queue"));
+        for (int i = 0; i < streams.size(); i++) {
+            long published = streams.get(i).publishedCount();
+            sb.append(String.format("%8d %8.2f %12.1f %12.1f %10.2f %10d%n",
+                i,
+                weights[i],
+                (published - lastPublishedCounts[i]) / seconds,
+                (uploadCounts[i] - lastUploadCounts[i]) / seconds,
+                samples > 0 ? queueDepthTotals[i] / (double) samples : 0.0,
+                maxQueueDepths[i]
+            ));
+            lastPublishedCounts[i] = published;
+            lastUploadCounts[i] = uploadCounts[i];
+            queueDepthTotals[i] = 0;
+            maxQueueDepths[i] = 0;
+        }
+        samples = 0;
+        deferredCount = 0;
+        lastReportTime = now;
+        return sb.toString();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videowall;
+
+import org.lwjgl.BufferUtils;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.Transform;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameCounters;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A wall of video streams, each with its own media player and its own layer of a shared texture array, all rendered
+ * together by a {@link WallRenderer}.
+ * <p>
+ * Must be created, rendered and freed on the thread that owns the OpenGL context.
+ */
+final class VideoWall {
+
+    private static final float ROTATION_STEP = 0.3f;
+
+    private final WallLayout layout;
+
+    private final FrameCounters counters = new FrameCounters();
+
+    private final List<WallStream> streams = new ArrayList<>();
+
+    private final WallRenderer renderer;
+
+    private final UploadScheduler scheduler;
+
+    private final FloatBuffer transform = BufferUtils.createFloatBuffer(16);
+
+    private float angle;
+
+    private int focusedTile = -1;
+
+    /**
+     * Create a video wall.
+     *
+     * @param mediaPlayerFactory factory used to create a media player for each stream
+     * @param layout tile layout
+     * @param streamCount number of streams
+     * @param tileWidth width every stream is decoded at
+     * @param tileHeight height every stream is decoded at
+     * @param uploadBudget maximum bytes to upload per frame, zero or less for no limit
+     */
+    VideoWall(MediaPlayerFactory mediaPlayerFactory, WallLayout layout, int streamCount, int tileWidth, int tileHeight, long uploadBudget) {
+        if (streamCount < 1) {
+            throw new IllegalArgumentException("At least one stream is required");
+        }
+        this.layout = layout;
+        int columns = WallRenderer.columns(streamCount);
+        this.renderer = new WallRenderer(layout, streamCount, columns, tileWidth, tileHeight);
+        this.scheduler = new UploadScheduler(streamCount, uploadBudget);
+        FrameFormat tileFormat = new FrameFormat(tileWidth, tileHeight);
+        for (int i = 0; i < streamCount; i++) {
+            streams.add(new WallStream(mediaPlayerFactory, tileFormat, counters));
+        }
+        focus(-1, 1.0f);
+    }
+
+    /**
+     * Give one tile a larger share of the upload budget than the rest.
+     * <p>
+     * Every other tile is weighted by its on-screen area. In the grid every tile is the same size, so without a focused
+     * tile the budget is shared out evenly.
+     *
+     * @param tile tile to focus, or -1 for none
+     * @param boost multiple of its usual weight given to the focused tile
+     */
+    void focus(int tile, float boost) {
+        this.focusedTile = tile >= 0 && tile < streams.size() ? tile : -1;
+        for (int i = 0; i < streams.size(); i++) {
+            float coverage = renderer.tileCoverage(i);
+            scheduler.setWeight(i, i == focusedTile ? coverage * boost : coverage);
+        }
+    }
+
+    /**
+     * Get the focused tile.
+     *
+     * @return tile index, or -1 if no tile is focused
+     */
+    int focusedTile() {
+        return focusedTile;
+    }
+
+    /**
+     * Start every stream, sharing the media out between them in turn.
+     *
+     * @param mrls media resource locators
+     */
+    void play(List<String> mrls) {
+        for (int i = 0; i < streams.size(); i++) {
+            streams.get(i).play(mrls.get(i % mrls.size()));
+        }
+    }
+
+    /**
+     * Upload any new frames and render the wall.
+     *
+     * @return number of streams that had a new frame
+     */
+    int render() {
+        renderer.bindTiles();
+        int uploaded = scheduler.schedule(streams);
+        if (layout == WallLayout.CUBES) {
+            angle += ROTATION_STEP;
+        }
+        renderer.render(Transform.rotation(transform, angle, 0.5f, 0.5f, -0.5f));
+        return uploaded;
+    }
+
+    int streamCount() {
+        return streams.size();
+    }
+
+    FrameCounters counters() {
+        return counters;
+    }
+
+    /**
+     * Report the effective frame rate and queue depth of each stream since the previous report.
+     *
+     * @return report
+     */
+    String uploadReport() {
+        return scheduler.report(streams);
+    }
+
+    /**
+     * Release every media player, and then the OpenGL resources.
+     */
+    void free() {
+        streams.forEach(WallStream::release);
+        renderer.free();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videowall;
+
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.timing.CpuTimer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.lwjgl.glfw.GLFW.glfwDestroyWindow;
+import static org.lwjgl.glfw.GLFW.glfwPollEvents;
+import static org.lwjgl.glfw.GLFW.glfwShowWindow;
+import static org.lwjgl.glfw.GLFW.glfwSwapBuffers;
+import static org.lwjgl.glfw.GLFW.glfwTerminate;
+import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.glClear;
+
+/**
+ * Measures video wall frame time against the number of streams.
+ * <p>
+ * For each stream count in turn a wall is created and played for a warm-up period, then every frame is timed for the
+ * measurement period. V-sync is disabled so the frame time reflects the work done rather than the display refresh.
+ * <p>
+ * The layout and tile size are taken from the same options as {@link VideoWallDemo}, the stream counts and periods
+ * from:
+ * <ul>
+ *     <li>vlcj.wall.counts - comma-separated stream counts, default "1,4,16,36,64"</li>
+ *     <li>vlcj.wall.warmup - warm-up seconds per count, default 3</li>
+ *     <li>vlcj.wall.seconds - measured seconds per count, default 10</li>
+ * </ul>
+ */
+public class VideoWallBenchmark {
+
+    private static final String streamCounts = System.getProperty("vlcj.wall.counts", "1,4,16,36,64");
+
+    private static final int warmupSeconds = Integer.getInteger("vlcj.wall.warmup", 3);
+
+    private static final int measureSeconds = Integer.getInteger("vlcj.wall.seconds", 10);
+
+    public void run(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Specify one or more video files");
+            System.exit(1);
+        }
+        List<String> mrls = Arrays.asList(args);
+        List<String> results = new ArrayList<>();
+        long window = VideoWallDemo.createWindow("vlcj video wall benchmark", false);
+        try {
+            glfwShowWindow(window);
+            MediaPlayerFactory mediaPlayerFactory = new MediaPlayerFactory("--no-audio");
+            for (String count : streamCounts.split(",")) {
+                results.add(measure(mediaPlayerFactory, mrls, Integer.parseInt(count.trim()), window));
+            }
+            mediaPlayerFactory.release();
+            glfwDestroyWindow(window);
+        } finally {
+            glfwTerminate();
+        }
+        System.out.println();
+        System.out.printf("%s layout, %dx%d tiles, upload budget %d bytes per frame%n", VideoWallDemo.layout, VideoWallDemo.tileSize[0], VideoWallDemo.tileSize[1], VideoWallDemo.uploadBudget);
+        System.out.printf("%8s %8s %10s %10s %12s %10s %12s%n", "streams", "frames", "avg ms", "max ms", "uploads/s", "dropped", "ms/stream");
+        results.forEach(System.out::println);
+    }
+
+    /**
+     * Run a wall with the given number of streams, and time its frames.
+     *
+     * @param mediaPlayerFactory factory used to create the media players
+     * @param mrls media resource locators
+     * @param streamCount number of streams
+     * @param window window the wall is rendered into
+     * @return formatted result row
+     */
+    private String measure(MediaPlayerFactory mediaPlayerFactory, List<String> mrls, int streamCount, long window) {
+        System.out.println("Measuring " + streamCount + " streams...");
+        VideoWall wall = new VideoWall(mediaPlayerFactory, VideoWallDemo.layout, streamCount, VideoWallDemo.tileSize[0], VideoWallDemo.tileSize[1], VideoWallDemo.uploadBudget);
+        wall.play(mrls);
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        while (System.nanoTime() < warmupEnd) {
+            frame(wall, window);
+        }
+
+        CpuTimer frameTimer = new CpuTimer(streamCount + " streams");
+        long uploaded = 0;
+        long droppedBefore = wall.counters().droppedCount();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(measureSeconds);
+        while (System.nanoTime() < end) {
+            frameTimer.start();
+            uploaded += frame(wall, window);
+            frameTimer.stop();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long dropped = wall.counters().droppedCount() - droppedBefore;
+
+        wall.free();
+
+        return String.format("%8d %8d %10.3f %10.3f %12.1f %10d %12.4f",
+            streamCount,
+            frameTimer.count(),
+            frameTimer.averageMillis(),
+            frameTimer.maxMillis(),
+            uploaded / elapsedSeconds,
+            dropped,
+            frameTimer.averageMillis() / streamCount
+        );
+    }
+
+    private static int frame(VideoWall wall, long window) {
+        glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+        int uploaded = wall.render();
+        glfwSwapBuffers(window);
+        glfwPollEvents();
+        return uploaded;
+    }
+
+    public static void main(String[] args) {
+        new VideoWallBenchmark().run(args);
+    }
+}
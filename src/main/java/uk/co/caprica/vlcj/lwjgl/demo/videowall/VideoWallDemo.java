@@ -0,0 +1,269 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videowall;
+
+import org.lwjgl.glfw.GLFWErrorCallback;
+import org.lwjgl.glfw.GLFWKeyCallback;
+import org.lwjgl.glfw.GLFWMouseButtonCallback;
+import org.lwjgl.glfw.GLFWVidMode;
+import org.lwjgl.opengl.GL;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.timing.CpuTimer;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.lwjgl.glfw.GLFW.GLFW_CONTEXT_VERSION_MAJOR;
+import static org.lwjgl.glfw.GLFW.GLFW_CONTEXT_VERSION_MINOR;
+import static org.lwjgl.glfw.GLFW.GLFW_ICONIFIED;
+import static org.lwjgl.glfw.GLFW.GLFW_KEY_ESCAPE;
+import static org.lwjgl.glfw.GLFW.GLFW_MOUSE_BUTTON_LEFT;
+import static org.lwjgl.glfw.GLFW.GLFW_OPENGL_CORE_PROFILE;
+import static org.lwjgl.glfw.GLFW.GLFW_OPENGL_FORWARD_COMPAT;
+import static org.lwjgl.glfw.GLFW.GLFW_OPENGL_PROFILE;
+import static org.lwjgl.glfw.GLFW.GLFW_RELEASE;
+import static org.lwjgl.glfw.GLFW.GLFW_RESIZABLE;
+import static org.lwjgl.glfw.GLFW.GLFW_TRUE;
+import static org.lwjgl.glfw.GLFW.GLFW_VISIBLE;
+import static org.lwjgl.glfw.GLFW.glfwCreateWindow;
+import static org.lwjgl.glfw.GLFW.glfwDefaultWindowHints;
+import static org.lwjgl.glfw.GLFW.glfwDestroyWindow;
+import static org.lwjgl.glfw.GLFW.glfwGetCursorPos;
+import static org.lwjgl.glfw.GLFW.glfwGetPrimaryMonitor;
+import static org.lwjgl.glfw.GLFW.glfwGetVideoMode;
+import static org.lwjgl.glfw.GLFW.glfwGetWindowAttrib;
+import static org.lwjgl.glfw.GLFW.glfwInit;
+import static org.lwjgl.glfw.GLFW.glfwMakeContextCurrent;
+import static org.lwjgl.glfw.GLFW.glfwPollEvents;
+import static org.lwjgl.glfw.GLFW.glfwSetKeyCallback;
+import static org.lwjgl.glfw.GLFW.glfwSetMouseButtonCallback;
+import static org.lwjgl.glfw.GLFW.glfwSetWindowPos;
+import static org.lwjgl.glfw.GLFW.glfwSetWindowShouldClose;
+import static org.lwjgl.glfw.GLFW.glfwShowWindow;
+import static org.lwjgl.glfw.GLFW.glfwSwapBuffers;
+import static org.lwjgl.glfw.GLFW.glfwSwapInterval;
+import static org.lwjgl.glfw.GLFW.glfwTerminate;
+import static org.lwjgl.glfw.GLFW.glfwWaitEventsTimeout;
+import static org.lwjgl.glfw.GLFW.glfwWindowHint;
+import static org.lwjgl.glfw.GLFW.glfwWindowShouldClose;
+import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_FALSE;
+import static org.lwjgl.opengl.GL11.GL_TRUE;
+import static org.lwjgl.opengl.GL11.glClear;
+import static org.lwjgl.opengl.GL11.glClearColor;
+import static org.lwjgl.system.MemoryUtil.NULL;
+
+/**
+ * Video wall, many streams each with their own media player, all rendered with a single instanced draw call.
+ * <p>
+ * Specify one or more video files, these are shared out between the streams in turn.
+ * <p>
+ * Click a tile to give it a larger share of the upload budget, click it again to share the budget evenly.
+ */
+public class VideoWallDemo {
+
+    static final int WINDOW_WIDTH = 1600;
+    static final int WINDOW_HEIGHT = 900;
+
+    /**
+     * Number of streams on the wall - select with e.g. -Dvlcj.wall.streams=64.
+     */
+    static final int streamCount = Integer.getInteger("vlcj.wall.streams", 16);
+
+    /**
+     * Tile layout, either "grid" or "cubes".
+     */
+    static final WallLayout layout = WallLayout.valueOf(System.getProperty("vlcj.wall.layout", "grid").toUpperCase(Locale.ROOT));
+
+    /**
+     * Size every stream is decoded at, as width "x" height, or "auto" for the size the tiles are drawn at in the window
+     * - smaller tiles mean less to decode and upload.
+     */
+    static final int[] tileSize = tileSize(System.getProperty("vlcj.wall.tile", "480x270"));
+
+    /**
+     * Maximum bytes uploaded per frame across all streams, in kilobytes - zero for no limit.
+     */
+    static final long uploadBudget = Long.getLong("vlcj.wall.budget", 8192) * 1024;
+
+    /**
+     * Multiple of its usual share of the upload budget given to the tile that was clicked.
+     */
+    private static final float focusBoost = Float.parseFloat(System.getProperty("vlcj.wall.focus", "4"));
+
+    /**
+     * Interval between per-stream upload reports, in seconds - zero to report only on exit.
+     */
+    private static final int reportInterval = Integer.getInteger("vlcj.wall.report", 5);
+
+    private GLFWKeyCallback keyCallback;
+
+    private GLFWMouseButtonCallback mouseButtonCallback;
+
+    /**
+     * Set when a tile has been clicked, the wall is only refocused by the render loop.
+     */
+    private boolean clicked;
+
+    private int clickedTile;
+
+    private long window;
+
+    public void run(String[] args) {
+        try {
+            if (args.length == 0) {
+                System.out.println("Specify one or more video files");
+                System.exit(1);
+            }
+
+            window = createWindow("vlcj video wall demo", true);
+            glfwSetKeyCallback(window, keyCallback = new GLFWKeyCallback() {
+                @Override
+                public void invoke(long window, int key, int scancode, int action, int mods) {
+                    if (key == GLFW_KEY_ESCAPE && action == GLFW_RELEASE)
+                        glfwSetWindowShouldClose(window, true);
+                }
+            });
+            glfwSetMouseButtonCallback(window, mouseButtonCallback = new GLFWMouseButtonCallback() {
+                @Override
+                public void invoke(long window, int button, int action, int mods) {
+                    if (button == GLFW_MOUSE_BUTTON_LEFT && action == GLFW_RELEASE) {
+                        double[] x = new double[1];
+                        double[] y = new double[1];
+                        glfwGetCursorPos(window, x, y);
+                        clickedTile = WallRenderer.tileAt(streamCount, x[0], y[0], WINDOW_WIDTH, WINDOW_HEIGHT);
+                        clicked = true;
+                    }
+                }
+            });
+            glfwShowWindow(window);
+
+            loop(args);
+
+            glfwDestroyWindow(window);
+            keyCallback.free();
+            mouseButtonCallback.free();
+        } finally {
+            glfwTerminate();
+        }
+    }
+
+    private void loop(String[] args) {
+        MediaPlayerFactory mediaPlayerFactory = new MediaPlayerFactory("--no-audio");
+        VideoWall wall = new VideoWall(mediaPlayerFactory, layout, streamCount, tileSize[0], tileSize[1], uploadBudget);
+        CpuTimer frameTimer = new CpuTimer("frame");
+
+        wall.play(Arrays.asList(args));
+
+        long nextReport = System.nanoTime() + TimeUnit.SECONDS.toNanos(reportInterval);
+        while (!glfwWindowShouldClose(window)) {
+            if (glfwGetWindowAttrib(window, GLFW_ICONIFIED) == GLFW_TRUE) {
+                // Nothing is visible, so upload nothing - the streams keep decoding and simply drop frames
+                glfwWaitEventsTimeout(0.1);
+                continue;
+            }
+            if (clicked) {
+                clicked = false;
+                wall.focus(clickedTile == wall.focusedTile() ? -1 : clickedTile, focusBoost);
+            }
+            frameTimer.start();
+            glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+            wall.render();
+            glfwSwapBuffers(window);
+            glfwPollEvents();
+            frameTimer.stop();
+            if (reportInterval > 0 && System.nanoTime() - nextReport >= 0) {
+                System.out.print(wall.uploadReport());
+                nextReport += TimeUnit.SECONDS.toNanos(reportInterval);
+            }
+        }
+        String report = wall.uploadReport();
+
+        // The streams must stop before the texture array they upload into is freed
+        wall.free();
+        mediaPlayerFactory.release();
+
+        System.out.print(report);
+        System.out.println(wall.streamCount() + " streams, " + wall.counters());
+        System.out.println(frameTimer);
+    }
+
+    /**
+     * Initialise GLFW and create a window with an OpenGL 3.3 core profile context current on the calling thread.
+     *
+     * @param title window title
+     * @param vsync <code>true</code> to synchronise buffer swaps with the display
+     * @return window handle
+     */
+    static long createWindow(String title, boolean vsync) {
+        // Set up an error callback - the default implementation will print the error message to System.err
+        GLFWErrorCallback.createPrint(System.err).set();
+
+        if (!glfwInit()) {
+            throw new IllegalStateException("Unable to initialize GLFW");
+        }
+
+        glfwDefaultWindowHints();
+        glfwWindowHint(GLFW_VISIBLE, GL_FALSE);
+        glfwWindowHint(GLFW_RESIZABLE, GL_FALSE);
+        glfwWindowHint(GLFW_CONTEXT_VERSION_MAJOR, 3);
+        glfwWindowHint(GLFW_CONTEXT_VERSION_MINOR, 3);
+        glfwWindowHint(GLFW_OPENGL_PROFILE, GLFW_OPENGL_CORE_PROFILE);
+        glfwWindowHint(GLFW_OPENGL_FORWARD_COMPAT, GL_TRUE);
+
+        long window = glfwCreateWindow(WINDOW_WIDTH, WINDOW_HEIGHT, title, NULL, NULL);
+        if (window == NULL) {
+            throw new RuntimeException("Failed to create the GLFW window");
+        }
+
+        GLFWVidMode vidmode = glfwGetVideoMode(glfwGetPrimaryMonitor());
+        if (vidmode != null) {
+            glfwSetWindowPos(window, (vidmode.width() - WINDOW_WIDTH) / 2, (vidmode.height() - WINDOW_HEIGHT) / 2);
+        }
+
+        glfwMakeContextCurrent(window);
+        glfwSwapInterval(vsync ? 1 : 0);
+
+        GL.createCapabilities();
+        glClearColor(0, 0, 0, 0);
+        return window;
+    }
+
+    private static int[] tileSize(String value) {
+        if ("auto".equals(value)) {
+            return WallRenderer.screenTileSize(layout, streamCount, WINDOW_WIDTH, WINDOW_HEIGHT);
+        }
+        return parseSize(value);
+    }
+
+    private static int[] parseSize(String value) {
+        String[] parts = value.toLowerCase(Locale.ROOT).split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected a size like 480x270: " + value);
+        }
+        return new int[] {Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+
+    public static void main(String[] args) {
+        new VideoWallDemo().run(args);
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videowall;
+
+import org.lwjgl.BufferUtils;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.cubes.CubeGeometry;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL11.GL_LESS;
+import static org.lwjgl.opengl.GL11.GL_LINEAR;
+import static org.lwjgl.opengl.GL11.GL_RGBA;
+import static org.lwjgl.opengl.GL11.GL_RGBA8;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
+import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL11.glDeleteTextures;
+import static org.lwjgl.opengl.GL11.glDepthFunc;
+import static org.lwjgl.opengl.GL11.glDisable;
+import static org.lwjgl.opengl.GL11.glEnable;
+import static org.lwjgl.opengl.GL11.glGenTextures;
+import static org.lwjgl.opengl.GL11.glGetInteger;
+import static org.lwjgl.opengl.GL11.glTexParameteri;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL12.GL_TEXTURE_MAX_LEVEL;
+import static org.lwjgl.opengl.GL12.glTexImage3D;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL15.glBindBuffer;
+import static org.lwjgl.opengl.GL15.glBufferData;
+import static org.lwjgl.opengl.GL15.glDeleteBuffers;
+import static org.lwjgl.opengl.GL15.glGenBuffers;
+import static org.lwjgl.opengl.GL20.glDeleteProgram;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glGetUniformLocation;
+import static org.lwjgl.opengl.GL20.glUniform1i;
+import static org.lwjgl.opengl.GL20.glUniformMatrix4fv;
+import static org.lwjgl.opengl.GL20.glUseProgram;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.GL_MAX_ARRAY_TEXTURE_LAYERS;
+import static org.lwjgl.opengl.GL30.GL_TEXTURE_2D_ARRAY;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL31.glDrawElementsInstanced;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.shaders.ShaderProgram.shaderProgram;
+
+/**
+ * Renders every tile of a video wall with a single instanced draw call.
+ * <p>
+ * One vertex buffer holds the geometry for both layouts, a unit quad followed by a unit cube. A second, per-instance,
+ * buffer holds the position and size of each tile and the texture array layer it shows. Adding streams therefore adds
+ * instances, not draw calls or texture bindings.
+ * <p>
+ * Requires OpenGL 3.3.
+ */
+final class WallRenderer {
+
+    private static final int POSITION_ATTRIBUTE = 0;
+
+    private static final int TEX_COORD_ATTRIBUTE = 1;
+
+    private static final int CELL_ATTRIBUTE = 2;
+
+    private static final int LAYER_ATTRIBUTE = 3;
+
+    /**
+     * Floats per instance, the centre and size of the tile followed by its layer.
+     */
+    private static final int INSTANCE_FLOATS = 5;
+
+    /**
+     * Fraction of each cell taken up by its tile, leaving a small gap between tiles.
+     */
+    private static final float TILE_FILL = 0.96f;
+
+    private static final float[] QUAD_VERTICES = {
+        -0.5f,  0.5f, 0.0f,
+         0.5f,  0.5f, 0.0f,
+         0.5f, -0.5f, 0.0f,
+        -0.5f, -0.5f, 0.0f
+    };
+
+    /**
+     * Video frames are stored top row first, so the top of the quad is at t = 0.
+     */
+    private static final float[] QUAD_TEX_COORDS = {
+        0.0f, 0.0f,
+        1.0f, 0.0f,
+        1.0f, 1.0f,
+        0.0f, 1.0f
+    };
+
+    private static final int[] QUAD_INDICES = {0, 1, 2, 2, 3, 0};
+
+    private final WallLayout layout;
+
+    private final int tileCount;
+
+    private final int columns;
+
+    private final int rows;
+
+    /**
+     * Size of each tile, in normalised device coordinates.
+     */
+    private final float tileWidth;
+
+    private final float tileHeight;
+
+    private final int programId;
+
+    private final int transformLocation;
+
+    private final int arrayTextureId;
+
+    private final int vertexArrayId;
+
+    private final int vertexBufferId;
+
+    private final int instanceBufferId;
+
+    private final int indexBufferId;
+
+    private final int indexCount;
+
+    private final long indexOffset;
+
+    /**
+     * Create a wall renderer.
+     *
+     * @param layout tile layout
+     * @param tileCount number of tiles, one per stream
+     * @param columns number of tile columns
+     * @param tileWidth width of each tile texture
+     * @param tileHeight height of each tile texture
+     */
+    WallRenderer(WallLayout layout, int tileCount, int columns, int tileWidth, int tileHeight) {
+        int maxLayers = glGetInteger(GL_MAX_ARRAY_TEXTURE_LAYERS);
+        if (tileCount > maxLayers) {
+            throw new IllegalArgumentException("At most " + maxLayers + " streams are supported by this context");
+        }
+        this.layout = layout;
+        this.tileCount = tileCount;
+        this.columns = columns;
+        this.rows = (tileCount + columns - 1) / columns;
+        float[] extent = tileExtent(layout, columns, rows);
+        this.tileWidth = extent[0];
+        this.tileHeight = extent[1];
+
+        programId = shaderProgram("/shaders/wall.vert", "/shaders/wall.frag");
+        transformLocation = glGetUniformLocation(programId, "transform");
+        glUseProgram(programId);
+        glUniform1i(glGetUniformLocation(programId, "tiles"), 0);
+        glUseProgram(0);
+
+        arrayTextureId = glGenTextures();
+        glBindTexture(GL_TEXTURE_2D_ARRAY, arrayTextureId);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAX_LEVEL, 0);
+        // Every stream is decoded at the tile size, so the array is allocated once and never changes size
+        glTexImage3D(GL_TEXTURE_2D_ARRAY, 0, GL_RGBA8, tileWidth, tileHeight, tileCount, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+
+        vertexArrayId = glGenVertexArrays();
+        glBindVertexArray(vertexArrayId);
+
+        vertexBufferId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vertexBufferId);
+        glBufferData(GL_ARRAY_BUFFER, interleavedVertices(), GL_STATIC_DRAW);
+        int stride = 5 * Float.BYTES;
+        glEnableVertexAttribArray(POSITION_ATTRIBUTE);
+        glVertexAttribPointer(POSITION_ATTRIBUTE, 3, GL_FLOAT, false, stride, 0);
+        glEnableVertexAttribArray(TEX_COORD_ATTRIBUTE);
+        glVertexAttribPointer(TEX_COORD_ATTRIBUTE, 2, GL_FLOAT, false, stride, 3 * Float.BYTES);
+
+        instanceBufferId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, instanceBufferId);
+        glBufferData(GL_ARRAY_BUFFER, instances(), GL_STATIC_DRAW);
+        int instanceStride = INSTANCE_FLOATS * Float.BYTES;
+        glEnableVertexAttribArray(CELL_ATTRIBUTE);
+        glVertexAttribPointer(CELL_ATTRIBUTE, 4, GL_FLOAT, false, instanceStride, 0);
+        glVertexAttribDivisor(CELL_ATTRIBUTE, 1);
+        glEnableVertexAttribArray(LAYER_ATTRIBUTE);
+        glVertexAttribPointer(LAYER_ATTRIBUTE, 1, GL_FLOAT, false, instanceStride, 4 * Float.BYTES);
+        glVertexAttribDivisor(LAYER_ATTRIBUTE, 1);
+
+        indexBufferId = glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBufferId);
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices(), GL_STATIC_DRAW);
+
+        // The element array binding is part of the vertex array state, so unbind the vertex array first
+        glBindVertexArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+
+        if (layout == WallLayout.CUBES) {
+            indexCount = CubeGeometry.FACES * CubeGeometry.FACE_INDICES;
+            indexOffset = (long) QUAD_INDICES.length * Integer.BYTES;
+        } else {
+            indexCount = QUAD_INDICES.length;
+            indexOffset = 0;
+        }
+    }
+
+    /**
+     * Build the vertex data for both layouts, the quad first and then the cube.
+     *
+     * @return interleaved positions and texture coordinates
+     */
+    private static FloatBuffer interleavedVertices() {
+        float[] cubeVertices = CubeGeometry.vertices();
+        float[] cubeTexCoords = CubeGeometry.texCoords();
+        int quadCount = QUAD_VERTICES.length / 3;
+        int cubeCount = cubeVertices.length / 3;
+        FloatBuffer buffer = BufferUtils.createFloatBuffer((quadCount + cubeCount) * 5);
+        for (int i = 0; i < quadCount; i++) {
+            buffer.put(QUAD_VERTICES, i * 3, 3).put(QUAD_TEX_COORDS, i * 2, 2);
+        }
+        for (int i = 0; i < cubeCount; i++) {
+            buffer.put(cubeVertices, i * 3, 3).put(cubeTexCoords, i * 2, 2);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Build the index data for both layouts, the cube indices offset past the quad vertices.
+     *
+     * @return indices
+     */
+    private static IntBuffer indices() {
+        int[] cubeIndices = CubeGeometry.indices();
+        int quadCount = QUAD_VERTICES.length / 3;
+        IntBuffer buffer = BufferUtils.createIntBuffer(QUAD_INDICES.length + cubeIndices.length);
+        buffer.put(QUAD_INDICES);
+        for (int index : cubeIndices) {
+            buffer.put(index + quadCount);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Build the per-instance data, laying the tiles out left to right and top to bottom in normalised device
+     * coordinates.
+     *
+     * @return centre, size and layer of each tile
+     */
+    private FloatBuffer instances() {
+        float cellWidth = 2.0f / columns;
+        float cellHeight = 2.0f / rows;
+        FloatBuffer buffer = BufferUtils.createFloatBuffer(tileCount * INSTANCE_FLOATS);
+        for (int tile = 0; tile < tileCount; tile++) {
+            int column = tile % columns;
+            int row = tile / columns;
+            buffer.put(-1.0f + cellWidth * (column + 0.5f))
+                  .put(1.0f - cellHeight * (row + 0.5f))
+                  .put(tileWidth)
+                  .put(tileHeight)
+                  .put(tile);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Get the size of each tile.
+     *
+     * @param layout tile layout
+     * @param columns number of tile columns
+     * @param rows number of tile rows
+     * @return width and height, in normalised device coordinates
+     */
+    private static float[] tileExtent(WallLayout layout, int columns, int rows) {
+        float width = 2.0f / columns * TILE_FILL;
+        float height = 2.0f / rows * TILE_FILL;
+        if (layout == WallLayout.CUBES) {
+            // A rotating unit cube can reach out to half its diagonal, so scale it to fit its cell whatever the angle
+            width = height = Math.min(width, height) / (float) Math.sqrt(3);
+        }
+        return new float[] {width, height};
+    }
+
+    /**
+     * Get the number of tile columns for a number of tiles, as near square as possible.
+     *
+     * @param tileCount number of tiles
+     * @return number of columns
+     */
+    static int columns(int tileCount) {
+        return (int) Math.ceil(Math.sqrt(tileCount));
+    }
+
+    /**
+     * Get the size each tile is drawn at in a window, rounded to even dimensions - decoding any larger than this
+     * only adds to the upload bandwidth, as the extra detail is never seen.
+     *
+     * @param layout tile layout
+     * @param tileCount number of tiles
+     * @param windowWidth window width, in pixels
+     * @param windowHeight window height, in pixels
+     * @return width and height, in pixels
+     */
+    static int[] screenTileSize(WallLayout layout, int tileCount, int windowWidth, int windowHeight) {
+        int columns = columns(tileCount);
+        float[] extent = tileExtent(layout, columns, (tileCount + columns - 1) / columns);
+        int width = Math.max(2, Math.round(extent[0] * windowWidth / 4) * 2);
+        int height = Math.max(2, Math.round(extent[1] * windowHeight / 4) * 2);
+        return new int[] {width, height};
+    }
+
+    /**
+     * Get the tile whose cell contains a point in a window.
+     *
+     * @param tileCount number of tiles
+     * @param x horizontal position, in pixels from the left of the window
+     * @param y vertical position, in pixels from the top of the window
+     * @param windowWidth window width, in pixels
+     * @param windowHeight window height, in pixels
+     * @return tile index, or -1 if the point is outside the window or in an empty cell
+     */
+    static int tileAt(int tileCount, double x, double y, int windowWidth, int windowHeight) {
+        if (x < 0 || y < 0 || x >= windowWidth || y >= windowHeight) {
+            return -1;
+        }
+        int columns = columns(tileCount);
+        int rows = (tileCount + columns - 1) / columns;
+        int column = (int) (x * columns / windowWidth);
+        int row = (int) (y * rows / windowHeight);
+        int tile = row * columns + column;
+        return tile < tileCount ? tile : -1;
+    }
+
+    /**
+     * Get the fraction of the window covered by a tile.
+     * <p>
+     * A rotating cube's projection averages a quarter of its surface area, one and a half times the area of a face.
+     *
+     * @param tile tile index
+     * @return fraction of the window area
+     */
+    float tileCoverage(int tile) {
+        float coverage = tileWidth * tileHeight / 4.0f;
+        return layout == WallLayout.CUBES ? coverage * 1.5f : coverage;
+    }
+
+    /**
+     * Bind the texture array, ready for the streams to upload their frames into it.
+     */
+    void bindTiles() {
+        glBindTexture(GL_TEXTURE_2D_ARRAY, arrayTextureId);
+    }
+
+    /**
+     * Render every tile.
+     *
+     * @param transform rotation applied to each tile about its own centre, sixteen floats in column-major order
+     */
+    void render(FloatBuffer transform) {
+        if (layout == WallLayout.CUBES) {
+            glEnable(GL_DEPTH_TEST);
+            glDepthFunc(GL_LESS);
+        } else {
+            glDisable(GL_DEPTH_TEST);
+        }
+        glUseProgram(programId);
+        glUniformMatrix4fv(transformLocation, false, transform);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, arrayTextureId);
+        glBindVertexArray(vertexArrayId);
+        glDrawElementsInstanced(GL_TRIANGLES, indexCount, GL_UNSIGNED_INT, indexOffset, tileCount);
+        glBindVertexArray(0);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+        glUseProgram(0);
+    }
+
+    void free() {
+        glDeleteVertexArrays(vertexArrayId);
+        glDeleteBuffers(vertexBufferId);
+        glDeleteBuffers(instanceBufferId);
+        glDeleteBuffers(indexBufferId);
+        glDeleteTextures(arrayTextureId);
+        glDeleteProgram(programId);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videowall;
+
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameCounters;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameExchange;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.VideoFrame;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+import uk.co.caprica.vlcj.player.embedded.videosurface.CallbackVideoSurface;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormatCallbackAdapter;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.RenderCallbackAdapter;
+
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL12.GL_BGRA;
+import static org.lwjgl.opengl.GL12.glTexSubImage3D;
+import static org.lwjgl.opengl.GL30.GL_TEXTURE_2D_ARRAY;
+
+/**
+ * One stream on a video wall - a media player decoding into a frame exchange, and the upload of its frames into a
+ * layer of the wall's texture array.
+ * <p>
+ * Every stream is decoded at the tile size rather than its source size, LibVLC scales the video as part of decoding,
+ * so upload bandwidth depends only on the tile size and the number of streams.
+ */
+final class WallStream implements UploadScheduler.Stream {
+
+    private final FrameExchange<VideoFrame> frames;
+
+    private final EmbeddedMediaPlayer mediaPlayer;
+
+    private final int frameBytes;
+
+    /**
+     * Create a stream.
+     *
+     * @param mediaPlayerFactory factory used to create the media player
+     * @param tileFormat format every frame is decoded in
+     * @param counters counters shared by all streams on the wall
+     */
+    WallStream(MediaPlayerFactory mediaPlayerFactory, FrameFormat tileFormat, FrameCounters counters) {
+        this.frames = new FrameExchange<>(index -> new VideoFrame(tileFormat), counters);
+        this.frameBytes = tileFormat.frameSize();
+        this.mediaPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
+        this.mediaPlayer.videoSurface().set(new CallbackVideoSurface(new TileBufferFormatCallback(tileFormat), new TileRenderCallback(frames), true));
+    }
+
+    /**
+     * Start playing, repeating the media indefinitely.
+     *
+     * @param mrl media resource locator
+     */
+    void play(String mrl) {
+        mediaPlayer.media().play(mrl, ":input-repeat=65535");
+    }
+
+    /**
+     * Check whether there is a new frame waiting to be uploaded.
+     *
+     * @return <code>true</code> if there is a new frame
+     */
+    @Override
+    public boolean ready() {
+        return frames.available();
+    }
+
+    /**
+     * Get the number of frames published since the last upload - any more than one will be dropped.
+     *
+     * @return queue depth
+     */
+    @Override
+    public long queueDepth() {
+        return frames.publishedSequence() - frames.frontSequence();
+    }
+
+    /**
+     * Get the total number of frames published so far.
+     *
+     * @return frame count
+     */
+    @Override
+    public long publishedCount() {
+        return frames.publishedSequence();
+    }
+
+    /**
+     * Get the number of bytes uploaded for each frame.
+     *
+     * @return frame size, in bytes
+     */
+    @Override
+    public int frameBytes() {
+        return frameBytes;
+    }
+
+    /**
+     * Upload the most recently published frame, if there is a new one, into a layer of the currently bound texture
+     * array.
+     *
+     * @param layer layer index
+     * @return <code>true</code> if a new frame was uploaded
+     */
+    @Override
+    public boolean upload(int layer) {
+        VideoFrame frame = frames.acquire();
+        if (frame == null) {
+            return false;
+        }
+        FrameFormat format = frame.format();
+        glTexSubImage3D(GL_TEXTURE_2D_ARRAY, 0, 0, 0, layer, format.width(), format.height(), 1, GL_BGRA, GL_UNSIGNED_BYTE, frame.pixels());
+        return true;
+    }
+
+    /**
+     * Stop and release the media player - no more frames will be published after this returns.
+     */
+    void release() {
+        mediaPlayer.release();
+    }
+
+    /**
+     * Buffer format callback that always requests the tile size, whatever the source size.
+     */
+    private static class TileBufferFormatCallback extends BufferFormatCallbackAdapter {
+
+        private final FrameFormat format;
+
+        public TileBufferFormatCallback(FrameFormat format) {
+            this.format = format;
+        }
+
+        @Override
+        public BufferFormat getBufferFormat(int sourceWidth, int sourceHeight) {
+            return new BufferFormat(format.chroma().name(), format.width(), format.height(), format.pitches(), format.lines());
+        }
+    }
+
+    /**
+     * Render callback that decodes straight into the write buffer of the frame exchange - the format never changes, so
+     * publishing a frame is just a matter of switching to the next buffer.
+     */
+    private static class TileRenderCallback extends RenderCallbackAdapter {
+
+        private final FrameExchange<VideoFrame> frames;
+
+        public TileRenderCallback(FrameExchange<VideoFrame> frames) {
+            this.frames = frames;
+            setBuffer(frames.writeBuffer().pixels());
+        }
+
+        @Override
+        protected void onDisplay(MediaPlayer mediaPlayer, int[] buffer) {
+            frames.publish();
+            setBuffer(frames.writeBuffer().pixels());
+        }
+    }
+}
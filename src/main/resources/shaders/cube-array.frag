@@ -0,0 +1,18 @@
+#version 330 core
+
+// One layer per distinct face texture, each source occupies the bottom-left corner of its layer
+uniform sampler2DArray faceTextures;
+uniform vec2 layerExtents[6];
+
+in vec2 texCoord;
+flat in int layer;
+
+out vec4 colour;
+
+void main() {
+    vec2 extent = layerExtents[layer];
+    // Keep filtering inside the source area, the rest of the layer may hold stale pixels
+    vec2 halfTexel = 0.5 / vec2(textureSize(faceTextures, 0).xy);
+    vec2 coord = clamp(texCoord * extent, halfTexel, extent - halfTexel);
+    colour = texture(faceTextures, vec3(coord, layer));
+}
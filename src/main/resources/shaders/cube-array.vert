@@ -0,0 +1,16 @@
+#version 330 core
+
+uniform mat4 transform;
+
+layout(location = 0) in vec3 position;
+layout(location = 1) in vec2 texCoordIn;
+layout(location = 2) in float layerIn;
+
+out vec2 texCoord;
+flat out int layer;
+
+void main() {
+    texCoord = texCoordIn;
+    layer = int(layerIn);
+    gl_Position = transform * vec4(position, 1.0);
+}
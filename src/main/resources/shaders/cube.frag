@@ -0,0 +1,11 @@
+#version 330 core
+
+uniform sampler2D faceTexture;
+
+in vec2 texCoord;
+
+out vec4 colour;
+
+void main() {
+    colour = texture(faceTexture, texCoord);
+}
@@ -0,0 +1,13 @@
+#version 330 core
+
+uniform mat4 transform;
+
+layout(location = 0) in vec3 position;
+layout(location = 1) in vec2 texCoordIn;
+
+out vec2 texCoord;
+
+void main() {
+    texCoord = texCoordIn;
+    gl_Position = transform * vec4(position, 1.0);
+}
@@ -0,0 +1,14 @@
+#version 330 core
+
+// Maps overlay units, origin top-left and y down, to normalised device coordinates
+uniform vec2 unitsToNdc;
+
+layout(location = 0) in vec3 position;
+layout(location = 1) in vec4 colourIn;
+
+out vec4 vertexColour;
+
+void main() {
+    vertexColour = colourIn;
+    gl_Position = vec4(position.x * unitsToNdc.x - 1.0, 1.0 - position.y * unitsToNdc.y, 0.0, 1.0);
+}
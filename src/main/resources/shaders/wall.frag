@@ -0,0 +1,12 @@
+#version 330 core
+
+uniform sampler2DArray tiles;
+
+in vec2 texCoord;
+flat in int layer;
+
+out vec4 colour;
+
+void main() {
+    colour = texture(tiles, vec3(texCoord, layer));
+}
@@ -0,0 +1,21 @@
+#version 330 core
+
+uniform mat4 transform;
+
+layout(location = 0) in vec3 position;
+layout(location = 1) in vec2 texCoordIn;
+
+// Per instance, the centre and size of the tile, and the texture array layer it shows
+layout(location = 2) in vec4 cell;
+layout(location = 3) in float layerIn;
+
+out vec2 texCoord;
+flat out int layer;
+
+void main() {
+    vec4 rotated = transform * vec4(position, 1.0);
+    texCoord = texCoordIn;
+    layer = int(layerIn);
+    // Tiles never overlap, so depth only has to order the faces within a tile
+    gl_Position = vec4(cell.xy + rotated.xy * cell.zw, rotated.z * 0.5, 1.0);
+}
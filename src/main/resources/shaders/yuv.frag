@@ -0,0 +1,28 @@
+#version 330 core
+
+// Converts planar (I420) or semi-planar (NV12) YUV to RGB
+//
+// For I420 the U and V samples come from the red channel of separate planes, for NV12 they come from the red and green
+// channels of a single interleaved plane
+
+uniform sampler2D planeY;
+uniform sampler2D planeU;
+uniform sampler2D planeV;
+
+uniform bool interleaved;
+
+// Offset subtracted from each component before the matrix is applied - black level for Y, mid-point for U and V
+uniform vec3 offset;
+
+// Range expansion and the colour space conversion, combined
+uniform mat3 yuvToRgb;
+
+in vec2 texCoord;
+
+out vec4 colour;
+
+void main() {
+    float y = texture(planeY, texCoord).r;
+    vec2 uv = interleaved ? texture(planeU, texCoord).rg : vec2(texture(planeU, texCoord).r, texture(planeV, texCoord).r);
+    colour = vec4(clamp(yuvToRgb * (vec3(y, uv) - offset), 0.0, 1.0), 1.0);
+}
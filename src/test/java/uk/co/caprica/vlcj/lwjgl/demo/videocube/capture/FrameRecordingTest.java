@@ -0,0 +1,220 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.capture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.Chroma;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.frames.FrameFormat;
+import uk.co.caprica.vlcj.lwjgl.demo.videocube.source.FrameSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.RECORD_HEADER_SIZE;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.RECORD_SIZE;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.RECORD_TYPE;
+import static uk.co.caprica.vlcj.lwjgl.demo.videocube.capture.RawFrameFile.TYPE_PADDING;
+
+class FrameRecordingTest {
+
+    /**
+     * Small enough that a handful of 16x16 frames spill over into further windows.
+     */
+    private static final long WINDOW_SIZE = 4096;
+
+    private static final FrameFormat RGB = new FrameFormat(Chroma.RV32, 16, 16);
+
+    private static final FrameFormat YUV = new FrameFormat(Chroma.I420, 16, 16);
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Counts the calls passed on by the recorder.
+     */
+    private static final class CountingSink implements FrameSink {
+
+        private FrameFormat format;
+
+        private int locks;
+
+        private int displays;
+
+        private int unlocks;
+
+        @Override
+        public void setFormat(FrameFormat format) {
+            this.format = format;
+        }
+
+        @Override
+        public void lock() {
+            locks++;
+        }
+
+        @Override
+        public void display(ByteBuffer[] planes) {
+            displays++;
+        }
+
+        @Override
+        public void unlock() {
+            unlocks++;
+        }
+    }
+
+    /**
+     * Make the planes of a frame, every byte derived from the frame number so each frame can be told apart.
+     */
+    private static ByteBuffer[] frame(FrameFormat format, int number) {
+        ByteBuffer[] planes = new ByteBuffer[format.planeCount()];
+        for (int plane = 0; plane < planes.length; plane++) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(format.planeSize(plane)).order(ByteOrder.nativeOrder());
+            for (int i = 0; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) (number * 31 + plane * 7 + i));
+            }
+            planes[plane] = buffer;
+        }
+        return planes;
+    }
+
+    private static void deliver(FrameSink sink, ByteBuffer[] planes) {
+        sink.lock();
+        sink.unlock();
+        sink.display(planes);
+    }
+
+    private static FrameFormat formatOf(int number) {
+        return number < 5 ? RGB : YUV;
+    }
+
+    @Test
+    void roundTripAcrossWindowBoundaries() throws IOException {
+        Path file = directory.resolve("frames.raw");
+        CountingSink sink = new CountingSink();
+        int frames = 8;
+        try (FrameRecorder recorder = new FrameRecorder(file, sink, WINDOW_SIZE)) {
+            for (int number = 0; number < frames; number++) {
+                if (number == 0 || formatOf(number) != formatOf(number - 1)) {
+                    recorder.setFormat(formatOf(number));
+                }
+                deliver(recorder, frame(formatOf(number), number));
+            }
+            assertEquals(frames, recorder.frameCount());
+        }
+        assertSame(YUV, sink.format);
+        assertEquals(frames, sink.locks);
+        assertEquals(frames, sink.displays);
+        assertEquals(frames, sink.unlocks);
+        assertTrue(Files.size(file) > 2 * WINDOW_SIZE);
+
+        try (FrameRecording recording = new FrameRecording(file)) {
+            long previousTimestamp = 0;
+            for (int number = 0; number < frames; number++) {
+                assertTrue(recording.next(), "frame " + number);
+                assertEquals(formatOf(number), recording.format());
+                if (number == 0) {
+                    assertEquals(0, recording.timestamp());
+                }
+                assertTrue(recording.timestamp() >= previousTimestamp);
+                previousTimestamp = recording.timestamp();
+                ByteBuffer[] expected = frame(formatOf(number), number);
+                ByteBuffer[] planes = recording.planes();
+                assertEquals(expected.length, planes.length);
+                for (int plane = 0; plane < planes.length; plane++) {
+                    assertEquals(expected[plane], planes[plane], "frame " + number + " plane " + plane);
+                }
+            }
+            assertFalse(recording.next());
+
+            recording.rewind();
+            assertTrue(recording.next());
+            assertEquals(frame(RGB, 0)[0], recording.planes()[0]);
+        }
+    }
+
+    @Test
+    void recordThatDoesNotFitIsPrecededByPadding() throws IOException {
+        Path file = directory.resolve("padding.raw");
+        long recordSize = RECORD_HEADER_SIZE + RawFrameFile.align(RGB.frameSize());
+        // The file header plus three records leaves too little room for a fourth and its trailing padding record
+        long paddingOffset = RawFrameFile.FILE_HEADER_SIZE + 3 * recordSize;
+        assertTrue(paddingOffset + recordSize + RECORD_HEADER_SIZE > WINDOW_SIZE);
+        try (FrameRecorder recorder = new FrameRecorder(file, new CountingSink(), WINDOW_SIZE)) {
+            recorder.setFormat(RGB);
+            for (int number = 0; number < 4; number++) {
+                deliver(recorder, frame(RGB, number));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, paddingOffset);
+            assertEquals(TYPE_PADDING, header.getInt(RECORD_TYPE));
+            assertEquals(WINDOW_SIZE - paddingOffset, header.getLong(RECORD_SIZE));
+        }
+        try (FrameRecording recording = new FrameRecording(file)) {
+            for (int number = 0; number < 4; number++) {
+                assertTrue(recording.next());
+                assertEquals(frame(RGB, number)[0], recording.planes()[0]);
+            }
+            assertFalse(recording.next());
+        }
+    }
+
+    @Test
+    void frameTooLargeForAWindowStopsRecordingButIsStillPassedOn() throws IOException {
+        Path file = directory.resolve("large.raw");
+        FrameFormat large = new FrameFormat(Chroma.RV32, 64, 64);
+        CountingSink sink = new CountingSink();
+        try (FrameRecorder recorder = new FrameRecorder(file, sink, WINDOW_SIZE)) {
+            recorder.setFormat(large);
+            deliver(recorder, frame(large, 0));
+            assertEquals(0, recorder.frameCount());
+        }
+        assertEquals(1, sink.displays);
+        assertNull(FrameRecording.firstFormat(file));
+    }
+
+    @Test
+    void emptyRecordingHasNoFrames() throws IOException {
+        Path file = directory.resolve("empty.raw");
+        new FrameRecorder(file, new CountingSink(), WINDOW_SIZE).close();
+        assertNull(FrameRecording.firstFormat(file));
+    }
+
+    @Test
+    void fileThatIsNotARecordingIsRejected() throws IOException {
+        Path file = directory.resolve("other.raw");
+        Files.write(file, new byte[128]);
+        assertThrows(IOException.class, () -> new FrameRecording(file));
+    }
+}
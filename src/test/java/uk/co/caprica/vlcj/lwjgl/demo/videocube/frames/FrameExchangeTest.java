@@ -0,0 +1,139 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.frames;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameExchangeTest {
+
+    private final FrameCounters counters = new FrameCounters();
+
+    /**
+     * Each buffer holds the sequence number of the frame written into it.
+     */
+    private final FrameExchange<long[]> exchange = new FrameExchange<>(index -> new long[1], counters);
+
+    private long publishFrame() {
+        exchange.writeBuffer()[0] = exchange.publishedSequence() + 1;
+        return exchange.publish();
+    }
+
+    @Test
+    void nothingToAcquireBeforeTheFirstPublish() {
+        assertFalse(exchange.available());
+        assertNull(exchange.acquire());
+        assertEquals(0, exchange.frontSequence());
+        assertEquals(0, exchange.publishedSequence());
+        assertEquals(1, counters.duplicateCount());
+        assertEquals(0, counters.uploadedCount());
+    }
+
+    @Test
+    void acquireReturnsThePublishedBufferOnce() {
+        long[] written = exchange.writeBuffer();
+        assertEquals(1, publishFrame());
+        assertNotSame(written, exchange.writeBuffer());
+        assertTrue(exchange.available());
+
+        assertSame(written, exchange.acquire());
+        assertSame(written, exchange.readBuffer());
+        assertEquals(1, exchange.frontSequence());
+        assertFalse(exchange.available());
+
+        assertNull(exchange.acquire());
+        assertSame(written, exchange.readBuffer());
+        assertEquals(1, counters.uploadedCount());
+        assertEquals(1, counters.duplicateCount());
+        assertEquals(0, counters.droppedCount());
+    }
+
+    @Test
+    void acquireTakesTheNewestFrameAndCountsTheSkippedOnes() {
+        publishFrame();
+        exchange.acquire();
+
+        publishFrame();
+        publishFrame();
+        assertEquals(4, publishFrame());
+        assertEquals(4, exchange.publishedSequence());
+
+        long[] frame = exchange.acquire();
+        assertEquals(4, frame[0]);
+        assertEquals(4, exchange.frontSequence());
+        assertEquals(2, counters.uploadedCount());
+        assertEquals(2, counters.droppedCount());
+        assertEquals(0, counters.duplicateCount());
+    }
+
+    @Test
+    void producerAndConsumerNeverShareABuffer() {
+        for (int i = 0; i < 10; i++) {
+            assertNotSame(exchange.writeBuffer(), exchange.readBuffer());
+            publishFrame();
+            assertNotSame(exchange.writeBuffer(), exchange.readBuffer());
+            if (i % 3 == 0) {
+                exchange.acquire();
+            }
+        }
+    }
+
+    @Test
+    void concurrentFramesArriveInOrderAndIntact() throws InterruptedException {
+        int frames = 200_000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < frames; i++) {
+                publishFrame();
+            }
+        }, "producer");
+        producer.setUncaughtExceptionHandler((thread, e) -> failure.set(e));
+        producer.start();
+
+        long first = 0;
+        long last = 0;
+        while (last < frames && (producer.isAlive() || exchange.available())) {
+            long[] frame = exchange.acquire();
+            if (frame != null) {
+                // The buffer must hold the frame its sequence number says it does, and frames never go backwards
+                assertEquals(exchange.frontSequence(), frame[0]);
+                assertTrue(frame[0] > last);
+                if (first == 0) {
+                    first = frame[0];
+                }
+                last = frame[0];
+            }
+        }
+        producer.join();
+        assertNull(failure.get());
+
+        assertEquals(frames, exchange.frontSequence());
+        assertEquals(last - first + 1, counters.uploadedCount() + counters.droppedCount());
+        assertFalse(exchange.available());
+    }
+}
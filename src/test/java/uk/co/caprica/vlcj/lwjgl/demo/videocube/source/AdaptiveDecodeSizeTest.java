@@ -0,0 +1,127 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.source;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveDecodeSizeTest {
+
+    private static final float HYSTERESIS = 1.5f;
+
+    private final AtomicInteger renegotiations = new AtomicInteger();
+
+    private final int[] size = new int[2];
+
+    /**
+     * Create an adaptive decode size that renegotiates by counting, with a first format already negotiated.
+     */
+    private AdaptiveDecodeSize negotiated(long minimumIntervalMillis, int sourceWidth, int sourceHeight) {
+        AdaptiveDecodeSize decodeSize = new AdaptiveDecodeSize(HYSTERESIS, minimumIntervalMillis);
+        decodeSize.setRenegotiation(renegotiations::incrementAndGet);
+        decodeSize.scale(sourceWidth, sourceHeight, size);
+        return decodeSize;
+    }
+
+    @Test
+    void hysteresisMustBeGreaterThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveDecodeSize(1f, 0));
+    }
+
+    @Test
+    void firstFormatIsTheSourceSize() {
+        negotiated(0, 1920, 1080);
+        assertArrayEquals(new int[] {1920, 1080}, size);
+    }
+
+    @Test
+    void nothingHappensBeforeAFormatOrWithoutARenegotiation() {
+        AdaptiveDecodeSize decodeSize = new AdaptiveDecodeSize(HYSTERESIS, 0);
+        decodeSize.setRenegotiation(renegotiations::incrementAndGet);
+        assertFalse(decodeSize.update(100, 100));
+
+        AdaptiveDecodeSize unsupported = new AdaptiveDecodeSize(HYSTERESIS, 0);
+        unsupported.scale(1920, 1080, size);
+        assertFalse(unsupported.update(100, 100));
+        assertEquals(0, renegotiations.get());
+    }
+
+    @Test
+    void smallSurfaceRenegotiatesToCoverIt() {
+        AdaptiveDecodeSize decodeSize = negotiated(0, 1920, 1080);
+        assertTrue(decodeSize.update(480, 270));
+        assertEquals(1, renegotiations.get());
+        decodeSize.scale(1920, 1080, size);
+        assertArrayEquals(new int[] {480, 270}, size);
+    }
+
+    @Test
+    void scaleCoversTheLargerDimensionAndRoundsToEvenSizes() {
+        AdaptiveDecodeSize decodeSize = negotiated(0, 1000, 564);
+        assertTrue(decodeSize.update(100, 141));
+        decodeSize.scale(1000, 564, size);
+        assertArrayEquals(new int[] {250, 142}, size);
+    }
+
+    @Test
+    void changesWithinTheHysteresisAreIgnored() {
+        AdaptiveDecodeSize decodeSize = negotiated(0, 1920, 1080);
+        assertTrue(decodeSize.update(480, 270));
+        decodeSize.scale(1920, 1080, size);
+
+        assertFalse(decodeSize.update(400, 225));
+        assertFalse(decodeSize.update(700, 394));
+        assertTrue(decodeSize.update(960, 540));
+        assertEquals(2, renegotiations.get());
+        decodeSize.scale(1920, 1080, size);
+        assertArrayEquals(new int[] {960, 540}, size);
+    }
+
+    @Test
+    void neverScalesAboveTheSourceOrBelowTheMinimum() {
+        AdaptiveDecodeSize decodeSize = negotiated(0, 1920, 1080);
+        assertTrue(decodeSize.update(1, 1));
+        decodeSize.scale(1920, 1080, size);
+        assertArrayEquals(new int[] {28, 16}, size);
+
+        assertTrue(decodeSize.update(3840, 2160));
+        decodeSize.scale(1920, 1080, size);
+        assertArrayEquals(new int[] {1920, 1080}, size);
+    }
+
+    @Test
+    void renegotiationsAreRateLimited() {
+        AdaptiveDecodeSize decodeSize = negotiated(3_600_000, 1920, 1080);
+        assertTrue(decodeSize.update(480, 270));
+        decodeSize.scale(1920, 1080, size);
+
+        assertFalse(decodeSize.update(1920, 1080));
+        assertEquals(1, renegotiations.get());
+        decodeSize.scale(1920, 1080, size);
+        assertArrayEquals(new int[] {480, 270}, size);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videocube.window;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResizeCoalescerTest {
+
+    private static final long QUIET = 100;
+
+    private static final long INTERVAL = 250;
+
+    private final ResizeCoalescer coalescer = new ResizeCoalescer(QUIET, INTERVAL);
+
+    private final int[] size = new int[2];
+
+    @Test
+    void nothingIsDueWithoutAResize() {
+        assertEquals(Long.MAX_VALUE, coalescer.nanosUntilDue(0));
+        assertFalse(coalescer.poll(0, size));
+        assertEquals(0, coalescer.appliedCount());
+    }
+
+    @Test
+    void firstResizeIsAppliedStraightAway() {
+        coalescer.resized(800, 600, 1000);
+        assertEquals(0, coalescer.nanosUntilDue(1000));
+        assertTrue(coalescer.poll(1000, size));
+        assertArrayEquals(new int[] {800, 600}, size);
+        assertEquals(Long.MAX_VALUE, coalescer.nanosUntilDue(1000));
+        assertFalse(coalescer.poll(1000, size));
+    }
+
+    @Test
+    void zeroIntervalAppliesEverySizeStraightAway() {
+        ResizeCoalescer immediate = new ResizeCoalescer(QUIET, 0);
+        for (int i = 0; i < 3; i++) {
+            immediate.resized(800 + i, 600, 1000 + i);
+            assertEquals(0, immediate.nanosUntilDue(1000 + i));
+            assertTrue(immediate.poll(1000 + i, size));
+            assertArrayEquals(new int[] {800 + i, 600}, size);
+        }
+        assertEquals(3, immediate.eventCount());
+        assertEquals(3, immediate.appliedCount());
+    }
+
+    @Test
+    void latestSizeIsAppliedOnceResizesGoQuiet() {
+        coalescer.resized(800, 600, 1000);
+        coalescer.poll(1000, size);
+
+        coalescer.resized(810, 600, 1010);
+        coalescer.resized(820, 610, 1020);
+        assertEquals(QUIET - 10, coalescer.nanosUntilDue(1030));
+        assertFalse(coalescer.poll(1030, size));
+        assertArrayEquals(new int[] {800, 600}, size);
+
+        assertTrue(coalescer.poll(1020 + QUIET, size));
+        assertArrayEquals(new int[] {820, 610}, size);
+        assertEquals(3, coalescer.eventCount());
+        assertEquals(2, coalescer.appliedCount());
+    }
+
+    @Test
+    void continuousResizesAreAppliedAtTheInterval() {
+        coalescer.resized(800, 600, 0);
+        coalescer.poll(0, size);
+
+        // A drag that never pauses for the quiet period
+        long time = 0;
+        int applied = 0;
+        long lastApplied = 0;
+        for (int width = 801; width <= 890; width++) {
+            time += 10;
+            coalescer.resized(width, 600, time);
+            if (coalescer.poll(time, size)) {
+                assertEquals(width, size[0]);
+                assertTrue(time - lastApplied >= INTERVAL);
+                lastApplied = time;
+                applied++;
+            }
+        }
+        assertEquals(900 / INTERVAL, applied);
+        assertEquals(91, coalescer.eventCount());
+        assertEquals(1 + applied, coalescer.appliedCount());
+
+        // The last size of the drag follows after the quiet period
+        assertEquals(QUIET, coalescer.nanosUntilDue(time));
+        assertTrue(coalescer.poll(time + QUIET, size));
+        assertArrayEquals(new int[] {890, 600}, size);
+    }
+
+    @Test
+    void intervalCanMakeTheSizeDueBeforeTheQuietPeriod() {
+        ResizeCoalescer patient = new ResizeCoalescer(1000, 50);
+        patient.resized(800, 600, 0);
+        patient.poll(0, size);
+
+        patient.resized(900, 700, 20);
+        assertEquals(30, patient.nanosUntilDue(20));
+        assertTrue(patient.poll(50, size));
+        assertArrayEquals(new int[] {900, 700}, size);
+    }
+}
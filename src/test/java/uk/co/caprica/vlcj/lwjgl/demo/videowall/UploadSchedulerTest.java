@@ -0,0 +1,173 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videowall;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UploadSchedulerTest {
+
+    private static final int FRAME_BYTES = 1000;
+
+    /**
+     * A stream that publishes a new frame before every schedule while it is decoding.
+     */
+    private static final class FakeStream implements UploadScheduler.Stream {
+
+        private boolean decoding = true;
+
+        private long published;
+
+        private long uploaded;
+
+        private boolean ready;
+
+        void nextFrame() {
+            if (decoding) {
+                published++;
+                ready = true;
+            }
+        }
+
+        @Override
+        public boolean ready() {
+            return ready;
+        }
+
+        @Override
+        public long queueDepth() {
+            return ready ? 1 : 0;
+        }
+
+        @Override
+        public long publishedCount() {
+            return published;
+        }
+
+        @Override
+        public int frameBytes() {
+            return FRAME_BYTES;
+        }
+
+        @Override
+        public boolean upload(int layer) {
+            if (!ready) {
+                return false;
+            }
+            ready = false;
+            uploaded++;
+            return true;
+        }
+    }
+
+    private static List<FakeStream> streams(int count) {
+        List<FakeStream> streams = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            streams.add(new FakeStream());
+        }
+        return streams;
+    }
+
+    private static int runFrames(UploadScheduler scheduler, List<FakeStream> streams, int frames) {
+        int uploaded = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            streams.forEach(FakeStream::nextFrame);
+            uploaded += scheduler.schedule(streams);
+        }
+        return uploaded;
+    }
+
+    @Test
+    void withoutBudgetEveryReadyStreamUploads() {
+        List<FakeStream> streams = streams(4);
+        UploadScheduler scheduler = new UploadScheduler(streams.size(), 0);
+        assertEquals(40, runFrames(scheduler, streams, 10));
+        streams.forEach(stream -> assertEquals(10, stream.uploaded));
+    }
+
+    @Test
+    void streamWithZeroWeightNeverUploads() {
+        List<FakeStream> streams = streams(3);
+        UploadScheduler scheduler = new UploadScheduler(streams.size(), 0);
+        scheduler.setWeight(1, 0.0);
+        runFrames(scheduler, streams, 10);
+        assertEquals(10, streams.get(0).uploaded);
+        assertEquals(0, streams.get(1).uploaded);
+        assertEquals(10, streams.get(2).uploaded);
+    }
+
+    @Test
+    void budgetLimitsBytesPerFrameAndSharesThemFairly() {
+        List<FakeStream> streams = streams(4);
+        UploadScheduler scheduler = new UploadScheduler(streams.size(), 2 * FRAME_BYTES);
+        for (int frame = 0; frame < 400; frame++) {
+            streams.forEach(FakeStream::nextFrame);
+            int uploaded = scheduler.schedule(streams);
+            assertTrue(uploaded <= 2, "uploaded " + uploaded + " frames within a two-frame budget");
+        }
+        // Equal weights, so every stream gets an equal share of the 800 uploads the budget allows
+        for (FakeStream stream : streams) {
+            assertEquals(200, stream.uploaded, 1);
+        }
+    }
+
+    @Test
+    void budgetIsSharedInProportionToWeight() {
+        List<FakeStream> streams = streams(2);
+        UploadScheduler scheduler = new UploadScheduler(streams.size(), FRAME_BYTES);
+        scheduler.setWeight(0, 3.0);
+        scheduler.setWeight(1, 1.0);
+        assertEquals(400, runFrames(scheduler, streams, 400));
+        assertEquals(300, streams.get(0).uploaded, 2);
+        assertEquals(100, streams.get(1).uploaded, 2);
+    }
+
+    @Test
+    void budgetSmallerThanOneFrameStillMakesProgressWithoutStarvation() {
+        List<FakeStream> streams = streams(4);
+        UploadScheduler scheduler = new UploadScheduler(streams.size(), FRAME_BYTES / 10);
+        assertEquals(400, runFrames(scheduler, streams, 400));
+        for (FakeStream stream : streams) {
+            assertTrue(stream.uploaded > 0, "a stream was starved");
+        }
+    }
+
+    @Test
+    void idleStreamDoesNotBankCredit() {
+        List<FakeStream> streams = streams(2);
+        UploadScheduler scheduler = new UploadScheduler(streams.size(), FRAME_BYTES);
+        streams.get(1).decoding = false;
+        runFrames(scheduler, streams, 100);
+        assertEquals(100, streams.get(0).uploaded);
+        assertEquals(0, streams.get(1).uploaded);
+
+        // Once both are decoding they take turns, the previously idle stream gets no burst of uploads
+        streams.get(1).decoding = true;
+        long before = streams.get(0).uploaded;
+        runFrames(scheduler, streams, 10);
+        assertEquals(5, streams.get(0).uploaded - before, 1);
+        assertEquals(5, streams.get(1).uploaded, 1);
+    }
+}
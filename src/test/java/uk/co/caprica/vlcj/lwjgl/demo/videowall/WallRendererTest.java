@@ -0,0 +1,55 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2025 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.lwjgl.demo.videowall;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WallRendererTest {
+
+    private static final int WIDTH = 1600;
+
+    private static final int HEIGHT = 900;
+
+    @Test
+    void findsTheTileUnderAPoint() {
+        // Sixteen tiles are laid out four by four, each cell 400x225
+        assertEquals(0, WallRenderer.tileAt(16, 0, 0, WIDTH, HEIGHT));
+        assertEquals(1, WallRenderer.tileAt(16, 400, 0, WIDTH, HEIGHT));
+        assertEquals(4, WallRenderer.tileAt(16, 399, 225, WIDTH, HEIGHT));
+        assertEquals(15, WallRenderer.tileAt(16, WIDTH - 1, HEIGHT - 1, WIDTH, HEIGHT));
+    }
+
+    @Test
+    void noTileOutsideTheWindow() {
+        assertEquals(-1, WallRenderer.tileAt(16, -1, 10, WIDTH, HEIGHT));
+        assertEquals(-1, WallRenderer.tileAt(16, 10, -1, WIDTH, HEIGHT));
+        assertEquals(-1, WallRenderer.tileAt(16, WIDTH, 10, WIDTH, HEIGHT));
+        assertEquals(-1, WallRenderer.tileAt(16, 10, HEIGHT, WIDTH, HEIGHT));
+    }
+
+    @Test
+    void noTileInAnEmptyCell() {
+        // Five tiles are laid out three by two, leaving the last cell of the second row empty
+        assertEquals(4, WallRenderer.tileAt(5, WIDTH / 2.0, HEIGHT - 1, WIDTH, HEIGHT));
+        assertEquals(-1, WallRenderer.tileAt(5, WIDTH - 1, HEIGHT - 1, WIDTH, HEIGHT));
+    }
+}